@@ -0,0 +1,85 @@
+package com.stream.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of requests that may be doing database work at the same time.
+ * <p>
+ * With platform threads the Tomcat worker pool bounds concurrency. With virtual threads every
+ * request gets its own thread, so thousands of requests would queue inside the connection pool
+ * and fail only after its acquisition timeout. The bulkhead admits a fixed number of requests,
+ * sized to the connection pool, lets the rest wait briefly for a permit and rejects them with
+ * {@code 503 Service Unavailable} once the wait is exceeded.
+ * <p>
+ * Waiting on the {@link Semaphore} parks a virtual thread without pinning its carrier.
+ * The bulkhead is disabled when {@code videos.bulkhead.max-concurrent} is 0.
+ */
+@Slf4j
+@Component
+public class RequestBulkhead implements HandlerInterceptor {
+    private static final String PERMIT_ATTR = RequestBulkhead.class.getName() + ".permit";
+
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+    private final LongAdder rejected = new LongAdder();
+
+    public RequestBulkhead(@Value("${videos.bulkhead.max-concurrent:0}") int maxConcurrent,
+                           @Value("${videos.bulkhead.max-wait-ms:1000}") long maxWaitMillis) {
+        this.permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * @return {@code true} if the bulkhead limits concurrent requests.
+     */
+    public boolean isEnabled() {
+        return permits != null;
+    }
+
+    /**
+     * @return The number of requests rejected because no permit became available in time.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return The number of requests that could be admitted right now, or 0 if the bulkhead is disabled.
+     */
+    public int getAvailablePermits() {
+        return permits == null ? 0 : permits.availablePermits();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws InterruptedException {
+        if (permits == null || request.getAttribute(PERMIT_ATTR) != null) {
+            return true;
+        }
+        if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+            rejected.increment();
+            response.setHeader("Retry-After", "1");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please retry");
+        }
+        request.setAttribute(PERMIT_ATTR, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (permits != null && request.getAttribute(PERMIT_ATTR) != null) {
+            request.removeAttribute(PERMIT_ATTR);
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.stream.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.stream.dto.VideoSummaryDTO;
+import com.stream.model.Video;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Response formats of the REST API.
+ * <p>
+ * Besides JSON, responses can be negotiated as CBOR ({@code Accept: application/cbor}) or Smile
+ * ({@code Accept: application/x-jackson-smile}), two binary encodings of the same documents that
+ * are smaller and cheaper to write. Their converters use the same Jackson configuration as the
+ * JSON one and come after it, so clients that accept anything still get JSON.
+ * <p>
+ * {@link Video} and {@link VideoSummaryDTO} carry the {@value #FIELDS_FILTER} property filter,
+ * which serializes every property unless a request asks for a sparse fieldset; see
+ * {@link SparseFieldsetAdvice}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class SerializationConfig implements WebMvcConfigurer {
+    /**
+     * Identifier of the property filter restricting a response to the requested fields.
+     */
+    public static final String FIELDS_FILTER = "fields";
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetCustomizer() {
+        return SerializationConfig::sparseFieldsets;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring MVC registers both formats with a default mapper when they are on the classpath.
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilders.getObject().factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilders.getObject().factory(new SmileFactory()).build()));
+    }
+
+    /**
+     * Attaches the {@value #FIELDS_FILTER} filter to the catalog documents, serializing every
+     * property by default.
+     *
+     * @param builder The builder of an object mapper.
+     */
+    public static void sparseFieldsets(Jackson2ObjectMapperBuilder builder) {
+        builder.mixIn(Video.class, SparseFieldset.class)
+                .mixIn(VideoSummaryDTO.class, SparseFieldset.class)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    /**
+     * Builds filters that keep only the given properties of the catalog documents.
+     *
+     * @param fields The names of the properties to keep.
+     * @return Filters to serialize a response with.
+     */
+    public static FilterProvider onlyFields(Set<String> fields) {
+        return new SimpleFilterProvider()
+                .addFilter(FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields))
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    @JsonFilter(FIELDS_FILTER)
+    private interface SparseFieldset {
+    }
+}
@@ -0,0 +1,48 @@
+package com.stream.config;
+
+import com.stream.controller.VideoController;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the {@code fields} request parameter of the catalog endpoints.
+ * <p>
+ * With {@code fields=id,title,runningTime}, every video in the response is serialized with just
+ * those properties, in whichever format was negotiated; unknown names are ignored. Properties are
+ * left out while writing, so a sparse response costs less to produce as well as to transfer.
+ */
+@RestControllerAdvice(assignableTypes = VideoController.class)
+public class SparseFieldsetAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+    /**
+     * Name of the request parameter listing the fields to return.
+     */
+    public static final String FIELDS_PARAMETER = "fields";
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        String fields = servletRequest.getServletRequest().getParameter(FIELDS_PARAMETER);
+        if (fields == null || fields.isBlank()) {
+            return;
+        }
+        Set<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+        bodyContainer.setFilters(SerializationConfig.onlyFields(names));
+    }
+}
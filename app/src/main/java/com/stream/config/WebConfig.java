@@ -0,0 +1,28 @@
+package com.stream.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the {@link RequestBulkhead} on the endpoints backed by the database.
+ * <p>
+ * Media streaming, uploads and the catalog export are excluded: they are bound by disk or network
+ * I/O for most of their duration and would hold a permit while barely using the database.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+    private final RequestBulkhead requestBulkhead;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!requestBulkhead.isEnabled()) {
+            return;
+        }
+        registry.addInterceptor(requestBulkhead)
+                .addPathPatterns("/videos/**", "/engagement/**")
+                .excludePathPatterns("/videos/export", "/videos/*/play", "/videos/*/uploads/**");
+    }
+}
@@ -0,0 +1,158 @@
+package com.stream.controller;
+
+import com.stream.dto.BatchIngestResultDTO;
+import com.stream.dto.ReachDTO;
+import com.stream.dto.TrendingVideoDTO;
+import com.stream.model.EngagementStats;
+import com.stream.reach.ReachService;
+import com.stream.service.EngagementService;
+import com.stream.trending.TrendingRanking;
+import com.stream.trending.TrendingService;
+import com.stream.trending.TrendingWindow;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * REST Controller for managing video engagement statistics.
+ * This controller handles API endpoints related to tracking video impressions,
+ * views, and retrieving engagement statistics.
+ *
+ * <p>Endpoints include:
+ * <ul>
+ *     <li>Recording an impression when a video is loaded</li>
+ *     <li>Recording a view when a video is played</li>
+ *     <li>Ingesting batches of impressions and views in a single request</li>
+ *     <li>Retrieving engagement statistics for a specific video</li>
+ *     <li>Listing trending videos over the last hour, day or week</li>
+ *     <li>Estimating the distinct viewers a video reached</li>
+ * </ul>
+ *
+ * <p>Uses {@link EngagementService} to process engagement data, {@link TrendingService}
+ * for the trending leaderboard and {@link ReachService} for unique-viewer estimates.</p>
+ */
+@RestController
+@RequestMapping("/engagement")
+@RequiredArgsConstructor
+public class EngagementController {
+    private final EngagementService engagementService;
+    private final TrendingService trendingService;
+    private final ReachService reachService;
+
+    /**
+     * Records an impression for a given video.
+     * <p>An impression is registered when a user loads the video page.</p>
+     * <p>An optional viewer identifier counts the viewer towards the video's reach.</p>
+     *
+     * @param videoId  The unique identifier of the video
+     * @param viewerId An opaque identifier of the viewer, if known
+     * @return ResponseEntity with HTTP status 200 (OK) if successful
+     */
+    @PostMapping("/{videoId}/impression")
+    public ResponseEntity<Void> recordImpression(@PathVariable UUID videoId,
+                                                 @RequestParam(required = false) String viewerId) {
+        engagementService.recordImpression(videoId, viewerId);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Records a view for a given video.
+     * <p>A view is counted when a user actually plays the video.</p>
+     * <p>An optional viewer identifier counts the viewer towards the video's reach.</p>
+     *
+     * @param videoId  The unique identifier of the video
+     * @param viewerId An opaque identifier of the viewer, if known
+     * @return ResponseEntity with HTTP status 200 (OK) if successful
+     */
+    @PostMapping("/{videoId}/view")
+    public ResponseEntity<Void> recordView(@PathVariable UUID videoId,
+                                           @RequestParam(required = false) String viewerId) {
+        engagementService.recordView(videoId, viewerId);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Records a batch of engagement events.
+     * <p>The body is either a JSON array or newline-delimited JSON of
+     * {@code {videoId, type, count}} events and is read incrementally.</p>
+     *
+     * @param request The HTTP request whose body contains the events
+     * @return ResponseEntity containing the number of accepted and rejected events
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BatchIngestResultDTO> recordBatch(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(engagementService.ingestBatch(request.getInputStream()));
+    }
+
+    /**
+     * Retrieves engagement statistics for a specific video.
+     * <p>Returns metrics such as the number of impressions and views.</p>
+     *
+     * @param videoId The unique identifier of the video
+     * @return ResponseEntity containing the engagement statistics if found,
+     *         or a 404 (Not Found) response if no stats are available.
+     */
+    @GetMapping("/{videoId}")
+    public ResponseEntity<EngagementStats> getStats(@PathVariable UUID videoId) {
+        return engagementService.getStats(videoId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Lists the trending videos of a sliding window.
+     * <p>The leaderboard is served from memory and never queries the database. Ranking by
+     * {@code ratio} orders videos by views per impression and only includes videos with enough
+     * impressions in the window.</p>
+     *
+     * @param window The window: {@code 1h}, {@code 24h} or {@code 7d}
+     * @param by     The ranking: {@code views} or {@code ratio}
+     * @param limit  The maximum number of videos to return, between 1 and 100
+     * @return ResponseEntity containing the trending videos, best first
+     * @throws ResponseStatusException if a parameter is invalid (returns 400 BAD REQUEST)
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingVideoDTO>> getTrending(@RequestParam(defaultValue = "24h") String window,
+                                                              @RequestParam(defaultValue = "views") String by,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        TrendingWindow trendingWindow = TrendingWindow.fromKey(window)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown window: " + window));
+        TrendingRanking ranking;
+        try {
+            ranking = TrendingRanking.valueOf(by.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown ranking: " + by);
+        }
+        if (limit < 1 || limit > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 100");
+        }
+        return ResponseEntity.ok(trendingService.top(trendingWindow, ranking, limit));
+    }
+
+    /**
+     * Estimates how many distinct viewers a video reached over the last days.
+     * <p>Only impressions and views recorded with a viewer identifier are counted. The estimates
+     * come from HyperLogLog sketches and carry the returned relative standard error.</p>
+     *
+     * @param videoId The unique identifier of the video
+     * @param days    The number of days to cover, today included, between 1 and 365
+     * @return ResponseEntity containing the estimated reach and unique viewers
+     * @throws ResponseStatusException if the number of days is invalid (returns 400 BAD REQUEST)
+     */
+    @GetMapping("/{videoId}/reach")
+    public ResponseEntity<ReachDTO> getReach(@PathVariable UUID videoId, @RequestParam(defaultValue = "30") int days) {
+        if (days < 1 || days > 365) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Days must be between 1 and 365");
+        }
+        return ResponseEntity.ok(reachService.reach(videoId, days));
+    }
+}
@@ -0,0 +1,108 @@
+package com.stream.controller;
+
+import com.stream.dto.UploadCompleteRequestDTO;
+import com.stream.dto.UploadInitRequestDTO;
+import com.stream.dto.UploadStatusDTO;
+import com.stream.media.MediaUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * REST Controller for resumable media uploads.
+ *
+ * <p>Endpoints include:
+ * <ul>
+ *     <li>Initiating an upload for a video</li>
+ *     <li>Sending numbered chunks, in any order and in parallel</li>
+ *     <li>Querying which chunks are still missing</li>
+ *     <li>Completing the upload, which verifies its checksum and links the file to the video</li>
+ *     <li>Aborting an upload</li>
+ * </ul>
+ *
+ * <p>Uses {@link MediaUploadService} to store the media.</p>
+ */
+@RestController
+@RequestMapping("/videos/{videoId}/uploads")
+@RequiredArgsConstructor
+public class MediaUploadController {
+    private final MediaUploadService mediaUploadService;
+
+    /**
+     * Starts a resumable upload of the media file of a video.
+     *
+     * @param videoId The unique identifier of the video.
+     * @param request The size of the file and, optionally, the chunk size and original file name.
+     * @return ResponseEntity with HTTP status 201 (Created) containing the new upload and its chunk layout.
+     */
+    @PostMapping
+    public ResponseEntity<UploadStatusDTO> initiateUpload(@PathVariable UUID videoId, @RequestBody UploadInitRequestDTO request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(mediaUploadService.initiate(videoId, request));
+    }
+
+    /**
+     * Retrieves the progress of an upload.
+     *
+     * @param videoId  The unique identifier of the video.
+     * @param uploadId The unique identifier of the upload.
+     * @return ResponseEntity containing the upload state and the chunks still missing.
+     */
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<UploadStatusDTO> getUpload(@PathVariable UUID videoId, @PathVariable UUID uploadId) {
+        return ResponseEntity.ok(mediaUploadService.status(videoId, uploadId));
+    }
+
+    /**
+     * Stores one chunk of an upload; the raw request body is the chunk.
+     *
+     * @param videoId  The unique identifier of the video.
+     * @param uploadId The unique identifier of the upload.
+     * @param index    The zero-based chunk number.
+     * @param offset   Optional byte offset of the chunk, checked against the chunk number.
+     * @param request  The current request, whose body is streamed to disk.
+     * @return ResponseEntity with HTTP status 204 (No Content) once the chunk is stored.
+     * @throws IOException if the body cannot be read or written.
+     */
+    @PutMapping("/{uploadId}/chunks/{index}")
+    public ResponseEntity<Void> uploadChunk(@PathVariable UUID videoId,
+                                            @PathVariable UUID uploadId,
+                                            @PathVariable int index,
+                                            @RequestParam(required = false) Long offset,
+                                            HttpServletRequest request) throws IOException {
+        mediaUploadService.writeChunk(videoId, uploadId, index, offset, request.getContentLengthLong(), request.getInputStream());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Completes an upload once every chunk has been received.
+     *
+     * @param videoId  The unique identifier of the video.
+     * @param uploadId The unique identifier of the upload.
+     * @param request  The checksum of the file as computed by the client.
+     * @return ResponseEntity containing the final upload state.
+     * @throws IOException if the file cannot be moved into place.
+     */
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<UploadStatusDTO> completeUpload(@PathVariable UUID videoId,
+                                                          @PathVariable UUID uploadId,
+                                                          @RequestBody UploadCompleteRequestDTO request) throws IOException {
+        return ResponseEntity.ok(mediaUploadService.complete(videoId, uploadId, request.getChecksum()));
+    }
+
+    /**
+     * Aborts an upload and discards the chunks received so far.
+     *
+     * @param videoId  The unique identifier of the video.
+     * @param uploadId The unique identifier of the upload.
+     * @return ResponseEntity with HTTP status 204 (No Content).
+     */
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable UUID videoId, @PathVariable UUID uploadId) {
+        mediaUploadService.abort(videoId, uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,289 @@
+package com.stream.controller;
+
+import com.stream.dto.BlockCacheStatsDTO;
+import com.stream.dto.CacheStatsDTO;
+import com.stream.dto.CursorPageDTO;
+import com.stream.dto.ImportResultDTO;
+import com.stream.dto.TextSearchHitDTO;
+import com.stream.dto.VideoMetadataResultDTO;
+import com.stream.dto.VideoSummaryDTO;
+import com.stream.media.HlsPlaylistService;
+import com.stream.media.MediaBlockCache;
+import com.stream.media.MediaStreamer;
+import com.stream.model.Video;
+import com.stream.service.CatalogExportService;
+import com.stream.service.CatalogImportService;
+import com.stream.service.VideoService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import com.stream.model.VideoMetadataResponse;
+
+/**
+ * REST Controller for managing video-related operations.
+ * <p>
+ * This controller provides endpoints to:
+ * <ul>
+ *     <li>Play a video</li>
+ *     <li>Get an HLS playlist of byte-range segments of a video</li>
+ *     <li>Publish (upload) a video</li>
+ *     <li>Import many videos at once from CSV or JSON</li>
+ *     <li>Retrieve video metadata, one video at a time or in batches</li>
+ *     <li>List available videos page by page</li>
+ *     <li>Export the active catalog as a stream</li>
+ *     <li>Search videos by director or cast member</li>
+ *     <li>Ranked full-text search</li>
+ *     <li>Update video details</li>
+ *     <li>Soft delete (delist) a video</li>
+ *     <li>Report video lookup and media block cache statistics</li>
+ * </ul>
+ *
+ * <p>Responses are JSON, or CBOR and Smile when requested through {@code Accept}. Video and
+ * listing responses take an optional {@code fields} parameter, e.g. {@code fields=id,title,runningTime},
+ * that restricts every video to the listed properties (see {@link com.stream.config.SparseFieldsetAdvice}).</p>
+ *
+ * <p>Uses {@link VideoService} to handle business logic.</p>
+ */
+@RestController
+@RequestMapping("/videos")
+@RequiredArgsConstructor
+public class VideoController {
+    private final VideoService videoService;
+    private final CatalogExportService catalogExportService;
+    private final CatalogImportService catalogImportService;
+    private final MediaStreamer mediaStreamer;
+    private final MediaBlockCache mediaBlockCache;
+    private final HlsPlaylistService hlsPlaylistService;
+
+    /**
+     * Streams a video for playback.
+     * <p>Serves the media file of the video, supporting {@code Range} requests
+     * (including multiple ranges) so that players can seek.</p>
+     *
+     * @param id       The unique identifier of the video.
+     * @param request  The current request, carrying the optional {@code Range} header.
+     * @param response The response the media bytes are written to.
+     * @throws IOException if the media file cannot be read or the client goes away.
+     */
+    @GetMapping("/{id}/play")
+    public void playVideo(@PathVariable UUID id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        mediaStreamer.stream(id, videoService.playVideo(id), request, response);
+    }
+
+    /**
+     * Returns an HLS media playlist for a video.
+     * <p>Each segment is a byte range of the playback URL, so players fetch small, cacheable
+     * ranges instead of issuing open-ended requests.</p>
+     *
+     * @param id The unique identifier of the video.
+     * @return ResponseEntity containing the M3U8 playlist.
+     */
+    @GetMapping(value = "/{id}/playlist.m3u8", produces = "application/vnd.apple.mpegurl")
+    public ResponseEntity<String> getPlaylist(@PathVariable UUID id) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS))
+                .body(hlsPlaylistService.playlist(id));
+    }
+
+    /**
+     * Publishes a new video.
+     * <p>Saves the video metadata in the database and prepares it for streaming.</p>
+     *
+     * @param video The video details to be published.
+     * @return ResponseEntity containing the saved video metadata.
+     */
+    @PostMapping
+    public ResponseEntity<Video> publishVideo(@RequestBody Video video) {
+        return ResponseEntity.ok(videoService.publishVideo(video));
+    }
+
+    /**
+     * Imports many videos in one request.
+     * <p>The body is CSV with a header row of video properties, a JSON array or newline-delimited
+     * JSON, and is read incrementally. Every row is validated on its own: invalid rows are reported
+     * with their row number and do not stop the import.</p>
+     *
+     * @param request The HTTP request whose body contains the videos.
+     * @return ResponseEntity containing the number of imported and rejected rows and the row errors.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportResultDTO> importVideos(HttpServletRequest request) throws IOException {
+        boolean csv = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        return ResponseEntity.ok(csv ? catalogImportService.importCsv(request.getInputStream())
+                : catalogImportService.importJson(request.getInputStream()));
+    }
+
+    /**
+     * Retrieves metadata for a specific video.
+     *
+     * @param id The unique identifier of the video.
+     * @return ResponseEntity containing video metadata if found,
+     *         or 404 (Not Found) if the video does not exist.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Video> getVideo(@PathVariable UUID id) {
+        return videoService.getVideo(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Lists available videos one page at a time.
+     *
+     * @param cursor The continuation token returned with the previous page; omit for the first page.
+     * @param limit  The maximum number of videos per page (capped by the server).
+     * @param genre  Optional genre filter.
+     * @param year   Optional release year filter.
+     * @return ResponseEntity containing a page of published video summaries and the token for the next page.
+     */
+    @GetMapping
+    public ResponseEntity<CursorPageDTO<VideoSummaryDTO>> listVideos(@RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer limit,
+                                                                     @RequestParam(required = false) String genre,
+                                                                     @RequestParam(required = false) Integer year) {
+        return ResponseEntity.ok(videoService.listVideos(cursor, limit, genre, year));
+    }
+
+    /**
+     * Exports the whole active catalog as newline-delimited JSON.
+     * <p>The response is streamed while the catalog is read from the database, and is gzip
+     * compressed when requested with {@code gzip=true} or an {@code Accept-Encoding: gzip} header.</p>
+     *
+     * @param gzip           Whether to compress the response.
+     * @param acceptEncoding The {@code Accept-Encoding} request header, if any.
+     * @return ResponseEntity streaming one JSON document per active video.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCatalog(
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean compress = gzip || (acceptEncoding != null && acceptEncoding.contains("gzip"));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        if (!compress) {
+            return response.body(out -> catalogExportService.exportCatalog(out));
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+            catalogExportService.exportCatalog(gzipOut);
+            gzipOut.finish();
+        });
+    }
+
+    /**
+     * Searches videos by the director's name.
+     *
+     * @param director The name of the director to filter videos.
+     * @return ResponseEntity containing summaries of the videos directed by the given director.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<VideoSummaryDTO>> searchByDirector(@RequestParam String director) {
+        return ResponseEntity.ok(videoService.searchByDirector(director));
+    }
+
+    /**
+     * Searches videos by the name of a cast member.
+     *
+     * @param name The partial or full name of the cast member.
+     * @return ResponseEntity containing summaries of the videos featuring the given cast member.
+     */
+    @GetMapping("/search/cast")
+    public ResponseEntity<List<VideoSummaryDTO>> searchByCast(@RequestParam String name) {
+        return ResponseEntity.ok(videoService.searchByCast(name));
+    }
+
+    /**
+     * Ranks videos against a free-text query over title, synopsis, cast and director.
+     *
+     * @param q     The search terms.
+     * @param limit The maximum number of results (capped by the server).
+     * @return ResponseEntity containing the best matching active videos, best first.
+     */
+    @GetMapping("/search/text")
+    public ResponseEntity<List<TextSearchHitDTO>> searchText(@RequestParam String q,
+                                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(videoService.searchText(q, limit));
+    }
+
+    /**
+     * Reports how effective the video lookup cache is.
+     *
+     * @return ResponseEntity containing the cache size and its hit, miss and eviction counters.
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsDTO> getCacheStats() {
+        return ResponseEntity.ok(videoService.getCacheStats());
+    }
+
+    /**
+     * Reports how effective the off-heap media block cache is.
+     *
+     * @return ResponseEntity containing the cache occupancy and its hit, miss and eviction counters.
+     */
+    @GetMapping("/media-cache/stats")
+    public ResponseEntity<BlockCacheStatsDTO> getMediaCacheStats() {
+        return ResponseEntity.ok(mediaBlockCache.stats());
+    }
+
+    /**
+     * Updates the metadata of an existing video.
+     *
+     * @param id    The unique identifier of the video.
+     * @param video The updated video details.
+     * @return ResponseEntity containing the updated video metadata.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<Video> updateVideo(@PathVariable UUID id, @RequestBody Video video) {
+        return ResponseEntity.ok(videoService.updateVideo(id, video));
+    }
+
+    /**
+     * Soft deletes (delists) a video by marking it inactive.
+     *
+     * @param id The unique identifier of the video.
+     * @return ResponseEntity with HTTP status 204 (No Content) if successful.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delistVideo(@PathVariable UUID id) {
+        videoService.delistVideo(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * API endpoint to retrieve metadata for a video based on its ID.
+     *
+     * @param videoId The unique identifier of the video.
+     * @return A {@link ResponseEntity} containing the video metadata wrapped in {@link VideoMetadataResponse}.
+     * @throws ResponseStatusException if the video is not found (returns 404 NOT FOUND).
+     */
+    @GetMapping("/{videoId}/metadata")
+    public ResponseEntity<VideoMetadataResponse> getVideoMetadata(@PathVariable UUID videoId) {
+        VideoMetadataResponse metadata = videoService.getVideoMetadata(videoId);
+        return ResponseEntity.ok(metadata);
+    }
+
+    /**
+     * API endpoint to retrieve metadata for many videos in one call.
+     * <p>Results are returned in request order; IDs that do not exist are reported
+     * individually rather than failing the whole batch.</p>
+     *
+     * @param videoIds The unique identifiers of the videos (limited by the server).
+     * @return A {@link ResponseEntity} containing one result per requested ID.
+     * @throws ResponseStatusException if the batch is empty or too large (returns 400 BAD REQUEST).
+     */
+    @PostMapping("/metadata:batch")
+    public ResponseEntity<List<VideoMetadataResultDTO>> getVideoMetadataBatch(@RequestBody List<UUID> videoIds) {
+        return ResponseEntity.ok(videoService.getVideoMetadata(videoIds));
+    }
+}
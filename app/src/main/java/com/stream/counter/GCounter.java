@@ -0,0 +1,58 @@
+package com.stream.counter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Grow-only counter of impressions and views, replicated across nodes.
+ * <p>
+ * The state is a vector holding, for every node, the running totals that node has counted. A node
+ * only ever increases its own entry, and two states merge by taking the larger value of every
+ * entry, so merges are commutative, associative and idempotent: replicas that have seen the same
+ * entries agree on the totals whatever the order or repetition of the exchanges. The totals are
+ * the sum over all entries. This class is not thread-safe.
+ */
+public final class GCounter {
+    private final Map<String, long[]> entries = new HashMap<>();
+
+    /**
+     * Merges one node's entry into the vector.
+     *
+     * @param nodeId      The node identifier.
+     * @param impressions The node's running total of impressions.
+     * @param views       The node's running total of views.
+     */
+    public void merge(String nodeId, long impressions, long views) {
+        long[] entry = entries.computeIfAbsent(nodeId, id -> new long[2]);
+        entry[0] = Math.max(entry[0], impressions);
+        entry[1] = Math.max(entry[1], views);
+    }
+
+    /**
+     * Merges every entry of another vector into this one.
+     *
+     * @param other The vector to merge.
+     */
+    public void merge(GCounter other) {
+        other.entries.forEach((nodeId, entry) -> merge(nodeId, entry[0], entry[1]));
+    }
+
+    /**
+     * @return The number of nodes with an entry.
+     */
+    public int nodes() {
+        return entries.size();
+    }
+
+    /**
+     * @return A two-element array holding the total impressions and views over every node.
+     */
+    public long[] value() {
+        long[] value = new long[2];
+        for (long[] entry : entries.values()) {
+            value[0] += entry[0];
+            value[1] += entry[1];
+        }
+        return value;
+    }
+}
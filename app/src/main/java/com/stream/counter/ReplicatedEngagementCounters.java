@@ -0,0 +1,243 @@
+package com.stream.counter;
+
+import com.stream.model.EngagementCounter;
+import com.stream.repository.EngagementCounterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Engagement counters for running several replicas against one database without row contention.
+ * <p>
+ * When enabled, every node keeps its own running totals per video in memory and a background
+ * flusher writes them to the node's {@link EngagementCounter} rows, which no other node touches.
+ * The rows of all nodes form a {@link GCounter}: writes keep the larger of the stored and the
+ * written totals, so a retried or reordered flush cannot count anything twice. Reads merge the
+ * stored vector with this node's unflushed totals, and converge on every node once each has
+ * flushed.
+ * <p>
+ * The node's own totals are loaded from its rows on startup, so the node identifier must be stable
+ * across restarts and unique among the replicas. It has no default: replicas sharing one would
+ * overwrite each other's rows, so startup fails if counters are enabled without it.
+ */
+@Slf4j
+@Component
+public class ReplicatedEngagementCounters {
+    private final EngagementCounterRepository engagementCounterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final String nodeId;
+    private final long flushIntervalMillis;
+
+    private final ConcurrentHashMap<UUID, Totals> local = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ScheduledExecutorService flusher;
+
+    public ReplicatedEngagementCounters(EngagementCounterRepository engagementCounterRepository,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${engagement.counters.enabled:false}") boolean enabled,
+                                        @Value("${engagement.counters.node-id:}") String nodeId,
+                                        @Value("${engagement.counters.flush-interval-ms:1000}") long flushIntervalMillis) {
+        this.engagementCounterRepository = engagementCounterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.nodeId = nodeId;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Loads this node's stored totals and starts the background flusher.
+     */
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (nodeId == null || nodeId.isBlank()) {
+            throw new IllegalStateException(
+                    "engagement.counters.node-id must be set to an identifier unique to this replica");
+        }
+        Integer loaded = transactionTemplate.execute(status -> {
+            int count = 0;
+            try (Stream<EngagementCounter> counters = engagementCounterRepository.streamByNodeId(nodeId)) {
+                for (EngagementCounter counter : (Iterable<EngagementCounter>) counters::iterator) {
+                    Totals totals = new Totals();
+                    totals.impressions.set(counter.getImpressions());
+                    totals.views.set(counter.getViews());
+                    local.put(counter.getVideoId(), totals);
+                    count++;
+                }
+            }
+            return count;
+        });
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "engagement-counter-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Replicated engagement counters enabled (node={}, videos={})", nodeId, loaded);
+    }
+
+    /**
+     * Stops the flusher and writes this node's totals to the database.
+     */
+    @PreDestroy
+    void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    /**
+     * @return {@code true} if engagement events should be counted in per-node rows.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The identifier of this node's counter rows.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Counts impressions and views of a video on this node.
+     *
+     * @param videoId     The unique identifier of the video.
+     * @param impressions The number of impressions to add.
+     * @param views       The number of views to add.
+     */
+    public void add(UUID videoId, long impressions, long views) {
+        Totals totals = local.computeIfAbsent(videoId, id -> new Totals());
+        if (impressions != 0) {
+            totals.impressions.addAndGet(impressions);
+        }
+        if (views != 0) {
+            totals.views.addAndGet(views);
+        }
+        // Marked after counting, so a flush that clears the mark always sees the new totals.
+        dirty.add(videoId);
+    }
+
+    /**
+     * Returns the merged totals of a video over every node.
+     *
+     * @param videoId The unique identifier of the video.
+     * @return A two-element array holding impressions and views, or {@code null} if no node has
+     *         counted the video.
+     */
+    public long[] totalsFor(UUID videoId) {
+        GCounter counter = new GCounter();
+        for (EngagementCounter stored : engagementCounterRepository.findByVideoId(videoId)) {
+            counter.merge(stored.getNodeId(), stored.getImpressions(), stored.getViews());
+        }
+        Totals totals = local.get(videoId);
+        if (totals != null) {
+            counter.merge(nodeId, totals.impressions.get(), totals.views.get());
+        }
+        return counter.nodes() == 0 ? null : counter.value();
+    }
+
+    /**
+     * Returns the merged totals of several videos over every node, with one query.
+     *
+     * @param videoIds The unique identifiers of the videos.
+     * @return Impressions and views by video, for the videos that some node has counted.
+     */
+    public Map<UUID, long[]> totalsFor(Collection<UUID> videoIds) {
+        Map<UUID, GCounter> counters = new HashMap<>();
+        for (EngagementCounter stored : engagementCounterRepository.findByVideoIdIn(videoIds)) {
+            counters.computeIfAbsent(stored.getVideoId(), id -> new GCounter())
+                    .merge(stored.getNodeId(), stored.getImpressions(), stored.getViews());
+        }
+        for (UUID videoId : videoIds) {
+            Totals totals = local.get(videoId);
+            if (totals != null) {
+                counters.computeIfAbsent(videoId, id -> new GCounter())
+                        .merge(nodeId, totals.impressions.get(), totals.views.get());
+            }
+        }
+        Map<UUID, long[]> merged = new HashMap<>();
+        counters.forEach((videoId, counter) -> merged.put(videoId, counter.value()));
+        return merged;
+    }
+
+    /**
+     * Writes the totals of every video counted since the last flush to this node's rows, in a
+     * single batched transaction.
+     * <p>
+     * If the write fails the videos stay marked, so their totals are written by the next flush.
+     * Videos that do not exist are dropped.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<UUID, long[]> changed = new HashMap<>();
+            for (UUID videoId : dirty) {
+                dirty.remove(videoId);
+                Totals totals = local.get(videoId);
+                changed.put(videoId, new long[]{totals.impressions.get(), totals.views.get()});
+            }
+            Set<UUID> unknown;
+            try {
+                unknown = engagementCounterRepository.mergeAll(nodeId, changed);
+            } catch (RuntimeException e) {
+                dirty.addAll(changed.keySet());
+                throw e;
+            }
+            if (!unknown.isEmpty()) {
+                unknown.forEach(local::remove);
+                log.warn("Dropping engagement counters for {} unknown videos", unknown.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Engagement counter flush failed, totals will be retried", e);
+        }
+    }
+
+    /**
+     * This node's running totals for a single video.
+     */
+    private static final class Totals {
+        private final AtomicLong impressions = new AtomicLong();
+        private final AtomicLong views = new AtomicLong();
+    }
+}
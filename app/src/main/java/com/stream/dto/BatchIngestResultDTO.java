@@ -0,0 +1,14 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * DTO class summarizing the outcome of a batch engagement ingestion.
+ */
+@Getter
+@AllArgsConstructor
+public class BatchIngestResultDTO {
+    private long accepted;
+    private long rejected;
+}
@@ -0,0 +1,33 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * DTO class reporting the state and effectiveness of the media block cache.
+ */
+@Getter
+@AllArgsConstructor
+public class BlockCacheStatsDTO {
+    private int blockSize;
+    private int capacityBlocks;
+    private int cachedBlocks;
+
+    /**
+     * Lookups answered from memory, including those that waited for another request's load.
+     */
+    private long hits;
+    private long misses;
+
+    /**
+     * Hits that waited for a load started by a concurrent miss instead of reading the file again.
+     */
+    private long sharedLoads;
+    private long evictions;
+
+    /**
+     * Lookups that read the file directly because every slot was in use.
+     */
+    private long bypasses;
+    private double hitRate;
+}
@@ -0,0 +1,17 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * DTO class reporting the effectiveness of an in-memory cache.
+ */
+@Getter
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private long size;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+}
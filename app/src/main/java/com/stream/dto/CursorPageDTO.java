@@ -0,0 +1,22 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+
+/**
+ * DTO class for one page of a cursor-paginated listing.
+ *
+ * @param <T> The type of the items in the page.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items;
+
+    /**
+     * Opaque token to pass back as {@code cursor} to fetch the next page,
+     * or {@code null} if this is the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,22 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO class for a single engagement event submitted through the batch ingestion endpoint.
+ * <p>
+ * Fields are kept as raw values so that malformed events can be counted as rejected
+ * instead of failing the whole batch.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngagementEventDTO {
+    private String videoId;
+    private String type;
+    private Long count;
+}
@@ -0,0 +1,17 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * DTO class describing why one row of a bulk catalog import was rejected.
+ */
+@Getter
+@AllArgsConstructor
+public class ImportErrorDTO {
+    /**
+     * The 1-based number of the record in the body, not counting a CSV header.
+     */
+    private long row;
+    private String message;
+}
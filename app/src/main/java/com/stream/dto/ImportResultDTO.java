@@ -0,0 +1,20 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * DTO class summarizing the outcome of a bulk catalog import.
+ */
+@Getter
+@AllArgsConstructor
+public class ImportResultDTO {
+    private long imported;
+    private long rejected;
+    /**
+     * The errors of the rejected rows, in row order; capped, so it may hold fewer entries than {@code rejected}.
+     */
+    private List<ImportErrorDTO> errors;
+}
@@ -0,0 +1,28 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * DTO class for the estimated number of distinct people a video reached over a period.
+ */
+@Getter
+@AllArgsConstructor
+public class ReachDTO {
+    private UUID videoId;
+    private int days;
+    /**
+     * Estimated distinct viewers who were shown the video (impressions).
+     */
+    private long reach;
+    /**
+     * Estimated distinct viewers who played the video (views).
+     */
+    private long uniqueViewers;
+    /**
+     * Relative standard error of both estimates.
+     */
+    private double standardError;
+}
@@ -0,0 +1,16 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.UUID;
+
+/**
+ * DTO class for one ranked result of a full-text search.
+ */
+@Getter
+@AllArgsConstructor
+public class TextSearchHitDTO {
+    private UUID id;
+    private String title;
+    private double score;
+}
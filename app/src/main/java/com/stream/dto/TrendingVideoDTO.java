@@ -0,0 +1,21 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * DTO class for one entry of the trending leaderboard.
+ */
+@Getter
+@AllArgsConstructor
+public class TrendingVideoDTO {
+    private UUID videoId;
+    private long views;
+    private long impressions;
+    /**
+     * Views divided by impressions, or 0 if the video had no impressions in the window.
+     */
+    private double viewRate;
+}
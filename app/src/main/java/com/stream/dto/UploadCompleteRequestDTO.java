@@ -0,0 +1,20 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO class for completing a resumable media upload.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadCompleteRequestDTO {
+    /**
+     * Hex-encoded SHA-256 of the concatenated SHA-256 digests of every chunk, in chunk order.
+     */
+    private String checksum;
+}
@@ -0,0 +1,30 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO class for starting a resumable media upload.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadInitRequestDTO {
+    /**
+     * Total size of the media file in bytes.
+     */
+    private long size;
+
+    /**
+     * Size of every chunk but the last, in bytes; the server picks one when omitted.
+     */
+    private Integer chunkSize;
+
+    /**
+     * Original file name, used for its extension only.
+     */
+    private String fileName;
+}
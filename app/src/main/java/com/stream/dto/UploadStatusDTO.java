@@ -0,0 +1,25 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO class describing the progress of a resumable media upload.
+ */
+@Getter
+@AllArgsConstructor
+public class UploadStatusDTO {
+    private UUID uploadId;
+    private UUID videoId;
+    private long size;
+    private int chunkSize;
+    private int chunkCount;
+
+    /**
+     * Indexes of the chunks that still have to be sent, in ascending order.
+     */
+    private List<Integer> missingChunks;
+    private boolean completed;
+}
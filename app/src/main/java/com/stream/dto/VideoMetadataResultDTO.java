@@ -0,0 +1,21 @@
+package com.stream.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.stream.model.VideoMetadataResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.UUID;
+
+/**
+ * DTO class for the outcome of one ID in a batch metadata lookup.
+ * <p>
+ * Exactly one of {@code metadata} and {@code error} is set.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VideoMetadataResultDTO {
+    private UUID id;
+    private VideoMetadataResponse metadata;
+    private String error;
+}
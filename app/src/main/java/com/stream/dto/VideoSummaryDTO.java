@@ -0,0 +1,28 @@
+package com.stream.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.UUID;
+
+/**
+ * DTO class for one video in a listing or search result.
+ * <p>
+ * This is a flat read model selected in a single query, together with the view count,
+ * instead of the full {@link com.stream.model.Video} entity graph.
+ */
+@Getter
+@AllArgsConstructor
+public class VideoSummaryDTO {
+    private UUID id;
+    private String title;
+    private String director;
+    private String genre;
+    private int yearOfRelease;
+
+    /**
+     * The total running time of the video in minutes.
+     */
+    private int runningTime;
+    private int views;
+    private long createdAt;
+}
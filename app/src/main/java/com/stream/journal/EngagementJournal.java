@@ -0,0 +1,244 @@
+package com.stream.journal;
+
+import com.stream.model.EngagementType;
+import com.stream.model.JournalCheckpoint;
+import com.stream.repository.EngagementStatsRepository;
+import com.stream.repository.JournalCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable journal of engagement events, applied to the statistics in the background.
+ * <p>
+ * When enabled, every impression and view is appended to a local {@link JournalLog} and
+ * acknowledged once it is on disk, without a database write. A background applier reads the
+ * durable records in order, folds them into per-video deltas and applies them with batched
+ * statements; the sequence it has reached is stored as a {@link JournalCheckpoint} in the same
+ * transaction. On startup the applier resumes from the checkpoint, so records that were journaled
+ * but not applied before a crash are replayed, and none is applied twice.
+ * <p>
+ * Counts journaled by this process but not applied yet can be read back with {@link #pendingFor(UUID)}.
+ */
+@Slf4j
+@Component
+public class EngagementJournal {
+    private final EngagementStatsRepository engagementStatsRepository;
+    private final JournalCheckpointRepository journalCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final String name;
+    private final Path directory;
+    private final int segmentRecords;
+    private final int applyBatchSize;
+    private final long applyIntervalMillis;
+
+    private final ConcurrentHashMap<UUID, long[]> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock applyLock = new ReentrantLock();
+    private JournalLog journal;
+    private volatile long appliedSequence;
+    private long sessionStart;
+    private ScheduledExecutorService applier;
+
+    public EngagementJournal(EngagementStatsRepository engagementStatsRepository,
+                             JournalCheckpointRepository journalCheckpointRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${engagement.journal.enabled:false}") boolean enabled,
+                             @Value("${engagement.journal.name:local}") String name,
+                             @Value("${engagement.journal.dir:journal}") Path directory,
+                             @Value("${engagement.journal.segment-records:1048576}") int segmentRecords,
+                             @Value("${engagement.journal.apply-batch-size:10000}") int applyBatchSize,
+                             @Value("${engagement.journal.apply-interval-ms:200}") long applyIntervalMillis) {
+        this.engagementStatsRepository = engagementStatsRepository;
+        this.journalCheckpointRepository = journalCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.name = name;
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.applyBatchSize = applyBatchSize;
+        this.applyIntervalMillis = applyIntervalMillis;
+    }
+
+    /**
+     * Opens the journal from the stored checkpoint and starts the applier, which first replays
+     * any unapplied tail.
+     */
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        appliedSequence = journalCheckpointRepository.findById(name).map(JournalCheckpoint::getAppliedSequence).orElse(0L);
+        journal = new JournalLog(directory.toAbsolutePath(), segmentRecords, appliedSequence);
+        sessionStart = journal.nextSequence();
+        if (sessionStart > appliedSequence) {
+            log.info("Replaying {} unapplied engagement journal records", sessionStart - appliedSequence);
+        }
+        applier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "engagement-journal-applier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        applier.scheduleWithFixedDelay(this::applyQuietly, 0, applyIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Engagement journal enabled (dir={}, next sequence={})", directory, sessionStart);
+    }
+
+    /**
+     * Stops the applier, applies every durable record and closes the journal.
+     */
+    @PreDestroy
+    void shutdown() throws IOException {
+        if (applier == null) {
+            return;
+        }
+        applier.shutdown();
+        try {
+            if (!applier.awaitTermination(10, TimeUnit.SECONDS)) {
+                applier.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        applyQuietly();
+        journal.close();
+    }
+
+    /**
+     * @return {@code true} if engagement events should be journaled instead of written directly.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Journals an engagement event and waits until it is on disk.
+     *
+     * @param videoId The unique identifier of the video.
+     * @param type    The engagement type.
+     * @throws UncheckedIOException if the journal cannot be written.
+     */
+    public void append(UUID videoId, EngagementType type) {
+        // Counted before appending, so the applier can never subtract a record before it was added.
+        long[] delta = type == EngagementType.IMPRESSION ? new long[]{1, 0} : new long[]{0, 1};
+        pending.merge(videoId, delta, EngagementJournal::sum);
+        long sequence;
+        try {
+            sequence = journal.append(videoId, type, System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            subtract(videoId, delta);
+            throw e;
+        }
+        journal.awaitDurable(sequence);
+    }
+
+    /**
+     * Returns the counts journaled for a video by this process that have not been applied yet.
+     *
+     * @param videoId The unique identifier of the video.
+     * @return A two-element array holding pending impressions and views, or {@code null} if none.
+     */
+    public long[] pendingFor(UUID videoId) {
+        long[][] copy = new long[1][];
+        pending.computeIfPresent(videoId, (id, counts) -> {
+            copy[0] = counts.clone();
+            return counts;
+        });
+        return copy[0];
+    }
+
+    /**
+     * @return The sequence of the first record that has not been applied yet.
+     */
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * @return The sequence below which every record is durable, or 0 if the journal is disabled.
+     */
+    public long getDurableSequence() {
+        return journal == null ? 0 : journal.durableSequence();
+    }
+
+    /**
+     * Applies every durable record that has not been applied yet, in transactions of at most the
+     * configured batch size.
+     * <p>
+     * Each transaction increments the statistics and moves the checkpoint, so a crash at any point
+     * leaves the checkpoint in line with the statistics.
+     */
+    public void apply() {
+        applyLock.lock();
+        try {
+            long durable = journal.durableSequence();
+            while (appliedSequence < durable) {
+                long from = appliedSequence;
+                long to = Math.min(durable, from + applyBatchSize);
+                List<JournalLog.Entry> entries = journal.read(from, to);
+                Map<UUID, long[]> deltas = new HashMap<>();
+                Map<UUID, long[]> ownDeltas = new HashMap<>();
+                for (JournalLog.Entry entry : entries) {
+                    int slot = entry.type() == EngagementType.IMPRESSION ? 0 : 1;
+                    deltas.computeIfAbsent(entry.videoId(), id -> new long[2])[slot]++;
+                    if (entry.sequence() >= sessionStart) {
+                        ownDeltas.computeIfAbsent(entry.videoId(), id -> new long[2])[slot]++;
+                    }
+                }
+                Set<UUID> unknown = transactionTemplate.execute(status -> {
+                    Set<UUID> missing = engagementStatsRepository.incrementAll(deltas);
+                    journalCheckpointRepository.save(new JournalCheckpoint(name, to));
+                    return missing;
+                });
+                appliedSequence = to;
+                ownDeltas.forEach(this::subtract);
+                journal.deleteBefore(to);
+                if (unknown != null && !unknown.isEmpty()) {
+                    log.warn("Dropping journaled engagement for {} unknown videos", unknown.size());
+                }
+            }
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    private void applyQuietly() {
+        try {
+            apply();
+        } catch (RuntimeException e) {
+            log.warn("Applying the engagement journal failed, records will be retried", e);
+        }
+    }
+
+    private void subtract(UUID videoId, long[] delta) {
+        pending.computeIfPresent(videoId, (id, counts) -> {
+            counts[0] -= delta[0];
+            counts[1] -= delta[1];
+            return counts[0] == 0 && counts[1] == 0 ? null : counts;
+        });
+    }
+
+    private static long[] sum(long[] a, long[] b) {
+        a[0] += b[0];
+        a[1] += b[1];
+        return a;
+    }
+}
@@ -0,0 +1,379 @@
+package com.stream.journal;
+
+import com.stream.model.EngagementType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of engagement events in memory-mapped segment files.
+ * <p>
+ * Every event is a fixed-size record of {@value #RECORD_SIZE} bytes: the video ID, the event
+ * time, the engagement type and a CRC32 of the rest. Records are addressed by a sequence number
+ * that keeps growing across segments; a segment is named after the sequence of its first record
+ * and a new one is started once it is full.
+ * <p>
+ * Appends copy the record into the mapping under a short lock; writers then wait for a sync
+ * thread that forces the written range to disk. While one force runs, further appends pile up and
+ * are made durable together by the next one, so the cost of an fsync is shared by every
+ * concurrent writer.
+ * <p>
+ * On open, the last segment is scanned up to the first record whose checksum does not match,
+ * which discards a record torn by a crash, and the rest of the segment is zeroed so that no
+ * record left behind it can be mistaken for a new one after the next crash.
+ */
+@Slf4j
+final class JournalLog implements Closeable {
+    static final int RECORD_SIZE = 32;
+
+    private static final int CHECKSUM_OFFSET = RECORD_SIZE - Integer.BYTES;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("\\d{20}\\.journal");
+
+    /**
+     * A record read back from the log.
+     */
+    record Entry(long sequence, UUID videoId, EngagementType type, long timestamp) {
+    }
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private Segment current;
+    private long nextSequence;
+    private long durableSequence;
+    private IOException syncFailure;
+    private boolean closed;
+    private final Thread syncer;
+
+    /**
+     * Opens the log in a directory, recovering the segments already there.
+     *
+     * @param directory      The directory holding the segments; created if missing.
+     * @param segmentRecords The number of records in a new segment.
+     * @param minSequence    The lowest sequence the next record may get, e.g. the last applied one.
+     *                       Segments that end before it are discarded.
+     */
+    JournalLog(Path directory, int segmentRecords, long minSequence) throws IOException {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        Files.createDirectories(directory);
+        recover(minSequence);
+        durableSequence = nextSequence;
+        syncer = new Thread(this::syncLoop, "engagement-journal-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+    }
+
+    /**
+     * @return The sequence the next appended record will get.
+     */
+    long nextSequence() {
+        lock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The sequence below which every record is on disk.
+     */
+    long durableSequence() {
+        lock.lock();
+        try {
+            return durableSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends a record to the mapped segment; it is durable once {@link #awaitDurable(long)} returns.
+     *
+     * @param videoId   The unique identifier of the video.
+     * @param type      The engagement type.
+     * @param timestamp When the event happened, in milliseconds since the epoch.
+     * @return The sequence of the record.
+     * @throws UncheckedIOException if a new segment cannot be created.
+     */
+    long append(UUID videoId, EngagementType type, long timestamp) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (nextSequence == current.firstSequence + current.capacity) {
+                current = createSegment(nextSequence);
+            }
+            record.clear();
+            record.putLong(videoId.getMostSignificantBits())
+                    .putLong(videoId.getLeastSignificantBits())
+                    .putLong(timestamp)
+                    .put((byte) type.ordinal())
+                    .put(new byte[3]);
+            crc.reset();
+            crc.update(record.array(), 0, CHECKSUM_OFFSET);
+            record.putInt((int) crc.getValue());
+            long sequence = nextSequence++;
+            current.buffer.put(current.offset(sequence), record.array());
+            written.signal();
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create a journal segment", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a record is on disk, together with every record appended meanwhile.
+     *
+     * @param sequence The sequence of the record.
+     * @throws UncheckedIOException if syncing the journal failed.
+     */
+    void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            while (durableSequence <= sequence) {
+                if (syncFailure != null) {
+                    throw new UncheckedIOException("Journal sync failed", syncFailure);
+                }
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads durable records.
+     *
+     * @param from The sequence of the first record to read.
+     * @param to   The sequence after the last record to read; at most {@link #durableSequence()}.
+     * @return The records in sequence order.
+     */
+    List<Entry> read(long from, long to) {
+        List<Entry> entries = new ArrayList<>((int) (to - from));
+        for (long sequence = from; sequence < to; sequence++) {
+            Map.Entry<Long, Segment> floor = segments.floorEntry(sequence);
+            if (floor == null) {
+                throw new IllegalStateException("Journal record " + sequence + " is no longer available");
+            }
+            Segment segment = floor.getValue();
+            int offset = segment.offset(sequence);
+            ByteBuffer buffer = segment.buffer;
+            EngagementType type = EngagementType.values()[buffer.get(offset + 24)];
+            entries.add(new Entry(sequence, new UUID(buffer.getLong(offset), buffer.getLong(offset + 8)), type,
+                    buffer.getLong(offset + 16)));
+        }
+        return entries;
+    }
+
+    /**
+     * Deletes the segments whose records all lie below a sequence.
+     *
+     * @param sequence The first sequence that must be kept.
+     */
+    void deleteBefore(long sequence) {
+        for (Map.Entry<Long, Segment> entry : segments.headMap(sequence).entrySet()) {
+            Segment segment = entry.getValue();
+            if (segment == current || segment.firstSequence + segment.capacity > sequence) {
+                continue;
+            }
+            segments.remove(entry.getKey());
+            try {
+                segment.channel.close();
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                log.warn("Could not delete journal segment {}", segment.path, e);
+            }
+        }
+    }
+
+    /**
+     * Syncs every written record and closes the segments.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            written.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            syncer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+            segment.channel.close();
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            long from;
+            long to;
+            lock.lock();
+            try {
+                while (!closed && nextSequence == durableSequence) {
+                    written.awaitUninterruptibly();
+                }
+                if (nextSequence == durableSequence) {
+                    return;
+                }
+                from = durableSequence;
+                to = nextSequence;
+            } finally {
+                lock.unlock();
+            }
+            IOException failure = null;
+            try {
+                force(from, to);
+            } catch (IOException e) {
+                failure = e;
+            } catch (UncheckedIOException e) {
+                failure = e.getCause();
+            }
+            lock.lock();
+            try {
+                if (failure != null) {
+                    syncFailure = failure;
+                    synced.signalAll();
+                    log.error("Journal sync failed", failure);
+                    return;
+                }
+                durableSequence = to;
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void force(long from, long to) throws IOException {
+        for (Segment segment : segments.subMap(segments.floorKey(from), true, to, false).values()) {
+            long start = Math.max(from, segment.firstSequence);
+            long end = Math.min(to, segment.firstSequence + segment.capacity);
+            if (start < end) {
+                segment.buffer.force(segment.offset(start), (int) (end - start) * RECORD_SIZE);
+            }
+        }
+    }
+
+    private void recover(long minSequence) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches()).sorted().toList();
+        }
+        for (Path file : files) {
+            Segment segment = mapSegment(file, Long.parseLong(file.getFileName().toString().substring(0, 20)), 0);
+            segments.put(segment.firstSequence, segment);
+        }
+        if (segments.isEmpty()) {
+            current = createSegment(minSequence);
+            nextSequence = minSequence;
+            return;
+        }
+        current = segments.lastEntry().getValue();
+        int valid = validRecords(current);
+        clearFrom(current, valid);
+        nextSequence = current.firstSequence + valid;
+        if (nextSequence < minSequence) {
+            log.warn("Journal ends at {} but {} records were already applied; starting a new segment",
+                    nextSequence, minSequence);
+            current = createSegment(minSequence);
+            nextSequence = minSequence;
+        }
+        deleteBefore(minSequence);
+    }
+
+    private int validRecords(Segment segment) {
+        byte[] bytes = new byte[CHECKSUM_OFFSET];
+        for (int index = 0; index < segment.capacity; index++) {
+            int offset = index * RECORD_SIZE;
+            segment.buffer.get(offset, bytes);
+            crc.reset();
+            crc.update(bytes);
+            int type = bytes[24];
+            if ((int) crc.getValue() != segment.buffer.getInt(offset + CHECKSUM_OFFSET)
+                    || type < 0 || type >= EngagementType.values().length) {
+                return index;
+            }
+        }
+        return segment.capacity;
+    }
+
+    /**
+     * Zeroes a segment from a record on and forces it to disk. Records after a torn one may be
+     * intact leftovers of an earlier run; once new appends overwrite the torn one, a later recovery
+     * would otherwise read past the new tail into them.
+     */
+    private static void clearFrom(Segment segment, int index) {
+        if (index == segment.capacity) {
+            return;
+        }
+        byte[] zeros = new byte[RECORD_SIZE * 256];
+        int end = segment.capacity * RECORD_SIZE;
+        for (int offset = index * RECORD_SIZE; offset < end; offset += zeros.length) {
+            segment.buffer.put(offset, zeros, 0, Math.min(zeros.length, end - offset));
+        }
+        segment.buffer.force();
+    }
+
+    private Segment createSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%020d.journal", firstSequence));
+        Segment segment = mapSegment(file, firstSequence, segmentRecords);
+        segments.put(firstSequence, segment);
+        return segment;
+    }
+
+    private static Segment mapSegment(Path file, long firstSequence, int records) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = records > 0 ? (long) records * RECORD_SIZE : channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(file, firstSequence, (int) (size / RECORD_SIZE), channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * One mapped segment file.
+     */
+    private record Segment(Path path, long firstSequence, int capacity, FileChannel channel, MappedByteBuffer buffer) {
+        int offset(long sequence) {
+            return (int) (sequence - firstSequence) * RECORD_SIZE;
+        }
+    }
+}
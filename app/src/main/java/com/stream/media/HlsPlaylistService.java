@@ -0,0 +1,192 @@
+package com.stream.media;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stream.model.MediaSegmentIndex;
+import com.stream.model.Video;
+import com.stream.repository.MediaSegmentIndexRepository;
+import com.stream.service.VideoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Produces HLS media playlists that address segments of the stored media file by byte range.
+ * <p>
+ * A video is stored as a single file, so every segment is an {@code #EXT-X-BYTERANGE} of the
+ * playback URL. Segment boundaries are estimated once per media file: the running time is split
+ * into segments of the configured duration and the file into as many equal byte spans, aligned to
+ * 188-byte packets for MPEG transport streams. The boundaries are persisted as a
+ * {@link MediaSegmentIndex} and rendered playlists are cached, so a playlist request never reads
+ * the media file.
+ * <p>
+ * Indexes and cached playlists are tied to the media path, checksum and running time of the
+ * video; when any of them changes, the playlist is rebuilt from the new file.
+ */
+@Slf4j
+@Service
+public class HlsPlaylistService {
+    /**
+     * Size of an MPEG transport stream packet; segments of {@code .ts} files start on packet boundaries.
+     */
+    static final int TS_PACKET_SIZE = 188;
+
+    /**
+     * Segments are addressed relative to the playlist URL, {@code /videos/{id}/playlist.m3u8}.
+     */
+    private static final String SEGMENT_URI = "play";
+
+    private final VideoService videoService;
+    private final MediaStorage mediaStorage;
+    private final MediaSegmentIndexRepository segmentIndexRepository;
+    private final int segmentSeconds;
+    private final AsyncCache<PlaylistKey, String> playlists;
+
+    public HlsPlaylistService(VideoService videoService,
+                              MediaStorage mediaStorage,
+                              MediaSegmentIndexRepository segmentIndexRepository,
+                              @Value("${media.hls.segment-seconds:6}") int segmentSeconds,
+                              @Value("${media.hls.cache-size:1000}") long cacheSize) {
+        this.videoService = videoService;
+        this.mediaStorage = mediaStorage;
+        this.segmentIndexRepository = segmentIndexRepository;
+        this.segmentSeconds = segmentSeconds;
+        this.playlists = Caffeine.newBuilder().maximumSize(cacheSize).buildAsync();
+    }
+
+    /**
+     * Returns the HLS media playlist of a video.
+     *
+     * @param videoId The unique identifier of the video.
+     * @return The playlist in M3U8 format.
+     * @throws ResponseStatusException if the video is not found, delisted or has no media (404),
+     *                                 or its running time is unknown (409).
+     */
+    public String playlist(UUID videoId) {
+        Video video = videoService.getVideo(videoId)
+                .filter(Video::isActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found or is delisted"));
+        if (video.getMediaPath() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No media file for this video");
+        }
+        if (video.getRunningTime() <= 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "The running time of the video is unknown");
+        }
+        PlaylistKey key = new PlaylistKey(videoId, video.getMediaPath(), video.getMediaChecksum(), video.getRunningTime());
+        // Loaded outside of the cache's map lock, like VideoCache, so blocking I/O never pins a virtual thread.
+        CompletableFuture<String> load = new CompletableFuture<>();
+        CompletableFuture<String> cached = playlists.get(key, (k, executor) -> load);
+        if (cached == load) {
+            try {
+                load.complete(load(key));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String load(PlaylistKey key) {
+        MediaSegmentIndex index = segmentIndexRepository.findById(key.videoId())
+                .filter(existing -> key.matches(existing))
+                .orElseGet(() -> segmentIndexRepository.save(buildIndex(key)));
+        return render(index);
+    }
+
+    private MediaSegmentIndex buildIndex(PlaylistKey key) {
+        Path file = mediaStorage.locate(key.mediaPath())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No media file for this video"));
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (size == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No media file for this video");
+        }
+        int alignment = key.mediaPath().toLowerCase(Locale.ROOT).endsWith(".ts") ? TS_PACKET_SIZE : 1;
+        long runningMillis = key.runningTime() * 60_000L;
+        long[] boundaries = boundaries(size, runningMillis, segmentSeconds * 1000L, alignment);
+        int segments = boundaries.length - 1;
+        log.info("Indexed {} HLS segments for video {}", segments, key.videoId());
+        return MediaSegmentIndex.builder()
+                .videoId(key.videoId())
+                .mediaPath(key.mediaPath())
+                .mediaChecksum(key.mediaChecksum())
+                .mediaSize(size)
+                .runningTime(key.runningTime())
+                .segmentDurationMillis((int) (runningMillis / segments))
+                .boundaries(MediaSegmentIndex.pack(boundaries))
+                .build();
+    }
+
+    /**
+     * Splits a file into equal byte spans, one per segment of at most the target duration.
+     *
+     * @param size                 The file size in bytes.
+     * @param runningMillis        The duration of the media.
+     * @param targetDurationMillis The longest segment duration.
+     * @param alignment            Every segment but the first starts at a multiple of this many bytes.
+     * @return Ascending segment start offsets followed by the file size.
+     */
+    static long[] boundaries(long size, long runningMillis, long targetDurationMillis, int alignment) {
+        long units = Math.max(1, size / alignment);
+        int segments = (int) Math.min(units, Math.max(1, (runningMillis + targetDurationMillis - 1) / targetDurationMillis));
+        long[] boundaries = new long[segments + 1];
+        for (int i = 0; i < segments; i++) {
+            boundaries[i] = units * i / segments * alignment;
+        }
+        boundaries[segments] = size;
+        return boundaries;
+    }
+
+    private static String render(MediaSegmentIndex index) {
+        int segments = index.segmentCount();
+        String duration = String.format(Locale.ROOT, "%.3f", index.getSegmentDurationMillis() / 1000.0);
+        StringBuilder playlist = new StringBuilder(64 + segments * 48)
+                .append("#EXTM3U\n")
+                .append("#EXT-X-VERSION:4\n")
+                .append("#EXT-X-PLAYLIST-TYPE:VOD\n")
+                .append("#EXT-X-TARGETDURATION:").append((index.getSegmentDurationMillis() + 999) / 1000).append('\n')
+                .append("#EXT-X-MEDIA-SEQUENCE:0\n");
+        for (int i = 0; i < segments; i++) {
+            long start = index.boundary(i);
+            long end = index.boundary(i + 1);
+            playlist.append("#EXTINF:").append(duration).append(",\n")
+                    .append("#EXT-X-BYTERANGE:").append(end - start).append('@').append(start).append('\n')
+                    .append(SEGMENT_URI).append('\n');
+        }
+        return playlist.append("#EXT-X-ENDLIST\n").toString();
+    }
+
+    /**
+     * Identifies a playlist by the video state it was built from.
+     */
+    private record PlaylistKey(UUID videoId, String mediaPath, String mediaChecksum, int runningTime) {
+        boolean matches(MediaSegmentIndex index) {
+            return mediaPath.equals(index.getMediaPath())
+                    && Objects.equals(mediaChecksum, index.getMediaChecksum())
+                    && runningTime == index.getRunningTime();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.stream.media;
+
+import com.stream.dto.BlockCacheStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-budget, off-heap cache of media file blocks.
+ * <p>
+ * Files are split into fixed-size blocks keyed by video, file version and block number. Cached
+ * blocks live in direct {@link ByteBuffer}s that are allocated once per slot, up to the configured
+ * capacity, and reused afterwards, so cached bytes never add to garbage collection work.
+ * <p>
+ * Slots are reclaimed with the CLOCK algorithm: every hit marks its slot as referenced, and the
+ * clock hand clears marks until it finds an unreferenced slot that nobody is reading. Readers pin
+ * the blocks they are copying from, so a block is never overwritten while in use; when every slot
+ * is pinned, lookups bypass the cache. Concurrent misses on the same block share a single load.
+ * <p>
+ * Only blocks within the first {@code prefix-bytes} of a file are cached: that is where players
+ * probe headers and start playback, and it keeps long sequential reads from flushing the cache.
+ */
+@Component
+public class MediaBlockCache {
+    private static final int FREE = 0;
+    private static final int LOCKED = -1;
+
+    private final int blockSize;
+    private final long prefixBytes;
+    private final int capacity;
+
+    private final ByteBuffer[] buffers;
+    private final int[] lengths;
+    private final AtomicReferenceArray<BlockKey> owners;
+    private final AtomicIntegerArray pins;
+    private final AtomicIntegerArray referenced;
+    private final ConcurrentHashMap<BlockKey, Integer> index = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<BlockKey, CompletableFuture<Void>> loading = new ConcurrentHashMap<>();
+    private final ReentrantLock clockLock = new ReentrantLock();
+    private int hand;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sharedLoads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+
+    public MediaBlockCache(@Value("${media.block-cache.block-size:262144}") int blockSize,
+                           @Value("${media.block-cache.capacity-bytes:268435456}") long capacityBytes,
+                           @Value("${media.block-cache.prefix-bytes:16777216}") long prefixBytes) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.blockSize = blockSize;
+        this.prefixBytes = prefixBytes;
+        this.capacity = (int) Math.min(Integer.MAX_VALUE, capacityBytes / blockSize);
+        this.buffers = new ByteBuffer[capacity];
+        this.lengths = new int[capacity];
+        this.owners = new AtomicReferenceArray<>(capacity);
+        this.pins = new AtomicIntegerArray(capacity);
+        this.referenced = new AtomicIntegerArray(capacity);
+    }
+
+    /**
+     * @return The size of every block but the last of a file, in bytes.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @param position A byte offset into a file.
+     * @return {@code true} if the block holding that offset is eligible for caching.
+     */
+    public boolean caches(long position) {
+        return capacity > 0 && position < prefixBytes;
+    }
+
+    /**
+     * Returns a pinned block, loading it on a miss.
+     * <p>
+     * The block must be closed once its bytes have been copied, so that its slot can be reused.
+     *
+     * @param videoId    The video the file belongs to.
+     * @param version    Identifies the file contents, e.g. its modification time; blocks of other versions are never returned.
+     * @param blockIndex The block number within the file.
+     * @param length     The length of this block, which is shorter than the block size for the last block.
+     * @param loader     Fills a buffer with the block's bytes on a miss.
+     * @return The pinned block, or {@code null} if every slot is in use and the caller should read the file directly.
+     * @throws IOException if the block could not be loaded.
+     */
+    public Block acquire(UUID videoId, long version, long blockIndex, int length, BlockLoader loader) throws IOException {
+        BlockKey key = new BlockKey(videoId, version, blockIndex);
+        while (true) {
+            Integer slot = index.get(key);
+            if (slot != null) {
+                if (pin(slot, key)) {
+                    referenced.set(slot, 1);
+                    hits.increment();
+                    return new Block(slot);
+                }
+                continue;
+            }
+            CompletableFuture<Void> load = new CompletableFuture<>();
+            CompletableFuture<Void> inFlight = loading.putIfAbsent(key, load);
+            if (inFlight != null) {
+                awaitLoad(inFlight);
+                sharedLoads.increment();
+                continue;
+            }
+            try {
+                Block block = load(key, length, loader);
+                load.complete(null);
+                return block;
+            } catch (IOException | RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            } finally {
+                loading.remove(key, load);
+            }
+        }
+    }
+
+    /**
+     * @return Hit, miss and eviction counters of the cache since startup.
+     */
+    public BlockCacheStatsDTO stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return new BlockCacheStatsDTO(blockSize, capacity, index.size(), hitCount, missCount, sharedLoads.sum(),
+                evictions.sum(), bypasses.sum(), lookups == 0 ? 1.0 : (double) hitCount / lookups);
+    }
+
+    private Block load(BlockKey key, int length, BlockLoader loader) throws IOException {
+        int slot = claimSlot();
+        if (slot < 0) {
+            bypasses.increment();
+            return null;
+        }
+        misses.increment();
+        boolean loaded = false;
+        try {
+            ByteBuffer buffer = buffers[slot];
+            if (buffer == null) {
+                buffer = ByteBuffer.allocateDirect(blockSize);
+                buffers[slot] = buffer;
+            }
+            buffer.clear().limit(length);
+            loader.load(buffer, key.blockIndex * blockSize);
+            if (buffer.hasRemaining()) {
+                throw new EOFException("Block " + key.blockIndex + " ended after " + buffer.position() + " bytes");
+            }
+            lengths[slot] = length;
+            owners.set(slot, key);
+            index.put(key, slot);
+            loaded = true;
+            return new Block(slot);
+        } finally {
+            if (!loaded) {
+                pins.set(slot, FREE);
+            }
+        }
+    }
+
+    private boolean pin(int slot, BlockKey key) {
+        while (true) {
+            int count = pins.get(slot);
+            if (count == LOCKED) {
+                return false;
+            }
+            if (pins.compareAndSet(slot, count, count + 1)) {
+                if (key.equals(owners.get(slot))) {
+                    return true;
+                }
+                // The slot was recycled between the index lookup and the pin.
+                pins.decrementAndGet(slot);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Runs the clock hand until it finds a slot that is neither referenced nor pinned, and hands it
+     * over to the caller pinned once.
+     *
+     * @return The claimed slot, or {@code -1} if every slot is pinned.
+     */
+    private int claimSlot() {
+        if (capacity == 0) {
+            return -1;
+        }
+        clockLock.lock();
+        try {
+            for (int step = 0; step < 2 * capacity + 1; step++) {
+                int slot = hand;
+                hand = (hand + 1) % capacity;
+                if (pins.get(slot) != FREE) {
+                    continue;
+                }
+                if (referenced.getAndSet(slot, 0) == 1) {
+                    continue;
+                }
+                if (!pins.compareAndSet(slot, FREE, LOCKED)) {
+                    continue;
+                }
+                BlockKey previous = owners.getAndSet(slot, null);
+                if (previous != null) {
+                    index.remove(previous, slot);
+                    evictions.increment();
+                }
+                pins.set(slot, 1);
+                return slot;
+            }
+            return -1;
+        } finally {
+            clockLock.unlock();
+        }
+    }
+
+    private static void awaitLoad(CompletableFuture<Void> load) throws IOException {
+        try {
+            load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads a block of a file into a cache buffer.
+     */
+    @FunctionalInterface
+    public interface BlockLoader {
+        /**
+         * Fills the remaining space of {@code target} with the file bytes starting at {@code position}.
+         *
+         * @param target   The buffer to fill.
+         * @param position The file offset of the block.
+         * @throws IOException if the file cannot be read.
+         */
+        void load(ByteBuffer target, long position) throws IOException;
+    }
+
+    /**
+     * A pinned cached block. Its slot is not reused until the block is closed.
+     */
+    public final class Block implements AutoCloseable {
+        private final int slot;
+        private boolean closed;
+
+        private Block(int slot) {
+            this.slot = slot;
+        }
+
+        /**
+         * @return A read-only view of the block's bytes, positioned at its start.
+         */
+        public ByteBuffer buffer() {
+            return buffers[slot].asReadOnlyBuffer().clear().limit(lengths[slot]);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                pins.decrementAndGet(slot);
+            }
+        }
+    }
+
+    private record BlockKey(UUID videoId, long version, long blockIndex) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.stream.media;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Local directory holding the media files of videos.
+ * <p>
+ * Videos reference their media by a path relative to this directory. Paths that would
+ * resolve outside of it are never served.
+ */
+@Component
+public class MediaStorage {
+    private final Path root;
+
+    public MediaStorage(@Value("${media.storage-dir:media}") Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    /**
+     * @return The absolute storage directory.
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Resolves the media file of a video.
+     *
+     * @param mediaPath The path of the file, relative to the storage directory.
+     * @return The file, or empty if it does not exist or lies outside the storage directory.
+     */
+    public Optional<Path> locate(String mediaPath) {
+        if (mediaPath == null || mediaPath.isBlank()) {
+            return Optional.empty();
+        }
+        Path file = root.resolve(mediaPath).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+}
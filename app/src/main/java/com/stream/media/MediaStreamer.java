@@ -0,0 +1,260 @@
+package com.stream.media;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes a media file to an HTTP response, honouring {@code Range} requests.
+ * <p>
+ * A request without a range gets the whole file with {@code 200 OK}; one or more satisfiable
+ * ranges get {@code 206 Partial Content}, as a single body or as {@code multipart/byteranges};
+ * anything else gets {@code 416 Range Not Satisfiable}.
+ * <p>
+ * File bytes never pass through the Java heap. The opening blocks of a file, which players
+ * request over and over, are served from the off-heap {@link MediaBlockCache}. The rest is
+ * handed over to the servlet container when it supports sendfile (Tomcat's NIO connector
+ * does) for single-part bodies, which sends it straight from the page cache to the socket, and
+ * is otherwise written with {@link FileChannel#transferTo}, which only uses a small, reused buffer.
+ */
+@Component
+@RequiredArgsConstructor
+public class MediaStreamer {
+    static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final MediaBlockCache blockCache;
+
+    /**
+     * Streams a file, or the ranges of it requested by the client.
+     *
+     * @param videoId  The video the file belongs to, which keys its cached blocks.
+     * @param file     The media file.
+     * @param request  The current request, read for its method, {@code Range} header and sendfile support.
+     * @param response The response to write to.
+     * @throws IOException if the file cannot be read or the client goes away.
+     */
+    public void stream(UUID videoId, Path file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        MediaFile media = new MediaFile(videoId, file, attributes.size(), attributes.lastModifiedTime().toMillis());
+        long length = media.length;
+        MediaType contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        List<long[]> ranges;
+        try {
+            ranges = ranges(request.getHeader(HttpHeaders.RANGE), length);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.setContentLength(0);
+            return;
+        }
+        boolean head = HttpMethod.HEAD.matches(request.getMethod());
+
+        if (ranges == null || ranges.size() == 1) {
+            long start = ranges == null ? 0 : ranges.get(0)[0];
+            long end = ranges == null ? length : ranges.get(0)[1];
+            if (ranges == null) {
+                response.setStatus(HttpStatus.OK.value());
+            } else {
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(start, end, length));
+            }
+            response.setContentType(contentType.toString());
+            response.setContentLengthLong(end - start);
+            if (head || end == start) {
+                return;
+            }
+            if (!blockCache.caches(start) && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+                request.setAttribute(SENDFILE_FILENAME_ATTR, file.toFile().getCanonicalPath());
+                request.setAttribute(SENDFILE_START_ATTR, start);
+                request.setAttribute(SENDFILE_END_ATTR, end);
+                return;
+            }
+            try (media) {
+                write(media, start, end, Channels.newChannel(response.getOutputStream()));
+            }
+            return;
+        }
+
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (long[] range : ranges) {
+            byte[] header = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(range[0], range[1], length) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + range[1] - range[0];
+        }
+        byte[] closing = ("\r\n--" + boundary + "--").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length + CRLF.length;
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (head) {
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        try (media) {
+            for (int i = 0; i < ranges.size(); i++) {
+                out.write(partHeaders.get(i));
+                write(media, ranges.get(i)[0], ranges.get(i)[1], target);
+            }
+        }
+        out.write(closing);
+        out.write(CRLF);
+    }
+
+    /**
+     * Parses a {@code Range} header into half-open {@code [start, end)} byte intervals.
+     *
+     * @return The requested intervals, or {@code null} to send the whole file.
+     * @throws IllegalArgumentException if the header is malformed or cannot be satisfied.
+     */
+    private static List<long[]> ranges(String header, long length) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        List<HttpRange> requested = HttpRange.parseRanges(header);
+        if (requested.isEmpty()) {
+            return null;
+        }
+        List<long[]> ranges = new ArrayList<>(requested.size());
+        long total = 0;
+        for (HttpRange range : requested) {
+            long start = range.getRangeStart(length);
+            long end = range.getRangeEnd(length) + 1;
+            if (start >= end) {
+                throw new IllegalArgumentException("Unsatisfiable range " + range);
+            }
+            ranges.add(new long[]{start, end});
+            total += end - start;
+        }
+        if (ranges.size() > 1 && total > length) {
+            // Overlapping ranges must not make us send more than the file itself.
+            throw new IllegalArgumentException("Requested ranges exceed the file length");
+        }
+        return ranges;
+    }
+
+    /**
+     * Writes {@code [start, end)} of a file, reading the cacheable blocks through the block cache.
+     */
+    private void write(MediaFile media, long start, long end, WritableByteChannel target) throws IOException {
+        int blockSize = blockCache.getBlockSize();
+        long position = start;
+        while (position < end && blockCache.caches(position)) {
+            long blockIndex = position / blockSize;
+            long blockStart = blockIndex * blockSize;
+            int blockLength = (int) Math.min(blockSize, media.length - blockStart);
+            long chunkEnd = Math.min(end, blockStart + blockLength);
+            try (MediaBlockCache.Block block = blockCache.acquire(media.videoId, media.version, blockIndex, blockLength,
+                    (buffer, offset) -> read(media.channel(), buffer, offset))) {
+                if (block == null) {
+                    transfer(media.channel(), position, chunkEnd, target);
+                } else {
+                    ByteBuffer bytes = block.buffer().position((int) (position - blockStart)).limit((int) (chunkEnd - blockStart));
+                    while (bytes.hasRemaining()) {
+                        target.write(bytes);
+                    }
+                }
+            }
+            position = chunkEnd;
+        }
+        if (position < end) {
+            transfer(media.channel(), position, end, target);
+        }
+    }
+
+    private static void read(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        long offset = position;
+        while (target.hasRemaining()) {
+            int read = channel.read(target, offset);
+            if (read < 0) {
+                return;
+            }
+            offset += read;
+        }
+    }
+
+    private static void transfer(FileChannel channel, long start, long end, WritableByteChannel target) throws IOException {
+        long position = start;
+        while (position < end) {
+            long sent = channel.transferTo(position, end - position, target);
+            if (sent <= 0) {
+                throw new EOFException("Media file ended at byte " + position + " of " + end);
+            }
+            position += sent;
+        }
+    }
+
+    private static String contentRange(long start, long end, long length) {
+        return "bytes " + start + "-" + (end - 1) + "/" + length;
+    }
+
+    /**
+     * The file being streamed, opened on first use.
+     */
+    private static final class MediaFile implements AutoCloseable {
+        private final UUID videoId;
+        private final Path path;
+        private final long length;
+        private final long version;
+        private FileChannel channel;
+
+        MediaFile(UUID videoId, Path path, long length, long version) {
+            this.videoId = videoId;
+            this.path = path;
+            this.length = length;
+            this.version = version;
+        }
+
+        FileChannel channel() throws IOException {
+            if (channel == null) {
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            }
+            return channel;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.stream.media;
+
+import com.stream.dto.UploadInitRequestDTO;
+import com.stream.dto.UploadStatusDTO;
+import com.stream.service.VideoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Resumable, chunked uploads of media files into {@link MediaStorage}.
+ * <p>
+ * An upload is initiated with the total size of the file, which is preallocated on disk.
+ * The file is then sent as numbered, fixed-size chunks that may arrive in any order and in
+ * parallel; each chunk is streamed from the request straight to its offset in the file with
+ * positional writes, so neither a chunk nor the file is ever held in memory. A chunk can be
+ * sent again until the upload completes, e.g. after a dropped connection.
+ * <p>
+ * The SHA-256 of every chunk is computed while it is written. On completion the server checks
+ * that every chunk arrived and that the SHA-256 of the concatenated chunk digests, in chunk
+ * order, matches the checksum sent by the client, then moves the file into place and links it
+ * to the video.
+ * <p>
+ * Upload sessions are held in memory on the node that created them and are discarded, together
+ * with their partial file, after they have been idle for the configured time.
+ */
+@Slf4j
+@Service
+public class MediaUploadService {
+    static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    static final int MIN_CHUNK_SIZE = 64 * 1024;
+    static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+    static final int MAX_CHUNKS = 100_000;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final String PARTS_DIR = ".uploads";
+    private static final Pattern EXTENSION = Pattern.compile("[A-Za-z0-9]{1,8}");
+
+    private final MediaStorage mediaStorage;
+    private final VideoService videoService;
+    private final long maxSize;
+    private final Duration idleTimeout;
+    private final ConcurrentHashMap<UUID, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public MediaUploadService(MediaStorage mediaStorage,
+                              VideoService videoService,
+                              @Value("${media.upload.max-size:21474836480}") long maxSize,
+                              @Value("${media.upload.idle-timeout-minutes:1440}") long idleTimeoutMinutes) {
+        this.mediaStorage = mediaStorage;
+        this.videoService = videoService;
+        this.maxSize = maxSize;
+        this.idleTimeout = Duration.ofMinutes(idleTimeoutMinutes);
+    }
+
+    /**
+     * Starts an upload of the media file of a video.
+     *
+     * @param videoId The unique identifier of the video.
+     * @param request The size of the file and, optionally, the chunk size and file name.
+     * @return The state of the new upload, with every chunk missing.
+     * @throws ResponseStatusException if the video does not exist (404) or the sizes are invalid (400).
+     */
+    public UploadStatusDTO initiate(UUID videoId, UploadInitRequestDTO request) {
+        if (videoService.getVideo(videoId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found");
+        }
+        long size = request.getSize();
+        int chunkSize = request.getChunkSize() == null ? DEFAULT_CHUNK_SIZE : request.getChunkSize();
+        if (size <= 0 || size > maxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File size must be between 1 and " + maxSize + " bytes");
+        }
+        if (chunkSize < MIN_CHUNK_SIZE || chunkSize > MAX_CHUNK_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Chunk size must be between " + MIN_CHUNK_SIZE + " and " + MAX_CHUNK_SIZE + " bytes");
+        }
+        long chunkCount = (size + chunkSize - 1) / chunkSize;
+        if (chunkCount > MAX_CHUNKS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Too many chunks; use a larger chunk size");
+        }
+        expireIdleSessions();
+
+        UUID uploadId = UUID.randomUUID();
+        Path partFile = mediaStorage.getRoot().resolve(PARTS_DIR).resolve(uploadId + ".part");
+        try {
+            Files.createDirectories(partFile.getParent());
+            try (RandomAccessFile file = new RandomAccessFile(partFile.toFile(), "rw")) {
+                file.setLength(size);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not preallocate " + partFile, e);
+        }
+        UploadSession session = new UploadSession(uploadId, videoId, size, chunkSize, (int) chunkCount,
+                partFile, extensionOf(request.getFileName()));
+        sessions.put(uploadId, session);
+        return session.status();
+    }
+
+    /**
+     * Returns the progress of an upload.
+     *
+     * @param videoId  The unique identifier of the video.
+     * @param uploadId The unique identifier of the upload.
+     * @return The state of the upload, including the chunks still missing.
+     * @throws ResponseStatusException if the upload does not exist (returns 404 NOT FOUND).
+     */
+    public UploadStatusDTO status(UUID videoId, UUID uploadId) {
+        return session(videoId, uploadId).status();
+    }
+
+    /**
+     * Streams one chunk to its position in the file.
+     *
+     * @param videoId       The unique identifier of the video.
+     * @param uploadId      The unique identifier of the upload.
+     * @param index         The zero-based chunk number.
+     * @param offset        The byte offset of the chunk as computed by the client, or {@code null};
+     *                      if present, it must match the chunk number.
+     * @param contentLength The declared length of the body, or {@code -1} if unknown.
+     * @param body          The chunk bytes.
+     * @throws IOException             if the body cannot be read or the file cannot be written.
+     * @throws ResponseStatusException if the upload does not exist (404), the chunk is out of range or has
+     *                                 the wrong length (400), or it is already being written or the upload
+     *                                 has completed (409).
+     */
+    public void writeChunk(UUID videoId, UUID uploadId, int index, Long offset, long contentLength, InputStream body)
+            throws IOException {
+        UploadSession session = session(videoId, uploadId);
+        if (index < 0 || index >= session.chunkCount) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk index out of range");
+        }
+        long position = (long) index * session.chunkSize;
+        long length = Math.min(session.chunkSize, session.size - position);
+        if (offset != null && offset != position) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk " + index + " starts at offset " + position);
+        }
+        if (contentLength >= 0 && contentLength != length) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk " + index + " must be " + length + " bytes");
+        }
+        session.begin(index);
+        boolean written = false;
+        try (FileChannel channel = FileChannel.open(session.partFile, StandardOpenOption.WRITE)) {
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[(int) Math.min(COPY_BUFFER_SIZE, length)];
+            long remaining = length;
+            while (remaining > 0) {
+                int read = body.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk " + index + " must be " + length + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                ByteBuffer source = ByteBuffer.wrap(buffer, 0, read);
+                while (source.hasRemaining()) {
+                    position += channel.write(source, position);
+                }
+                remaining -= read;
+            }
+            if (body.read() >= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk " + index + " must be " + length + " bytes");
+            }
+            session.finish(index, digest.digest());
+            written = true;
+        } finally {
+            if (!written) {
+                session.abandon(index);
+            }
+        }
+    }
+
+    /**
+     * Verifies and publishes a fully received upload as the media file of its video.
+     *
+     * @param videoId  The unique identifier of the video.
+     * @param uploadId The unique identifier of the upload.
+     * @param checksum The hex-encoded SHA-256 of the concatenated chunk digests, in chunk order.
+     * @return The final state of the upload.
+     * @throws IOException             if the file cannot be moved into place.
+     * @throws ResponseStatusException if the upload does not exist (404), the checksum does not match (400)
+     *                                 or chunks are still missing or being written (409).
+     */
+    public UploadStatusDTO complete(UUID videoId, UUID uploadId, String checksum) throws IOException {
+        UploadSession session = session(videoId, uploadId);
+        byte[] expected = session.seal();
+        if (checksum == null || !HexFormat.of().formatHex(expected).equalsIgnoreCase(checksum.trim())) {
+            session.unseal();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Checksum mismatch");
+        }
+        String mediaPath = videoId + session.extension;
+        try {
+            try (FileChannel channel = FileChannel.open(session.partFile, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(session.partFile, mediaStorage.getRoot().resolve(mediaPath),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            session.unseal();
+            throw e;
+        }
+        session.markCompleted();
+        sessions.remove(uploadId);
+        videoService.attachMedia(videoId, mediaPath, session.size, HexFormat.of().formatHex(expected));
+        log.info("Stored {} bytes of media for video {} in {} chunks", session.size, videoId, session.chunkCount);
+        return session.status();
+    }
+
+    /**
+     * Cancels an upload and deletes its partial file.
+     *
+     * @param videoId  The unique identifier of the video.
+     * @param uploadId The unique identifier of the upload.
+     * @throws ResponseStatusException if the upload does not exist (returns 404 NOT FOUND).
+     */
+    public void abort(UUID videoId, UUID uploadId) {
+        UploadSession session = session(videoId, uploadId);
+        if (sessions.remove(uploadId, session)) {
+            deleteQuietly(session.partFile);
+        }
+    }
+
+    private UploadSession session(UUID videoId, UUID uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null || !session.videoId.equals(videoId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+        }
+        session.lastTouched = System.nanoTime();
+        return session;
+    }
+
+    private void expireIdleSessions() {
+        long now = System.nanoTime();
+        sessions.values().removeIf(session -> {
+            boolean idle = now - session.lastTouched > idleTimeout.toNanos() && session.isIdle();
+            if (idle) {
+                log.info("Discarding idle upload {} of video {}", session.id, session.videoId);
+                deleteQuietly(session.partFile);
+            }
+            return idle;
+        });
+    }
+
+    private static String extensionOf(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1);
+        return fileName.contains(".") && EXTENSION.matcher(extension).matches() ? "." + extension.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", file, e);
+        }
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * State of one upload. Chunk bookkeeping is guarded by the session's monitor, which is only
+     * held for a few instructions and never while reading or writing bytes.
+     */
+    private static final class UploadSession {
+        private final UUID id;
+        private final UUID videoId;
+        private final long size;
+        private final int chunkSize;
+        private final int chunkCount;
+        private final Path partFile;
+        private final String extension;
+        private final byte[][] digests;
+        private final BitSet received = new BitSet();
+        private final BitSet inFlight = new BitSet();
+        private boolean sealed;
+        private boolean completed;
+        private volatile long lastTouched = System.nanoTime();
+
+        UploadSession(UUID id, UUID videoId, long size, int chunkSize, int chunkCount, Path partFile, String extension) {
+            this.id = id;
+            this.videoId = videoId;
+            this.size = size;
+            this.chunkSize = chunkSize;
+            this.chunkCount = chunkCount;
+            this.partFile = partFile;
+            this.extension = extension;
+            this.digests = new byte[chunkCount][];
+        }
+
+        synchronized void begin(int index) {
+            if (sealed) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload has already been completed");
+            }
+            if (inFlight.get(index)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Chunk " + index + " is already being uploaded");
+            }
+            inFlight.set(index);
+        }
+
+        synchronized void finish(int index, byte[] digest) {
+            digests[index] = digest;
+            received.set(index);
+            inFlight.clear(index);
+        }
+
+        synchronized void abandon(int index) {
+            inFlight.clear(index);
+        }
+
+        synchronized boolean isIdle() {
+            return inFlight.isEmpty() && !sealed;
+        }
+
+        /**
+         * Stops accepting chunks and returns the composite checksum of the received file.
+         */
+        synchronized byte[] seal() {
+            if (sealed) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is already being completed");
+            }
+            if (!inFlight.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Chunks are still being uploaded");
+            }
+            int missing = chunkCount - received.cardinality();
+            if (missing > 0) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, missing + " chunks are missing");
+            }
+            sealed = true;
+            MessageDigest composite = sha256();
+            for (byte[] digest : digests) {
+                composite.update(digest);
+            }
+            return composite.digest();
+        }
+
+        synchronized void unseal() {
+            sealed = false;
+        }
+
+        synchronized void markCompleted() {
+            completed = true;
+        }
+
+        synchronized UploadStatusDTO status() {
+            List<Integer> missing = new ArrayList<>(chunkCount - received.cardinality());
+            for (int i = received.nextClearBit(0); i < chunkCount; i = received.nextClearBit(i + 1)) {
+                missing.add(i);
+            }
+            return new UploadStatusDTO(id, videoId, size, chunkSize, chunkCount, missing, completed);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.stream.metrics;
+
+import com.stream.config.RequestBulkhead;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Metrics that Spring Boot does not bind on its own.
+ * <p>
+ * HTTP latencies, {@code @Timed} service methods, the Hikari connection pool and Hibernate
+ * session statistics are bound by the actuator auto-configuration; this adds the per-request
+ * statement counter and the saturation of the {@link RequestBulkhead}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Installs the {@link StatementCounter} as Hibernate's statement inspector.
+     */
+    @Bean
+    HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    /**
+     * Lets the {@link StatementMetricsFilter} count the statements that asynchronous requests,
+     * such as the catalog export, issue on their worker thread.
+     */
+    @Bean
+    WebMvcConfigurer statementMetricsAsyncSupport(StatementMetricsFilter statementMetricsFilter) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(statementMetricsFilter.asyncInterceptor());
+            }
+        };
+    }
+
+    /**
+     * Exposes how many requests the bulkhead can still admit and how many it has shed.
+     */
+    @Bean
+    MeterBinder requestBulkheadMetrics(RequestBulkhead requestBulkhead) {
+        return registry -> bindBulkhead(registry, requestBulkhead);
+    }
+
+    private static void bindBulkhead(MeterRegistry registry, RequestBulkhead requestBulkhead) {
+        if (!requestBulkhead.isEnabled()) {
+            return;
+        }
+        Gauge.builder("videos.bulkhead.available", requestBulkhead, RequestBulkhead::getAvailablePermits)
+                .description("Requests the bulkhead can admit without waiting")
+                .register(registry);
+        FunctionCounter.builder("videos.bulkhead.rejected", requestBulkhead, RequestBulkhead::getRejected)
+                .description("Requests rejected because the bulkhead stayed full")
+                .register(registry);
+    }
+}
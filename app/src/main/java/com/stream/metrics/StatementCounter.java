@@ -0,0 +1,43 @@
+package com.stream.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a count is open.
+ * <p>
+ * Registered as Hibernate's {@link StatementInspector}, so it sees every JPQL, criteria and
+ * native query, but not statements sent through {@code JdbcTemplate}. Counts are kept per
+ * thread, which matches a request with platform and virtual threads alike.
+ */
+@Component
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    /**
+     * Starts counting on the current thread.
+     */
+    public void begin() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Stops counting on the current thread.
+     *
+     * @return The number of statements prepared since {@link #begin()}, or 0 if no count was open.
+     */
+    public int end() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
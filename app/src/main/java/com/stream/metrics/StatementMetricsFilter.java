@@ -0,0 +1,128 @@
+package com.stream.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records how many SQL statements each request issues, as the distribution summary
+ * {@code http.server.requests.db.statements} tagged like {@code http.server.requests}, with
+ * {@code method}, {@code uri}, {@code status}, {@code outcome} and {@code exception}.
+ * <p>
+ * A rising count for an endpoint is the signature of an N+1 query that latency alone hides
+ * until the catalog grows.
+ * <p>
+ * Asynchronous requests, such as the {@link org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody}
+ * of the catalog export, run part of their work on another thread. The statements of that part are
+ * counted by {@link #asyncInterceptor()} and the request is recorded once, when its async dispatch ends.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatementMetricsFilter extends OncePerRequestFilter {
+    static final String METRIC = "http.server.requests.db.statements";
+
+    /**
+     * Request attribute holding the statements counted so far, across the threads of an asynchronous request.
+     */
+    private static final String COUNT_ATTRIBUTE = StatementMetricsFilter.class.getName() + ".count";
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AtomicInteger count = (AtomicInteger) request.getAttribute(COUNT_ATTRIBUTE);
+        if (count == null) {
+            count = new AtomicInteger();
+            request.setAttribute(COUNT_ATTRIBUTE, count);
+        }
+        Throwable failure = null;
+        statementCounter.begin();
+        try {
+            chain.doFilter(request, response);
+        } catch (ServletException | IOException | RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            count.addAndGet(statementCounter.end());
+            // An asynchronous request is recorded when its last dispatch ends.
+            if (failure != null || !request.isAsyncStarted()) {
+                request.removeAttribute(COUNT_ATTRIBUTE);
+                record(request, response, count.get(), failure);
+            }
+        }
+    }
+
+    /**
+     * Counts the statements that an asynchronous request issues on the thread that runs its
+     * {@link Callable} or streaming body, and adds them to the request's count.
+     *
+     * @return The interceptor to register with Spring MVC's async support.
+     */
+    public CallableProcessingInterceptor asyncInterceptor() {
+        return new CallableProcessingInterceptor() {
+            @Override
+            public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+                statementCounter.begin();
+            }
+
+            @Override
+            public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+                int statements = statementCounter.end();
+                // The initial dispatch may still be running, so the count is shared rather than replaced.
+                AtomicInteger count = (AtomicInteger) request.getAttribute(COUNT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (count != null) {
+                    count.addAndGet(statements);
+                }
+            }
+        };
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, int statements, Throwable failure) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Take the error the request observation recorded, so that both metrics carry the same tag.
+        Throwable error = failure != null ? failure : ServerHttpObservationFilter.findObservationContext(request)
+                .map(ServerRequestObservationContext::getError)
+                .orElse(null);
+        // An exception that escapes the filter chain becomes a 500 once the container handles it.
+        int status = failure != null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+        DistributionSummary.builder(METRIC)
+                .description("SQL statements issued per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                .tag("status", String.valueOf(status))
+                .tag("outcome", Outcome.forStatus(status).name())
+                .tag("exception", error == null ? "none" : error.getClass().getSimpleName())
+                .register(meterRegistry)
+                .record(statements);
+    }
+}
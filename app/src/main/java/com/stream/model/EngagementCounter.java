@@ -0,0 +1,46 @@
+package com.stream.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Entity class holding one node's share of the impressions and views of a video.
+ * <p>
+ * When replicated counters are enabled, every node writes only its own rows, so replicas never
+ * contend for the same row. Each row holds the node's running totals and only ever grows; the
+ * totals of a video are the sum over its rows. See {@link com.stream.counter.GCounter}.
+ */
+@Entity
+@Table(name = "engagement_counter", indexes = @Index(name = "idx_engagement_counter_node", columnList = "node_id"))
+@IdClass(EngagementCounter.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EngagementCounter {
+
+    @Id
+    @Column(name = "video_id", columnDefinition = "UUID")
+    private UUID videoId;
+
+    /**
+     * The node that counted these events.
+     */
+    @Id
+    @Column(name = "node_id", length = 100)
+    private String nodeId;
+
+    private long impressions;
+
+    private long views;
+
+    /**
+     * Primary key of a counter row.
+     */
+    public record Key(UUID videoId, String nodeId) implements Serializable {
+    }
+}
@@ -0,0 +1,52 @@
+package com.stream.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Entity class holding the views and impressions of one video during one time bucket.
+ * <p>
+ * Rollups are written by the trending leaderboard so that its sliding windows can be rebuilt
+ * after a restart. Minute buckets cover the last hour and hourly buckets the last week; older
+ * rollups are deleted.
+ */
+@Entity
+@Table(name = "engagement_rollup", indexes = @Index(name = "idx_engagement_rollup_bucket", columnList = "bucket_minutes, bucket_start"))
+@IdClass(EngagementRollup.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EngagementRollup {
+
+    @Id
+    @Column(name = "video_id", columnDefinition = "UUID")
+    private UUID videoId;
+
+    /**
+     * The length of the bucket in minutes: 1 or 60.
+     */
+    @Id
+    @Column(name = "bucket_minutes")
+    private int bucketMinutes;
+
+    /**
+     * The start of the bucket, in milliseconds since the epoch.
+     */
+    @Id
+    @Column(name = "bucket_start")
+    private long bucketStart;
+
+    private long views;
+    private long impressions;
+
+    /**
+     * Primary key of a rollup.
+     */
+    public record Key(UUID videoId, int bucketMinutes, long bucketStart) implements Serializable {
+    }
+}
@@ -1,5 +1,6 @@
 package com.stream.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -15,9 +16,12 @@ import java.util.UUID;
  * </ul>
  * <p>
  * This class is mapped to a database table using JPA and is associated with {@link Video} via a one-to-one relationship.
+ * Each video has at most one record, enforced by a unique constraint on {@code video_id}.
  * </p>
  */
 @Entity
+@Table(name = "engagement_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_engagement_stats_video_id", columnNames = "video_id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -42,6 +46,7 @@ public class EngagementStats {
      * where each video has a corresponding engagement statistics record.
      * </p>
      */
+    @JsonIgnore
     @OneToOne
     @JoinColumn(name = "video_id", referencedColumnName = "id", insertable = false, updatable = false)
     private Video video;
@@ -81,5 +86,21 @@ public class EngagementStats {
     public void incrementViews() {
         this.views++;
     }
-}
 
+    /**
+     * Returns a copy of these statistics with counts added that are not stored in them, such as
+     * pending or per-node counts. The sums saturate at {@link Integer#MAX_VALUE}, like the columns.
+     *
+     * @param impressions The number of impressions to add.
+     * @param views       The number of views to add.
+     * @return The combined statistics.
+     */
+    public EngagementStats plus(long impressions, long views) {
+        return EngagementStats.builder()
+                .id(id)
+                .videoId(videoId)
+                .impressions((int) Math.min(Integer.MAX_VALUE, this.impressions + impressions))
+                .views((int) Math.min(Integer.MAX_VALUE, this.views + views))
+                .build();
+    }
+}
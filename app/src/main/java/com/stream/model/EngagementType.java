@@ -0,0 +1,16 @@
+package com.stream.model;
+
+/**
+ * Kinds of engagement events that can be recorded for a video.
+ */
+public enum EngagementType {
+    /**
+     * The video was loaded or displayed to a user.
+     */
+    IMPRESSION,
+
+    /**
+     * The video was actually played.
+     */
+    VIEW
+}
@@ -0,0 +1,33 @@
+package com.stream.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Entity class recording how far an engagement journal has been applied to the statistics.
+ * <p>
+ * The checkpoint is updated in the same transaction as the statistics it covers, so every
+ * journal record is applied exactly once.
+ */
+@Entity
+@Table(name = "journal_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JournalCheckpoint {
+
+    /**
+     * The name of the journal; every node writing its own journal needs a distinct name.
+     */
+    @Id
+    @Column(name = "journal_name", length = 100)
+    private String journalName;
+
+    /**
+     * The sequence of the first record that has not been applied yet.
+     */
+    @Column(name = "applied_sequence", nullable = false)
+    private long appliedSequence;
+}
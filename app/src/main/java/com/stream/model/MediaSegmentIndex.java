@@ -0,0 +1,82 @@
+package com.stream.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Entity class holding the HLS segment boundaries of a video's media file.
+ * <p>
+ * The boundaries are computed once per media file and stored so that playlists can be produced
+ * without reading the file again. The media path, checksum and running time the index was
+ * computed from are stored with it; when any of them changes on the {@link Video}, the index is
+ * stale and is recomputed.
+ */
+@Entity
+@Table(name = "media_segment_index")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaSegmentIndex {
+
+    /**
+     * The video this index belongs to.
+     */
+    @Id
+    @Column(name = "video_id", columnDefinition = "UUID")
+    private UUID videoId;
+
+    private String mediaPath;
+    private String mediaChecksum;
+    private long mediaSize;
+
+    /**
+     * The running time of the video, in minutes, that segment durations were derived from.
+     */
+    private int runningTime;
+
+    /**
+     * The duration of every segment, in milliseconds.
+     */
+    private int segmentDurationMillis;
+
+    /**
+     * Start offsets of the segments followed by the file size, as big-endian longs.
+     * Segment {@code i} spans the bytes from offset {@code i} up to offset {@code i + 1}.
+     */
+    @Column(length = 1 << 20)
+    private byte[] boundaries;
+
+    /**
+     * @return The number of segments.
+     */
+    public int segmentCount() {
+        return boundaries.length / Long.BYTES - 1;
+    }
+
+    /**
+     * @param segment The zero-based segment number, or {@link #segmentCount()} for the end of the file.
+     * @return The byte offset at which the segment starts.
+     */
+    public long boundary(int segment) {
+        return ByteBuffer.wrap(boundaries).getLong(segment * Long.BYTES);
+    }
+
+    /**
+     * Packs segment boundaries into the stored representation.
+     *
+     * @param offsets Ascending segment start offsets followed by the file size.
+     * @return The packed boundaries.
+     */
+    public static byte[] pack(long[] offsets) {
+        ByteBuffer buffer = ByteBuffer.allocate(offsets.length * Long.BYTES);
+        for (long offset : offsets) {
+            buffer.putLong(offset);
+        }
+        return buffer.array();
+    }
+}
@@ -1,5 +1,6 @@
 package com.stream.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 import java.util.UUID;
@@ -10,14 +11,18 @@ import java.util.UUID;
  * This entity stores metadata about a video, including its title, director, genre, and release year.
  * It also includes timestamps for tracking creation and updates.
  * <p>
- * The actual video file is not stored in this entity; only metadata is maintained.
+ * The actual video file is not stored in this entity; only metadata and the location of the
+ * media file in the media storage directory are maintained.
+ * <p>
+ * The catalog listing seeks through active videos by {@code (createdAt, id)}, which is backed by an index.
+ * The schema and its indexes are defined by the Flyway migrations in {@code db/migration}.
  */
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Video {
 
     @OneToOne(mappedBy = "video", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -55,6 +60,27 @@ public class Video {
      */
     private int runningTime;
 
+    /**
+     * Path of the media file, relative to the media storage directory.
+     * <p>
+     * Videos without a media file cannot be played. The media fields are set only when an upload
+     * completes and are ignored in request bodies.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String mediaPath;
+
+    /**
+     * Size of the media file in bytes, set once an upload completes.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long mediaSize;
+
+    /**
+     * Hex-encoded checksum of the media file, verified when its upload completed.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String mediaChecksum;
+
     /**
      * Indicates whether the video is active.
      * <p>
@@ -0,0 +1,53 @@
+package com.stream.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Entity class holding a HyperLogLog sketch of the distinct viewers of a video on one day.
+ * <p>
+ * There is one sketch per video, engagement type and UTC day. Sketches of several days are merged
+ * to estimate the reach of a video over a period; see {@link com.stream.reach.HyperLogLog}.
+ */
+@Entity
+@Table(name = "viewer_sketch")
+@IdClass(ViewerSketch.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ViewerSketch {
+
+    @Id
+    @Column(name = "video_id", columnDefinition = "UUID")
+    private UUID videoId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "engagement_type", length = 16)
+    private EngagementType type;
+
+    /**
+     * The UTC day the viewers were counted on.
+     */
+    @Id
+    @Column(name = "bucket_day")
+    private LocalDate day;
+
+    /**
+     * The serialized sketch, a few KB whatever the number of viewers.
+     */
+    @Column(nullable = false, length = 4096)
+    private byte[] registers;
+
+    /**
+     * Primary key of a sketch.
+     */
+    public record Key(UUID videoId, EngagementType type, LocalDate day) implements Serializable {
+    }
+}
@@ -0,0 +1,141 @@
+package com.stream.reach;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct viewers of a video.
+ * <p>
+ * The sketch has 2<sup>{@value #PRECISION}</sup> registers, each holding the longest run of
+ * leading zero bits seen among the hashes routed to it. Its size is fixed however many viewers are
+ * added, and the relative standard error of {@link #estimate()} is {@code 1.04 / sqrt(4096)}, about
+ * 1.6%. Sketches merge by taking the maximum of every register, so the sketches of several days or
+ * several nodes combine into the sketch of their union.
+ * <p>
+ * Serialized sketches start with a precision byte followed by the registers packed into six bits
+ * each, {@value #SERIALIZED_SIZE} bytes in total. This class is not thread-safe.
+ */
+public final class HyperLogLog {
+    public static final int PRECISION = 12;
+    public static final int REGISTERS = 1 << PRECISION;
+    public static final int SERIALIZED_SIZE = 1 + REGISTERS * 6 / 8;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    /**
+     * Reads a sketch written by {@link #toBytes()}.
+     *
+     * @param bytes The serialized sketch.
+     * @return The sketch.
+     * @throws IllegalArgumentException if the bytes are not a sketch of this precision.
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length != SERIALIZED_SIZE || bytes[0] != PRECISION) {
+            throw new IllegalArgumentException("Not a HyperLogLog sketch of precision " + PRECISION);
+        }
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0, offset = 1; i < REGISTERS; i += 4, offset += 3) {
+            int packed = (bytes[offset] & 0xFF) << 16 | (bytes[offset + 1] & 0xFF) << 8 | bytes[offset + 2] & 0xFF;
+            sketch.registers[i] = (byte) (packed >>> 18);
+            sketch.registers[i + 1] = (byte) (packed >>> 12 & 0x3F);
+            sketch.registers[i + 2] = (byte) (packed >>> 6 & 0x3F);
+            sketch.registers[i + 3] = (byte) (packed & 0x3F);
+        }
+        return sketch;
+    }
+
+    /**
+     * Hashes a viewer identifier to 64 well-mixed bits.
+     * <p>
+     * Uses FNV-1a over the UTF-8 bytes followed by the MurmurHash3 finalizer, so the hash is the
+     * same on every node and across restarts.
+     *
+     * @param viewerId The viewer identifier.
+     * @return The hash to {@link #add(long)}.
+     */
+    public static long hash(String viewerId) {
+        byte[] bytes = viewerId.getBytes(StandardCharsets.UTF_8);
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+        }
+        hash ^= bytes.length;
+        hash = (hash ^ hash >>> 33) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ hash >>> 33) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ hash >>> 33;
+    }
+
+    /**
+     * Adds a hashed viewer to the sketch.
+     *
+     * @param hash A hash from {@link #hash(String)}.
+     */
+    public void add(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // The sentinel bit caps the rank at 64 - PRECISION + 1, which fits in six bits.
+        byte rank = (byte) (Long.numberOfLeadingZeros(hash << PRECISION | 1L << (PRECISION - 1)) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Merges another sketch into this one.
+     *
+     * @param other The sketch to merge.
+     */
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * @return The estimated number of distinct viewers added to the sketch.
+     */
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            // Linear counting is more accurate while many registers are still empty.
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * @return The relative standard error of {@link #estimate()}.
+     */
+    public static double standardError() {
+        return 1.04 / Math.sqrt(REGISTERS);
+    }
+
+    /**
+     * @return The serialized sketch.
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[SERIALIZED_SIZE];
+        bytes[0] = PRECISION;
+        for (int i = 0, offset = 1; i < REGISTERS; i += 4, offset += 3) {
+            int packed = registers[i] << 18 | registers[i + 1] << 12 | registers[i + 2] << 6 | registers[i + 3];
+            bytes[offset] = (byte) (packed >>> 16);
+            bytes[offset + 1] = (byte) (packed >>> 8);
+            bytes[offset + 2] = (byte) packed;
+        }
+        return bytes;
+    }
+}
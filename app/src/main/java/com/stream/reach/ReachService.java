@@ -0,0 +1,215 @@
+package com.stream.reach;
+
+import com.stream.dto.ReachDTO;
+import com.stream.model.EngagementType;
+import com.stream.model.ViewerSketch;
+import com.stream.repository.ViewerSketchRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service estimating how many distinct viewers saw and played a video.
+ * <p>
+ * Impressions and views that carry a viewer identifier are hashed and buffered per video,
+ * engagement type and UTC day. A background flusher folds the buffered hashes into
+ * {@link HyperLogLog} sketches and merges them into the stored {@link ViewerSketch}es, so every
+ * video costs a few KB per day and type however many viewers it has. Reach over a period merges
+ * the daily sketches with the hashes not flushed yet.
+ */
+@Slf4j
+@Service
+public class ReachService {
+    private final ViewerSketchRepository viewerSketchRepository;
+    private final Clock clock;
+    private final long flushIntervalMillis;
+
+    private final ConcurrentHashMap<ViewerSketch.Key, PendingHashes> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public ReachService(ViewerSketchRepository viewerSketchRepository,
+                        @Value("${reach.flush-interval-ms:1000}") long flushIntervalMillis) {
+        this(viewerSketchRepository, Clock.systemUTC(), flushIntervalMillis);
+    }
+
+    ReachService(ViewerSketchRepository viewerSketchRepository, Clock clock, long flushIntervalMillis) {
+        this.viewerSketchRepository = viewerSketchRepository;
+        this.clock = clock;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Starts the background flusher.
+     */
+    @PostConstruct
+    void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reach-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the flusher and merges every buffered hash into the stored sketches.
+     */
+    @PreDestroy
+    void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    /**
+     * Counts a viewer of a video today.
+     *
+     * @param videoId  The unique identifier of the video.
+     * @param type     Whether the viewer was shown or played the video.
+     * @param viewerId The viewer identifier; ignored if {@code null} or blank.
+     */
+    public void record(UUID videoId, EngagementType type, String viewerId) {
+        if (viewerId == null || viewerId.isBlank()) {
+            return;
+        }
+        long hash = HyperLogLog.hash(viewerId);
+        pending.compute(new ViewerSketch.Key(videoId, type, LocalDate.now(clock)), (key, hashes) -> {
+            PendingHashes buffer = hashes == null ? new PendingHashes() : hashes;
+            buffer.add(hash);
+            return buffer;
+        });
+    }
+
+    /**
+     * Estimates the distinct viewers of a video over the last days, today included.
+     *
+     * @param videoId The unique identifier of the video.
+     * @param days    The number of days to cover.
+     * @return The estimated reach and unique viewers; zero for videos without viewer identifiers.
+     */
+    public ReachDTO reach(UUID videoId, int days) {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate first = today.minusDays(days - 1);
+        Map<EngagementType, HyperLogLog> sketches = new EnumMap<>(EngagementType.class);
+        for (EngagementType type : EngagementType.values()) {
+            sketches.put(type, new HyperLogLog());
+        }
+        for (ViewerSketch stored : viewerSketchRepository.findByVideoIdAndDayGreaterThanEqual(videoId, first)) {
+            sketches.get(stored.getType()).merge(HyperLogLog.fromBytes(stored.getRegisters()));
+        }
+        for (LocalDate day = first; !day.isAfter(today); day = day.plusDays(1)) {
+            for (EngagementType type : EngagementType.values()) {
+                pending.computeIfPresent(new ViewerSketch.Key(videoId, type, day), (key, hashes) -> {
+                    hashes.addTo(sketches.get(type));
+                    return hashes;
+                });
+            }
+        }
+        return new ReachDTO(videoId, days, sketches.get(EngagementType.IMPRESSION).estimate(),
+                sketches.get(EngagementType.VIEW).estimate(), HyperLogLog.standardError());
+    }
+
+    /**
+     * Folds the buffered hashes into sketches and merges them into the stored sketches in a single
+     * transaction.
+     * <p>
+     * If the merge fails the hashes are put back so that they are retried on the next flush.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<ViewerSketch.Key, PendingHashes> drained = new HashMap<>();
+            for (ViewerSketch.Key key : pending.keySet()) {
+                PendingHashes hashes = pending.remove(key);
+                if (hashes != null) {
+                    drained.put(key, hashes);
+                }
+            }
+            if (drained.isEmpty()) {
+                return;
+            }
+            Map<ViewerSketch.Key, byte[]> sketches = new HashMap<>();
+            drained.forEach((key, hashes) -> {
+                HyperLogLog sketch = new HyperLogLog();
+                hashes.addTo(sketch);
+                sketches.put(key, sketch.toBytes());
+            });
+            Set<ViewerSketch.Key> unknown;
+            try {
+                unknown = viewerSketchRepository.mergeAll(sketches);
+            } catch (RuntimeException e) {
+                drained.forEach((key, hashes) -> pending.merge(key, hashes, PendingHashes::addAll));
+                throw e;
+            }
+            if (!unknown.isEmpty()) {
+                log.warn("Dropping viewer sketches for {} unknown videos", unknown.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Viewer sketch flush failed, viewers will be retried", e);
+        }
+    }
+
+    /**
+     * Viewer hashes buffered for one sketch; only accessed inside the pending map's atomic operations.
+     */
+    private static final class PendingHashes {
+        private long[] hashes = new long[8];
+        private int size;
+
+        private void add(long hash) {
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+            }
+            hashes[size++] = hash;
+        }
+
+        private PendingHashes addAll(PendingHashes other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.hashes[i]);
+            }
+            return this;
+        }
+
+        private void addTo(HyperLogLog sketch) {
+            for (int i = 0; i < size; i++) {
+                sketch.add(hashes[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.stream.repository;
+
+import com.stream.model.Video;
+
+/**
+ * Projection of an exported video with the totals of its replicated engagement counters,
+ * which are {@code null} if no node has stored any.
+ */
+public interface CatalogEntry {
+    Video getVideo();
+
+    Long getCounterImpressions();
+
+    Long getCounterViews();
+}
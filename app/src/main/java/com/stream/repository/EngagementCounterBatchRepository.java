@@ -0,0 +1,23 @@
+package com.stream.repository;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Batched write operations for per-node engagement counters.
+ */
+public interface EngagementCounterBatchRepository {
+
+    /**
+     * Merges a node's running totals into its counter rows, creating missing ones.
+     * <p>
+     * Every column keeps the larger of the stored and the given value, so merging the same totals
+     * twice, or older totals after newer ones, changes nothing.
+     *
+     * @param nodeId The node the totals belong to.
+     * @param totals Two-element arrays of impressions and views, keyed by video ID.
+     * @return The IDs of videos that do not exist and therefore were not merged.
+     */
+    Set<UUID> mergeAll(String nodeId, Map<UUID, long[]> totals);
+}
@@ -0,0 +1,66 @@
+package com.stream.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link EngagementCounterBatchRepository}.
+ * <p>
+ * Runs one batched {@code UPDATE} for all videos; only videos without a row for the node pay for
+ * a batched conflict-tolerant insert and a second batched {@code UPDATE}.
+ */
+@RequiredArgsConstructor
+public class EngagementCounterBatchRepositoryImpl implements EngagementCounterBatchRepository {
+    private static final String MERGE_SQL = "UPDATE engagement_counter "
+            + "SET impressions = GREATEST(impressions, ?), views = GREATEST(views, ?) WHERE video_id = ? AND node_id = ?";
+    private static final String INSERT_IF_ABSENT_SQL = "INSERT INTO engagement_counter (video_id, node_id, impressions, views) "
+            + "SELECT v.id, ?, 0, 0 FROM video v WHERE v.id = ? ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public Set<UUID> mergeAll(String nodeId, Map<UUID, long[]> totals) {
+        if (totals.isEmpty()) {
+            return Set.of();
+        }
+        List<UUID> missing = merge(nodeId, new ArrayList<>(totals.keySet()), totals);
+        if (missing.isEmpty()) {
+            return Set.of();
+        }
+        jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, missing, missing.size(), (statement, videoId) -> {
+            statement.setString(1, nodeId);
+            statement.setObject(2, videoId);
+        });
+        return new HashSet<>(merge(nodeId, missing, totals));
+    }
+
+    private List<UUID> merge(String nodeId, List<UUID> videoIds, Map<UUID, long[]> totals) {
+        int[][] updated = jdbcTemplate.batchUpdate(MERGE_SQL, videoIds, videoIds.size(), (statement, videoId) -> {
+            long[] total = totals.get(videoId);
+            statement.setLong(1, total[0]);
+            statement.setLong(2, total[1]);
+            statement.setObject(3, videoId);
+            statement.setString(4, nodeId);
+        });
+        List<UUID> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(videoIds.get(index));
+                }
+                index++;
+            }
+        }
+        return missing;
+    }
+}
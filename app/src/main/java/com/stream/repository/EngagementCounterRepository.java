@@ -0,0 +1,51 @@
+package com.stream.repository;
+
+import com.stream.model.EngagementCounter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Repository interface for the per-node engagement counters of replicated counter mode.
+ * <p>
+ * Counters are only changed through the batched merges of {@link EngagementCounterBatchRepository}.
+ */
+public interface EngagementCounterRepository extends JpaRepository<EngagementCounter, EngagementCounter.Key>,
+        EngagementCounterBatchRepository {
+
+    /**
+     * Finds the counters of every node for a video.
+     *
+     * @param videoId The unique identifier of the video.
+     * @return One counter per node that counted events for the video.
+     */
+    List<EngagementCounter> findByVideoId(UUID videoId);
+
+    /**
+     * Finds the counters of every node for several videos.
+     *
+     * @param videoIds The unique identifiers of the videos.
+     * @return One counter per node and video that it counted events for.
+     */
+    List<EngagementCounter> findByVideoIdIn(Collection<UUID> videoIds);
+
+    /**
+     * Streams the counters written by one node.
+     * <p>
+     * Must be consumed inside a transaction.
+     *
+     * @param nodeId The node identifier.
+     * @return A stream of the node's counters.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c FROM EngagementCounter c WHERE c.nodeId = :nodeId")
+    Stream<EngagementCounter> streamByNodeId(@Param("nodeId") String nodeId);
+}
@@ -0,0 +1,18 @@
+package com.stream.repository;
+
+import com.stream.model.EngagementRollup;
+
+import java.util.Map;
+
+/**
+ * Batched write operations for engagement rollups.
+ */
+public interface EngagementRollupBatchRepository {
+
+    /**
+     * Atomically adds view and impression deltas to many rollups, creating missing ones.
+     *
+     * @param deltas Two-element arrays of views and impressions to add, keyed by rollup.
+     */
+    void addAll(Map<EngagementRollup.Key, long[]> deltas);
+}
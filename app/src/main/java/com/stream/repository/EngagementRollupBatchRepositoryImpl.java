@@ -0,0 +1,66 @@
+package com.stream.repository;
+
+import com.stream.model.EngagementRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation of {@link EngagementRollupBatchRepository}.
+ * <p>
+ * Runs one batched {@code UPDATE} for all rollups; only rollups that do not exist yet pay for a
+ * batched conflict-tolerant insert and a second batched {@code UPDATE}.
+ */
+@RequiredArgsConstructor
+public class EngagementRollupBatchRepositoryImpl implements EngagementRollupBatchRepository {
+    private static final String INCREMENT_SQL = "UPDATE engagement_rollup SET views = views + ?, impressions = impressions + ? "
+            + "WHERE video_id = ? AND bucket_minutes = ? AND bucket_start = ?";
+    private static final String INSERT_IF_ABSENT_SQL = "INSERT INTO engagement_rollup "
+            + "(video_id, bucket_minutes, bucket_start, views, impressions) VALUES (?, ?, ?, 0, 0) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void addAll(Map<EngagementRollup.Key, long[]> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<EngagementRollup.Key> missing = increment(new ArrayList<>(deltas.keySet()), deltas);
+        if (missing.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, missing, missing.size(), (statement, key) -> {
+            statement.setObject(1, key.videoId());
+            statement.setInt(2, key.bucketMinutes());
+            statement.setLong(3, key.bucketStart());
+        });
+        increment(missing, deltas);
+    }
+
+    private List<EngagementRollup.Key> increment(List<EngagementRollup.Key> keys, Map<EngagementRollup.Key, long[]> deltas) {
+        int[][] updated = jdbcTemplate.batchUpdate(INCREMENT_SQL, keys, keys.size(), (statement, key) -> {
+            long[] delta = deltas.get(key);
+            statement.setLong(1, delta[0]);
+            statement.setLong(2, delta[1]);
+            statement.setObject(3, key.videoId());
+            statement.setInt(4, key.bucketMinutes());
+            statement.setLong(5, key.bucketStart());
+        });
+        List<EngagementRollup.Key> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(keys.get(index));
+                }
+                index++;
+            }
+        }
+        return missing;
+    }
+}
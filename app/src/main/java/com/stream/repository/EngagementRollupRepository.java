@@ -0,0 +1,47 @@
+package com.stream.repository;
+
+import com.stream.model.EngagementRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Repository interface for the per-bucket engagement rollups behind the trending leaderboard.
+ * <p>
+ * Rollups are only changed through the batched increments of {@link EngagementRollupBatchRepository}.
+ */
+public interface EngagementRollupRepository extends JpaRepository<EngagementRollup, EngagementRollup.Key>,
+        EngagementRollupBatchRepository {
+
+    /**
+     * Streams the rollups of buckets that started at or after the given time.
+     * <p>
+     * Must be consumed inside a transaction.
+     *
+     * @param since The earliest bucket start, in milliseconds since the epoch.
+     * @return A stream of {@link EngagementRollupRow} projections.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT r.videoId AS videoId, r.bucketMinutes AS bucketMinutes, r.bucketStart AS bucketStart, "
+            + "r.views AS views, r.impressions AS impressions FROM EngagementRollup r WHERE r.bucketStart >= :since")
+    Stream<EngagementRollupRow> streamSince(@Param("since") long since);
+
+    /**
+     * Deletes the rollups of one bucket length that started before the given time.
+     *
+     * @param bucketMinutes The bucket length in minutes.
+     * @param before        The bucket start before which rollups are deleted.
+     * @return The number of deleted rollups.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EngagementRollup r WHERE r.bucketMinutes = :bucketMinutes AND r.bucketStart < :before")
+    int deleteOlderThan(@Param("bucketMinutes") int bucketMinutes, @Param("before") long before);
+}
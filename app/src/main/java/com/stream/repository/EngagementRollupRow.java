@@ -0,0 +1,18 @@
+package com.stream.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of an {@link com.stream.model.EngagementRollup} used to rebuild the trending leaderboard.
+ */
+public interface EngagementRollupRow {
+    UUID getVideoId();
+
+    int getBucketMinutes();
+
+    long getBucketStart();
+
+    long getViews();
+
+    long getImpressions();
+}
@@ -0,0 +1,23 @@
+package com.stream.repository;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Batched write operations for engagement statistics.
+ * <p>
+ * Implemented with JDBC batching so that deltas for many videos are applied
+ * with a handful of statements instead of one round trip per video.
+ */
+public interface EngagementStatsBatchRepository {
+
+    /**
+     * Atomically adds impression and view deltas for many videos, creating missing records.
+     * Counters saturate at {@link Integer#MAX_VALUE} instead of overflowing.
+     *
+     * @param deltas Two-element arrays of impressions and views to add, keyed by video ID.
+     * @return The IDs of videos that do not exist and therefore were not updated.
+     */
+    Set<UUID> incrementAll(Map<UUID, long[]> deltas);
+}
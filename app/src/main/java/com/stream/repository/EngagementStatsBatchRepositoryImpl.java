@@ -0,0 +1,69 @@
+package com.stream.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link EngagementStatsBatchRepository}.
+ * <p>
+ * Runs one batched {@code UPDATE} for all videos; only videos without a record pay for a
+ * batched conflict-tolerant insert and a second batched {@code UPDATE}. Deltas may exceed the
+ * range of the {@code INTEGER} counters; the counters saturate at {@link Integer#MAX_VALUE}.
+ */
+@RequiredArgsConstructor
+public class EngagementStatsBatchRepositoryImpl implements EngagementStatsBatchRepository {
+    private static final String INCREMENT_SQL =
+            "UPDATE engagement_stats SET impressions = LEAST(impressions + CAST(? AS BIGINT), 2147483647), "
+                    + "views = LEAST(views + CAST(? AS BIGINT), 2147483647) WHERE video_id = ?";
+    private static final String INSERT_IF_ABSENT_SQL =
+            "INSERT INTO engagement_stats (id, video_id, impressions, views) "
+                    + "SELECT ?, v.id, 0, 0 FROM video v WHERE v.id = ? ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public Set<UUID> incrementAll(Map<UUID, long[]> deltas) {
+        if (deltas.isEmpty()) {
+            return Set.of();
+        }
+        List<UUID> missing = increment(new ArrayList<>(deltas.keySet()), deltas);
+        if (missing.isEmpty()) {
+            return Set.of();
+        }
+        jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, missing, missing.size(), (statement, videoId) -> {
+            statement.setObject(1, UUID.randomUUID());
+            statement.setObject(2, videoId);
+        });
+        return new HashSet<>(increment(missing, deltas));
+    }
+
+    private List<UUID> increment(List<UUID> videoIds, Map<UUID, long[]> deltas) {
+        int[][] updated = jdbcTemplate.batchUpdate(INCREMENT_SQL, videoIds, videoIds.size(), (statement, videoId) -> {
+            long[] delta = deltas.get(videoId);
+            // Summed as BIGINT, so the sum cannot overflow before it is capped.
+            statement.setLong(1, delta[0]);
+            statement.setLong(2, delta[1]);
+            statement.setObject(3, videoId);
+        });
+        List<UUID> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(videoIds.get(index));
+                }
+                index++;
+            }
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,101 @@
+package com.stream.repository;
+
+import com.stream.model.EngagementStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for managing engagement statistics in the database.
+ * <p>
+ * This repository provides CRUD operations for the {@link EngagementStats} entity
+ * and includes a custom query method for retrieving engagement data by video ID.
+ * <p>
+ * Counters are only ever changed through single-statement increments keyed by the unique
+ * {@code video_id}, so concurrent requests for the same video cannot lose updates.
+ * Deltas for many videos can be applied at once through {@link EngagementStatsBatchRepository}.
+ * <p>
+ * Extends {@link JpaRepository} to leverage Spring Data JPA functionalities.
+ */
+public interface EngagementStatsRepository extends JpaRepository<EngagementStats, UUID>, EngagementStatsBatchRepository {
+
+    /**
+     * Retrieves engagement statistics for a specific video by its ID.
+     * <p>
+     * This method finds the engagement record associated with a given video,
+     * allowing access to the number of impressions and views.
+     *
+     * @param videoId The unique identifier of the video.
+     * @return An {@link Optional} containing the engagement statistics if found,
+     *         or an empty Optional if no engagement data exists for the video.
+     */
+    Optional<EngagementStats> findByVideoId(UUID videoId);
+
+    /**
+     * Retrieves engagement statistics for several videos in a single query.
+     *
+     * @param videoIds The unique identifiers of the videos.
+     * @return The engagement records that exist for the given videos.
+     */
+    List<EngagementStats> findByVideoIdIn(Collection<UUID> videoIds);
+
+    /**
+     * Atomically adds the given deltas to the counters of an existing engagement record.
+     * The counters saturate at {@link Integer#MAX_VALUE} instead of overflowing.
+     *
+     * @param videoId     The unique identifier of the video.
+     * @param impressions The number of impressions to add.
+     * @param views       The number of views to add.
+     * @return The number of rows updated: 1 if the record exists, 0 otherwise.
+     */
+    @Modifying
+    @Query("UPDATE EngagementStats s "
+            + "SET s.impressions = CAST(LEAST(CAST(s.impressions AS Long) + :impressions, 2147483647) AS Integer), "
+            + "s.views = CAST(LEAST(CAST(s.views AS Long) + :views, 2147483647) AS Integer) "
+            + "WHERE s.videoId = :videoId")
+    int incrementCounters(@Param("videoId") UUID videoId,
+                          @Param("impressions") int impressions,
+                          @Param("views") int views);
+
+    /**
+     * Creates an empty engagement record for a video unless one already exists.
+     * <p>
+     * Relies on the unique constraint on {@code video_id}; a concurrent insert for the same
+     * video is silently ignored instead of failing. Nothing is inserted for unknown videos.
+     *
+     * @param id      The identifier to assign to the new record.
+     * @param videoId The unique identifier of the video.
+     * @return The number of rows inserted.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO engagement_stats (id, video_id, impressions, views) "
+            + "SELECT :id, v.id, 0, 0 FROM video v WHERE v.id = :videoId "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id, @Param("videoId") UUID videoId);
+
+    /**
+     * Atomically adds the given deltas to a video's counters, creating the record on first use.
+     * <p>
+     * The common case is a single {@code UPDATE}; only the very first event for a video
+     * additionally pays for the conflict-tolerant insert.
+     *
+     * @param videoId     The unique identifier of the video.
+     * @param impressions The number of impressions to add.
+     * @param views       The number of views to add.
+     * @return {@code true} if the counters were updated, {@code false} if the video does not exist.
+     */
+    @Transactional
+    default boolean increment(UUID videoId, int impressions, int views) {
+        if (incrementCounters(videoId, impressions, views) == 1) {
+            return true;
+        }
+        insertIfAbsent(UUID.randomUUID(), videoId);
+        return incrementCounters(videoId, impressions, views) == 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.stream.repository;
+
+import com.stream.model.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository interface for the checkpoints of engagement journals.
+ */
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
@@ -0,0 +1,11 @@
+package com.stream.repository;
+
+import com.stream.model.MediaSegmentIndex;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.UUID;
+
+/**
+ * Repository interface for the persisted HLS segment indexes of media files, keyed by video ID.
+ */
+public interface MediaSegmentIndexRepository extends JpaRepository<MediaSegmentIndex, UUID> {
+}
@@ -0,0 +1,15 @@
+package com.stream.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of the people credited on a video, used to build search indexes
+ * without loading full {@link com.stream.model.Video} entities.
+ */
+public interface VideoCredits {
+    UUID getId();
+
+    String getDirector();
+
+    String getVideoCast();
+}
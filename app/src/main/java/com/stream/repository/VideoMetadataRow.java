@@ -0,0 +1,17 @@
+package com.stream.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of a video's title, running time and view count, selected together
+ * with a single join instead of loading the video and its statistics separately.
+ */
+public interface VideoMetadataRow {
+    UUID getId();
+
+    String getTitle();
+
+    int getRunningTime();
+
+    int getViews();
+}
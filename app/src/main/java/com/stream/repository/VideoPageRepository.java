@@ -0,0 +1,26 @@
+package com.stream.repository;
+
+import com.stream.dto.VideoSummaryDTO;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset (seek) pagination over the active video catalog.
+ * <p>
+ * Pages are ordered by {@code createdAt} then {@code id} and resume strictly after the last
+ * row of the previous page, so fetching a page costs the same however deep the client goes.
+ */
+public interface VideoPageRepository {
+
+    /**
+     * Retrieves the next page of active videos.
+     *
+     * @param afterCreatedAt Creation timestamp of the last video of the previous page, or {@code null} for the first page.
+     * @param afterId        ID of the last video of the previous page, or {@code null} for the first page.
+     * @param genre          Optional genre filter.
+     * @param yearOfRelease  Optional release year filter.
+     * @param limit          The maximum number of videos to return.
+     * @return Up to {@code limit} active videos in listing order.
+     */
+    List<VideoSummaryDTO> findActivePage(Long afterCreatedAt, UUID afterId, String genre, Integer yearOfRelease, int limit);
+}
@@ -0,0 +1,48 @@
+package com.stream.repository;
+
+import com.stream.dto.VideoSummaryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JPA implementation of {@link VideoPageRepository}.
+ * <p>
+ * Only the filters that are present are added to the query, so every combination
+ * maps onto a plain index range scan.
+ */
+public class VideoPageRepositoryImpl implements VideoPageRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<VideoSummaryDTO> findActivePage(Long afterCreatedAt, UUID afterId, String genre, Integer yearOfRelease, int limit) {
+        StringBuilder jpql = new StringBuilder(VideoRepository.SUMMARY_SELECT).append(" WHERE v.isActive = true");
+        if (genre != null) {
+            jpql.append(" AND v.genre = :genre");
+        }
+        if (yearOfRelease != null) {
+            jpql.append(" AND v.yearOfRelease = :year");
+        }
+        if (afterCreatedAt != null) {
+            jpql.append(" AND (v.createdAt, v.id) > (:createdAt, :id)");
+        }
+        jpql.append(" ORDER BY v.createdAt, v.id");
+
+        TypedQuery<VideoSummaryDTO> query = entityManager.createQuery(jpql.toString(), VideoSummaryDTO.class);
+        if (genre != null) {
+            query.setParameter("genre", genre);
+        }
+        if (yearOfRelease != null) {
+            query.setParameter("year", yearOfRelease);
+        }
+        if (afterCreatedAt != null) {
+            query.setParameter("createdAt", afterCreatedAt);
+            query.setParameter("id", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,135 @@
+package com.stream.repository;
+
+import com.stream.dto.VideoSummaryDTO;
+import com.stream.model.Video;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Repository interface for managing video metadata in the database.
+ * <p>
+ * This repository provides CRUD operations for the {@link Video} entity
+ * and includes custom query methods for paging through active videos
+ * (see {@link VideoPageRepository}), streaming the whole active catalog and
+ * searching videos by director.
+ * <p>
+ * Listings and searches return {@link VideoSummaryDTO} rows built by a single query that
+ * left-joins the engagement statistics, rather than entities whose statistics would be
+ * loaded with one extra query per row. View counts are those of the stored statistics; with
+ * replicated engagement counters enabled, callers add the counters of the returned videos.
+ * <p>
+ * Extends {@link JpaRepository} to leverage Spring Data JPA functionalities.
+ */
+public interface VideoRepository extends JpaRepository<Video, UUID>, VideoPageRepository {
+
+    /**
+     * Select and join clauses shared by every query returning {@link VideoSummaryDTO} rows.
+     */
+    String SUMMARY_SELECT = "SELECT new com.stream.dto.VideoSummaryDTO(v.id, v.title, v.director, v.genre, "
+            + "v.yearOfRelease, v.runningTime, COALESCE(s.views, 0), v.createdAt) "
+            + "FROM Video v LEFT JOIN v.engagementStats s";
+
+    /**
+     * Searches for videos by a director's name, ignoring case sensitivity.
+     * <p>
+     * This method finds all videos where the director's name contains the given keyword.
+     *
+     * @param director The partial or full name of the director.
+     * @return A list of videos directed by the specified director.
+     */
+    @Query(SUMMARY_SELECT + " WHERE LOWER(v.director) LIKE %?#{escape([0].toLowerCase())}% ESCAPE ?#{escapeCharacter()}")
+    List<VideoSummaryDTO> findSummariesByDirector(String director);
+
+    /**
+     * Searches for videos by a cast member's name, ignoring case sensitivity.
+     *
+     * @param name The partial or full name of the cast member.
+     * @return A list of videos whose cast contains the given name.
+     */
+    @Query(SUMMARY_SELECT + " WHERE LOWER(v.videoCast) LIKE %?#{escape([0].toLowerCase())}% ESCAPE ?#{escapeCharacter()}")
+    List<VideoSummaryDTO> findSummariesByCast(String name);
+
+    /**
+     * Retrieves the summaries of the given videos, in no particular order.
+     *
+     * @param ids The unique identifiers of the videos.
+     * @return The summaries of the videos that exist.
+     */
+    @Query(SUMMARY_SELECT + " WHERE v.id IN :ids")
+    List<VideoSummaryDTO> findSummariesByIdIn(Collection<UUID> ids);
+
+    /**
+     * Retrieves the title, running time and view count of the given videos with one joined query.
+     *
+     * @param ids The unique identifiers of the videos.
+     * @return The metadata of the videos that exist, in no particular order.
+     */
+    @Query("SELECT v.id AS id, v.title AS title, v.runningTime AS runningTime, COALESCE(s.views, 0) AS views "
+            + "FROM Video v LEFT JOIN v.engagementStats s WHERE v.id IN :ids")
+    List<VideoMetadataRow> findMetadataByIdIn(Collection<UUID> ids);
+
+    /**
+     * Streams the director and cast of every video, active or not.
+     * <p>
+     * Used to build the in-memory search index at startup. Must be consumed inside a transaction.
+     *
+     * @return A stream of {@link VideoCredits} projections.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT v.id AS id, v.director AS director, v.videoCast AS videoCast FROM Video v")
+    Stream<VideoCredits> streamAllCredits();
+
+    /**
+     * Streams every active video together with its engagement statistics.
+     * <p>
+     * Rows are fetched from a server-side cursor in chunks rather than materialized as a list,
+     * and the statistics are join-fetched so that no extra query is issued per row.
+     * Must be consumed inside a transaction and closed afterwards.
+     *
+     * @return A stream over the active catalog.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM Video v LEFT JOIN FETCH v.engagementStats WHERE v.isActive = true")
+    Stream<Video> streamActiveCatalog();
+
+    /**
+     * Like {@link #streamActiveCatalog()}, with the totals every node has stored in the replicated
+     * engagement counters of each video.
+     * <p>
+     * Costs two extra index lookups per row; only used when replicated counters are enabled.
+     *
+     * @return A stream over the active catalog.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v AS video, "
+            + "(SELECT SUM(c.impressions) FROM EngagementCounter c WHERE c.videoId = v.id) AS counterImpressions, "
+            + "(SELECT SUM(c.views) FROM EngagementCounter c WHERE c.videoId = v.id) AS counterViews "
+            + "FROM Video v LEFT JOIN FETCH v.engagementStats WHERE v.isActive = true")
+    Stream<CatalogEntry> streamActiveCatalogWithCounters();
+
+    /**
+     * Streams the searchable text of every active video.
+     * <p>
+     * Used to build the full-text index at startup. Must be consumed inside a transaction.
+     *
+     * @return A stream of {@link VideoText} projections.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT v.id AS id, v.title AS title, v.synopsis AS synopsis, v.director AS director, "
+            + "v.videoCast AS videoCast FROM Video v WHERE v.isActive = true")
+    Stream<VideoText> streamActiveText();
+}
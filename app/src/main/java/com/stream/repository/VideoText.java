@@ -0,0 +1,19 @@
+package com.stream.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of the searchable text of a video, used to build the full-text index
+ * without loading full {@link com.stream.model.Video} entities.
+ */
+public interface VideoText {
+    UUID getId();
+
+    String getTitle();
+
+    String getSynopsis();
+
+    String getDirector();
+
+    String getVideoCast();
+}
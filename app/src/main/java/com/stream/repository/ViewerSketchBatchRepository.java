@@ -0,0 +1,23 @@
+package com.stream.repository;
+
+import com.stream.model.ViewerSketch;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batched write operations for viewer sketches.
+ */
+public interface ViewerSketchBatchRepository {
+
+    /**
+     * Merges sketches into the stored ones, creating missing sketches.
+     * <p>
+     * Merging is safe against concurrent merges from other nodes: existing sketches are locked
+     * while they are read, merged and written back.
+     *
+     * @param sketches Serialized sketches to merge, keyed by sketch.
+     * @return The keys whose video does not exist; their sketches were dropped.
+     */
+    Set<ViewerSketch.Key> mergeAll(Map<ViewerSketch.Key, byte[]> sketches);
+}
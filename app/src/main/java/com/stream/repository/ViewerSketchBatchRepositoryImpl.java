@@ -0,0 +1,85 @@
+package com.stream.repository;
+
+import com.stream.model.ViewerSketch;
+import com.stream.reach.HyperLogLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC implementation of {@link ViewerSketchBatchRepository}.
+ * <p>
+ * New sketches are stored with one batched conflict-tolerant insert. Only sketches that already
+ * exist are read with {@code SELECT ... FOR UPDATE}, merged in memory and written back with a
+ * batched {@code UPDATE}. Keys are processed in a fixed order so that concurrent merges from
+ * several nodes cannot deadlock.
+ */
+@RequiredArgsConstructor
+public class ViewerSketchBatchRepositoryImpl implements ViewerSketchBatchRepository {
+    private static final Comparator<ViewerSketch.Key> KEY_ORDER = Comparator.comparing(ViewerSketch.Key::videoId)
+            .thenComparing(ViewerSketch.Key::type)
+            .thenComparing(ViewerSketch.Key::day);
+    private static final String INSERT_IF_ABSENT_SQL = "INSERT INTO viewer_sketch (video_id, engagement_type, bucket_day, registers) "
+            + "SELECT v.id, ?, ?, ? FROM video v WHERE v.id = ? ON CONFLICT DO NOTHING";
+    private static final String SELECT_FOR_UPDATE_SQL = "SELECT registers FROM viewer_sketch "
+            + "WHERE video_id = ? AND engagement_type = ? AND bucket_day = ? FOR UPDATE";
+    private static final String UPDATE_SQL = "UPDATE viewer_sketch SET registers = ? "
+            + "WHERE video_id = ? AND engagement_type = ? AND bucket_day = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public Set<ViewerSketch.Key> mergeAll(Map<ViewerSketch.Key, byte[]> sketches) {
+        if (sketches.isEmpty()) {
+            return Set.of();
+        }
+        List<ViewerSketch.Key> keys = new ArrayList<>(sketches.keySet());
+        keys.sort(KEY_ORDER);
+        int[][] inserted = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, keys, keys.size(), (statement, key) -> {
+            statement.setString(1, key.type().name());
+            statement.setDate(2, Date.valueOf(key.day()));
+            statement.setBytes(3, sketches.get(key));
+            statement.setObject(4, key.videoId());
+        });
+
+        Set<ViewerSketch.Key> unknown = new HashSet<>();
+        List<ViewerSketch.Key> existing = new ArrayList<>();
+        Map<ViewerSketch.Key, byte[]> merged = new HashMap<>();
+        int index = 0;
+        for (int[] batch : inserted) {
+            for (int count : batch) {
+                ViewerSketch.Key key = keys.get(index++);
+                if (count != 0) {
+                    continue;
+                }
+                List<byte[]> stored = jdbcTemplate.query(SELECT_FOR_UPDATE_SQL, (row, rowNum) -> row.getBytes(1),
+                        key.videoId(), key.type().name(), Date.valueOf(key.day()));
+                if (stored.isEmpty()) {
+                    unknown.add(key);
+                    continue;
+                }
+                HyperLogLog sketch = HyperLogLog.fromBytes(stored.get(0));
+                sketch.merge(HyperLogLog.fromBytes(sketches.get(key)));
+                existing.add(key);
+                merged.put(key, sketch.toBytes());
+            }
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, existing, existing.size(), (statement, key) -> {
+            statement.setBytes(1, merged.get(key));
+            statement.setObject(2, key.videoId());
+            statement.setString(3, key.type().name());
+            statement.setDate(4, Date.valueOf(key.day()));
+        });
+        return unknown;
+    }
+}
@@ -0,0 +1,25 @@
+package com.stream.repository;
+
+import com.stream.model.ViewerSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for the per-day viewer sketches of videos.
+ * <p>
+ * Sketches are only changed through the batched merges of {@link ViewerSketchBatchRepository}.
+ */
+public interface ViewerSketchRepository extends JpaRepository<ViewerSketch, ViewerSketch.Key>, ViewerSketchBatchRepository {
+
+    /**
+     * Finds the sketches of a video counted on or after a day.
+     *
+     * @param videoId The unique identifier of the video.
+     * @param day     The first day to include.
+     * @return The sketches of every engagement type and day.
+     */
+    List<ViewerSketch> findByVideoIdAndDayGreaterThanEqual(UUID videoId, LocalDate day);
+}
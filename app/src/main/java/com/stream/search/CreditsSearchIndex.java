@@ -0,0 +1,306 @@
+package com.stream.search;
+
+import com.stream.model.Video;
+import com.stream.repository.VideoCredits;
+import com.stream.repository.VideoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over the director and cast of every video.
+ * <p>
+ * A {@code LIKE '%x%'} query cannot use a B-tree index and scans the whole table. This index
+ * maps every three-character substring of a (lower-cased) director or cast string to the
+ * sorted list of videos containing it. A substring search intersects the posting lists of the
+ * query's trigrams and only verifies the remaining candidates, which gives exactly the same
+ * matches as a case-insensitive "contains" query.
+ * <p>
+ * The index is built from the database once the application is ready and kept up to date
+ * through {@link #index(Video)}. Until it is ready, {@link #isReady()} returns {@code false}
+ * and callers should fall back to the database.
+ */
+@Slf4j
+@Component
+public class CreditsSearchIndex {
+    private static final int GRAM = 3;
+
+    /**
+     * The fields that can be searched.
+     */
+    public enum Field {
+        DIRECTOR,
+        CAST
+    }
+
+    private final VideoRepository videoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> docIds = new HashMap<>();
+    private final List<Credits> docs = new ArrayList<>();
+    private final Map<Field, Map<Long, Postings>> postings = new EnumMap<>(Field.class);
+    private volatile boolean ready;
+    private volatile Set<UUID> touchedDuringBuild;
+
+    public CreditsSearchIndex(VideoRepository videoRepository, PlatformTransactionManager transactionManager) {
+        this.videoRepository = videoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        for (Field field : Field.values()) {
+            postings.put(field, new HashMap<>());
+        }
+    }
+
+    /**
+     * @return {@code true} once the index has been built and can answer searches.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Builds the index from every video in the database.
+     * <p>
+     * Videos indexed through {@link #index(Video)} while the build is running take precedence
+     * over the rows read by the build.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        ready = false;
+        touchedDuringBuild = ConcurrentHashMap.newKeySet();
+        lock.writeLock().lock();
+        try {
+            docIds.clear();
+            docs.clear();
+            postings.values().forEach(Map::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Integer indexed = transactionTemplate.execute(status -> {
+            int count = 0;
+            try (Stream<VideoCredits> credits = videoRepository.streamAllCredits()) {
+                for (VideoCredits row : (Iterable<VideoCredits>) credits::iterator) {
+                    lock.writeLock().lock();
+                    try {
+                        if (!touchedDuringBuild.contains(row.getId())) {
+                            put(row.getId(), row.getDirector(), row.getVideoCast());
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    count++;
+                }
+            }
+            return count;
+        });
+        touchedDuringBuild = null;
+        ready = true;
+        log.info("Indexed credits of {} videos in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Adds a video to the index or replaces its previously indexed director and cast.
+     *
+     * @param video The video to index.
+     */
+    public void index(Video video) {
+        lock.writeLock().lock();
+        try {
+            Set<UUID> touched = touchedDuringBuild;
+            if (touched != null) {
+                touched.add(video.getId());
+            }
+            put(video.getId(), video.getDirector(), video.getVideoCast());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the videos whose field contains the query, ignoring case.
+     *
+     * @param field The field to search.
+     * @param query The partial or full name to look for.
+     * @return The IDs of the matching videos.
+     */
+    public List<UUID> search(Field field, String query) {
+        String needle = normalize(query);
+        lock.readLock().lock();
+        try {
+            List<UUID> matches = new ArrayList<>();
+            if (needle.length() < GRAM) {
+                // Too short to have a trigram: scanning the in-memory strings is still cheap.
+                for (Credits doc : docs) {
+                    if (doc != null && contains(doc, field, needle)) {
+                        matches.add(doc.id);
+                    }
+                }
+                return matches;
+            }
+            Postings[] lists = postingsFor(field, needle);
+            if (lists == null) {
+                return matches;
+            }
+            Postings smallest = lists[0];
+            for (int i = 0; i < smallest.size; i++) {
+                int doc = smallest.docs[i];
+                if (inAll(lists, doc) && contains(docs.get(doc), field, needle)) {
+                    matches.add(docs.get(doc).id);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(UUID id, String director, String videoCast) {
+        Integer existing = docIds.get(id);
+        int doc;
+        if (existing != null) {
+            doc = existing;
+            Credits previous = docs.get(doc);
+            unpost(Field.DIRECTOR, previous.director, doc);
+            unpost(Field.CAST, previous.cast, doc);
+        } else {
+            doc = docs.size();
+            docs.add(null);
+            docIds.put(id, doc);
+        }
+        Credits credits = new Credits(id, normalizeNullable(director), normalizeNullable(videoCast));
+        docs.set(doc, credits);
+        post(Field.DIRECTOR, credits.director, doc);
+        post(Field.CAST, credits.cast, doc);
+    }
+
+    private void post(Field field, String text, int doc) {
+        Map<Long, Postings> index = postings.get(field);
+        for (long gram : grams(text)) {
+            index.computeIfAbsent(gram, key -> new Postings()).add(doc);
+        }
+    }
+
+    private void unpost(Field field, String text, int doc) {
+        Map<Long, Postings> index = postings.get(field);
+        for (long gram : grams(text)) {
+            Postings list = index.get(gram);
+            if (list != null && list.remove(doc) && list.size == 0) {
+                index.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * @return The posting lists of every trigram of the query, smallest first,
+     *         or {@code null} if some trigram does not occur at all.
+     */
+    private Postings[] postingsFor(Field field, String needle) {
+        Map<Long, Postings> index = postings.get(field);
+        Set<Long> grams = grams(needle);
+        Postings[] lists = new Postings[grams.size()];
+        int i = 0;
+        for (long gram : grams) {
+            Postings list = index.get(gram);
+            if (list == null) {
+                return null;
+            }
+            lists[i++] = list;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        return lists;
+    }
+
+    private static boolean inAll(Postings[] lists, int doc) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(doc)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(Credits doc, Field field, String needle) {
+        String text = field == Field.DIRECTOR ? doc.director : doc.cast;
+        return text != null && text.contains(needle);
+    }
+
+    private static Set<Long> grams(String text) {
+        if (text == null || text.length() < GRAM) {
+            return Set.of();
+        }
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeNullable(String text) {
+        return text == null ? null : normalize(text);
+    }
+
+    /**
+     * Lower-cased credits of one indexed video.
+     */
+    private record Credits(UUID id, String director, String cast) {
+    }
+
+    /**
+     * Sorted, growable list of document numbers.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, at, docs, at + 1, size - at);
+            docs[at] = doc;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(int doc) {
+            return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package com.stream.search;
+
+import com.stream.dto.TextSearchHitDTO;
+import com.stream.model.Video;
+import com.stream.repository.VideoRepository;
+import com.stream.repository.VideoText;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Embedded inverted index for ranked full-text search over active videos.
+ * <p>
+ * Title, director, cast and synopsis are tokenized into lower-cased alphanumeric terms and
+ * scored with BM25F: term frequencies are length-normalized per field, weighted by a field
+ * boost and saturated once per document. The best {@code limit} documents are selected with
+ * a bounded min-heap.
+ * <p>
+ * Posting lists are kept compact: each is a single growable {@code byte[]} holding, per
+ * document, the varint-encoded gap from the previous document followed by a field mask and
+ * the varint term frequency of each field present. Documents only ever receive increasing
+ * numbers, so updates append; a replaced or delisted document is tombstoned, and once tombstones
+ * outnumber live documents the live ones are renumbered and the lists and per-document arrays are
+ * compacted, so the index does not grow with the number of edits. Until then, document frequencies include
+ * tombstoned documents (capped at the live count), which understates the IDF of affected terms.
+ * <p>
+ * Only active videos are indexed. The index is built when the application is ready and kept
+ * up to date through {@link #index(Video)}.
+ */
+@Slf4j
+@Component
+public class TextSearchIndex {
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_TOMBSTONES_BEFORE_COMPACTION = 1024;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "with");
+
+    /**
+     * Indexed fields and their boosts.
+     */
+    enum Field {
+        TITLE(3.0f),
+        DIRECTOR(2.0f),
+        CAST(2.0f),
+        SYNOPSIS(1.0f);
+
+        private final float boost;
+
+        Field(float boost) {
+            this.boost = boost;
+        }
+    }
+
+    private static final Field[] FIELDS = Field.values();
+
+    private final VideoRepository videoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final Map<UUID, Integer> liveDocs = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private long[] idBits = new long[0];
+    private String[] titles = new String[0];
+    private int[] fieldLengths = new int[0];
+    private final long[] totalFieldLengths = new long[FIELDS.length];
+    private int docCount;
+    private int tombstones;
+    private volatile boolean ready;
+    private volatile Set<UUID> touchedDuringBuild;
+
+    public TextSearchIndex(VideoRepository videoRepository, PlatformTransactionManager transactionManager) {
+        this.videoRepository = videoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * @return {@code true} once the index has been built and can answer searches.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return The number of active videos currently indexed.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of document numbers in use, including tombstoned documents.
+     */
+    int documentCount() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the index from every active video in the database.
+     * <p>
+     * Videos indexed through {@link #index(Video)} while the build is running take precedence
+     * over the rows read by the build.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        ready = false;
+        touchedDuringBuild = ConcurrentHashMap.newKeySet();
+        lock.writeLock().lock();
+        try {
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<VideoText> rows = videoRepository.streamActiveText()) {
+                for (VideoText row : (Iterable<VideoText>) rows::iterator) {
+                    lock.writeLock().lock();
+                    try {
+                        if (!touchedDuringBuild.contains(row.getId())) {
+                            add(row.getId(), row.getTitle(), row.getDirector(), row.getVideoCast(), row.getSynopsis());
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+            }
+        });
+        touchedDuringBuild = null;
+        ready = true;
+        log.info("Indexed text of {} videos ({} terms) in {} ms",
+                size(), terms.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Adds, replaces or removes a video depending on whether it is active.
+     *
+     * @param video The video to index.
+     */
+    public void index(Video video) {
+        lock.writeLock().lock();
+        try {
+            Set<UUID> touched = touchedDuringBuild;
+            if (touched != null) {
+                touched.add(video.getId());
+            }
+            remove(video.getId());
+            if (video.isActive()) {
+                add(video.getId(), video.getTitle(), video.getDirector(), video.getVideoCast(), video.getSynopsis());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks active videos against a free-text query.
+     *
+     * @param query The search terms.
+     * @param limit The maximum number of results.
+     * @return Up to {@code limit} hits, best first.
+     */
+    public List<TextSearchHitDTO> search(String query, int limit) {
+        Set<String> queryTerms = tokenize(query).keySet();
+        lock.readLock().lock();
+        try {
+            int liveCount = liveDocs.size();
+            if (queryTerms.isEmpty() || liveCount == 0) {
+                return List.of();
+            }
+            float[] averageLengths = new float[FIELDS.length];
+            for (int f = 0; f < FIELDS.length; f++) {
+                averageLengths[f] = Math.max(1f, (float) totalFieldLengths[f] / liveCount);
+            }
+            Map<Integer, Float> scores = new HashMap<>();
+            for (String term : queryTerms) {
+                Postings postings = terms.get(term);
+                if (postings != null) {
+                    score(postings, liveCount, averageLengths, scores);
+                }
+            }
+            return topK(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void score(Postings postings, int liveCount, float[] averageLengths, Map<Integer, Float> scores) {
+        // Tombstones can push the stored frequency above the live count until the next compaction.
+        int docFreq = Math.min(postings.docFreq, liveCount);
+        float idf = (float) Math.log(1 + (liveCount - docFreq + 0.5) / (docFreq + 0.5));
+        byte[] data = postings.data;
+        int[] position = {0};
+        int doc = -1;
+        while (position[0] < postings.size) {
+            doc += readVarint(data, position);
+            int mask = data[position[0]++];
+            float weightedTf = 0;
+            for (int f = 0; f < FIELDS.length; f++) {
+                if ((mask & (1 << f)) != 0) {
+                    int tf = readVarint(data, position);
+                    float norm = (1 - B) + B * fieldLengths[doc * FIELDS.length + f] / averageLengths[f];
+                    weightedTf += FIELDS[f].boost * tf / norm;
+                }
+            }
+            if (live.get(doc)) {
+                scores.merge(doc, idf * weightedTf * (K1 + 1) / (weightedTf + K1), Float::sum);
+            }
+        }
+    }
+
+    private List<TextSearchHitDTO> topK(Map<Integer, Float> scores, int limit) {
+        Comparator<Map.Entry<Integer, Float>> byScore = Map.Entry.comparingByValue();
+        PriorityQueue<Map.Entry<Integer, Float>> heap = new PriorityQueue<>(limit + 1, byScore);
+        for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+            if (heap.size() < limit) {
+                heap.add(entry);
+            } else if (entry.getValue() > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<TextSearchHitDTO> hits = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            Map.Entry<Integer, Float> entry = heap.poll();
+            int doc = entry.getKey();
+            hits.add(new TextSearchHitDTO(new UUID(idBits[2 * doc], idBits[2 * doc + 1]), titles[doc], entry.getValue()));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    private void add(UUID id, String title, String director, String cast, String synopsis) {
+        int doc = docCount++;
+        ensureCapacity(docCount);
+        idBits[2 * doc] = id.getMostSignificantBits();
+        idBits[2 * doc + 1] = id.getLeastSignificantBits();
+        titles[doc] = title;
+
+        Map<String, int[]> frequencies = new LinkedHashMap<>();
+        String[] texts = {title, director, cast, synopsis};
+        for (int f = 0; f < FIELDS.length; f++) {
+            Map<String, Integer> fieldTerms = tokenize(texts[f]);
+            int length = 0;
+            for (Map.Entry<String, Integer> term : fieldTerms.entrySet()) {
+                frequencies.computeIfAbsent(term.getKey(), key -> new int[FIELDS.length])[f] = term.getValue();
+                length += term.getValue();
+            }
+            fieldLengths[doc * FIELDS.length + f] = length;
+            totalFieldLengths[f] += length;
+        }
+        frequencies.forEach((term, tfs) -> terms.computeIfAbsent(term, key -> new Postings()).append(doc, tfs));
+        live.set(doc);
+        liveDocs.put(id, doc);
+    }
+
+    private void remove(UUID id) {
+        Integer doc = liveDocs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        live.clear(doc);
+        titles[doc] = null;
+        for (int f = 0; f < FIELDS.length; f++) {
+            totalFieldLengths[f] -= fieldLengths[doc * FIELDS.length + f];
+        }
+        if (++tombstones > Math.max(MIN_TOMBSTONES_BEFORE_COMPACTION, liveDocs.size())) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumbers the live documents consecutively, in their current order, and rewrites every
+     * posting list and per-document array without the tombstoned ones.
+     */
+    private void compact() {
+        int[] renumbered = new int[docCount];
+        int liveCount = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            renumbered[doc] = live.get(doc) ? liveCount++ : -1;
+        }
+        Iterator<Map.Entry<String, Postings>> entries = terms.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Postings> entry = entries.next();
+            Postings compacted = entry.getValue().renumbered(renumbered);
+            if (compacted.docFreq == 0) {
+                entries.remove();
+            } else {
+                entry.setValue(compacted);
+            }
+        }
+
+        long[] compactedIdBits = new long[liveCount * 2];
+        String[] compactedTitles = new String[liveCount];
+        int[] compactedFieldLengths = new int[liveCount * FIELDS.length];
+        for (int doc = 0; doc < docCount; doc++) {
+            int target = renumbered[doc];
+            if (target < 0) {
+                continue;
+            }
+            compactedIdBits[2 * target] = idBits[2 * doc];
+            compactedIdBits[2 * target + 1] = idBits[2 * doc + 1];
+            compactedTitles[target] = titles[doc];
+            System.arraycopy(fieldLengths, doc * FIELDS.length, compactedFieldLengths, target * FIELDS.length,
+                    FIELDS.length);
+        }
+        idBits = compactedIdBits;
+        titles = compactedTitles;
+        fieldLengths = compactedFieldLengths;
+        liveDocs.replaceAll((id, doc) -> renumbered[doc]);
+        live.clear();
+        live.set(0, liveCount);
+        docCount = liveCount;
+        tombstones = 0;
+    }
+
+    private void clear() {
+        terms.clear();
+        liveDocs.clear();
+        live.clear();
+        idBits = new long[0];
+        titles = new String[0];
+        fieldLengths = new int[0];
+        Arrays.fill(totalFieldLengths, 0);
+        docCount = 0;
+        tombstones = 0;
+    }
+
+    private void ensureCapacity(int docs) {
+        if (titles.length >= docs) {
+            return;
+        }
+        int capacity = Math.max(16, Math.max(docs, titles.length + (titles.length >> 1)));
+        idBits = Arrays.copyOf(idBits, capacity * 2);
+        titles = Arrays.copyOf(titles, capacity);
+        fieldLengths = Arrays.copyOf(fieldLengths, capacity * FIELDS.length);
+    }
+
+    /**
+     * Splits text into lower-cased alphanumeric terms, dropping stop words and single characters.
+     *
+     * @return Term frequencies in order of first occurrence.
+     */
+    static Map<String, Integer> tokenize(String text) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        if (text == null) {
+            return frequencies;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = lower.substring(start, i);
+                if (term.length() > 1 && !STOP_WORDS.contains(term)) {
+                    frequencies.merge(term, 1, Integer::sum);
+                }
+                start = -1;
+            }
+        }
+        return frequencies;
+    }
+
+    private static int readVarint(byte[] data, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Delta- and varint-encoded posting list of one term.
+     */
+    private static final class Postings {
+        private byte[] data = new byte[8];
+        private int size;
+        private int lastDoc = -1;
+        private int docFreq;
+
+        void append(int doc, int[] tfs) {
+            writeVarint(doc - lastDoc);
+            lastDoc = doc;
+            int mask = 0;
+            for (int f = 0; f < tfs.length; f++) {
+                if (tfs[f] > 0) {
+                    mask |= 1 << f;
+                }
+            }
+            writeByte(mask);
+            for (int tf : tfs) {
+                if (tf > 0) {
+                    writeVarint(tf);
+                }
+            }
+            docFreq++;
+        }
+
+        /**
+         * @param renumbered The new number of every document, or -1 for a tombstoned document.
+         */
+        Postings renumbered(int[] renumbered) {
+            Postings compacted = new Postings();
+            int[] position = {0};
+            int doc = -1;
+            int[] tfs = new int[FIELDS.length];
+            while (position[0] < size) {
+                doc += readVarint(data, position);
+                int mask = data[position[0]++];
+                for (int f = 0; f < FIELDS.length; f++) {
+                    tfs[f] = (mask & (1 << f)) != 0 ? readVarint(data, position) : 0;
+                }
+                if (renumbered[doc] >= 0) {
+                    compacted.append(renumbered[doc], tfs);
+                }
+            }
+            compacted.data = Arrays.copyOf(compacted.data, compacted.size);
+            return compacted;
+        }
+
+        private void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        private void writeByte(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size + (size >> 1) + 1);
+            }
+            data[size++] = (byte) value;
+        }
+    }
+}
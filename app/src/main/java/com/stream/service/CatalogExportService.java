@@ -0,0 +1,97 @@
+package com.stream.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.stream.counter.ReplicatedEngagementCounters;
+import com.stream.model.EngagementStats;
+import com.stream.model.Video;
+import com.stream.repository.CatalogEntry;
+import com.stream.repository.VideoRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service class for exporting the active catalog as newline-delimited JSON.
+ * <p>
+ * Videos are read from a database cursor, written one per line and detached from the
+ * persistence context straight away, so memory use does not grow with the catalog size. With
+ * replicated engagement counters enabled, the statistics of each video include the totals its
+ * counters have stored.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogExportService {
+    /**
+     * Number of lines written between explicit flushes of the output.
+     */
+    private static final int FLUSH_EVERY = 1000;
+
+    private final VideoRepository videoRepository;
+    private final ReplicatedEngagementCounters replicatedEngagementCounters;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every active video to the given stream as NDJSON.
+     *
+     * @param out The stream to write to; it is flushed but not closed.
+     * @return The number of videos written.
+     * @throws IOException if writing to the stream fails.
+     */
+    @Transactional(readOnly = true)
+    public long exportCatalog(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Video.class);
+        long written = 0;
+        try (Stream<Video> catalog = replicatedEngagementCounters.isEnabled()
+                ? videoRepository.streamActiveCatalogWithCounters().map(this::withCounters)
+                : videoRepository.streamActiveCatalog();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<Video> videos = catalog.iterator();
+            while (videos.hasNext()) {
+                Video video = videos.next();
+                detach(video);
+                writer.writeValue(generator, video);
+                generator.writeRaw('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        return written;
+    }
+
+    /**
+     * Replaces the statistics of a video with the sum of its stored statistics and counters, after
+     * detaching it so that the sum is never written back.
+     */
+    private Video withCounters(CatalogEntry entry) {
+        Video video = entry.getVideo();
+        detach(video);
+        if (entry.getCounterImpressions() != null) {
+            EngagementStats stats = video.getEngagementStats() != null ? video.getEngagementStats()
+                    : EngagementStats.builder().videoId(video.getId()).build();
+            video.setEngagementStats(stats.plus(entry.getCounterImpressions(), entry.getCounterViews()));
+        }
+        return video;
+    }
+
+    private void detach(Video video) {
+        if (!entityManager.contains(video)) {
+            return;
+        }
+        if (video.getEngagementStats() != null) {
+            entityManager.detach(video.getEngagementStats());
+        }
+        entityManager.detach(video);
+    }
+}
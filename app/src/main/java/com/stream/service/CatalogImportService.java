@@ -0,0 +1,244 @@
+package com.stream.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.stream.dto.ImportErrorDTO;
+import com.stream.dto.ImportResultDTO;
+import com.stream.model.Video;
+import com.stream.search.CreditsSearchIndex;
+import com.stream.search.TextSearchIndex;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service class for importing many videos at once, e.g. when onboarding a content partner.
+ * <p>
+ * The body is read one record at a time and every record is validated as it arrives. Valid videos
+ * are persisted in batches: each batch is one transaction whose inserts are sent as a single JDBC
+ * batch, after which the persistence context is cleared, so memory use does not grow with the size
+ * of the import. Video IDs are generated by the application, so inserts need no round trip to
+ * learn their keys. Imported videos are added to the search indexes once their batch is committed.
+ * <p>
+ * Invalid records, and records the database refused, are reported with their row number and do not
+ * stop the import; a syntax error does, after the rows read so far have been stored.
+ */
+@Slf4j
+@Service
+public class CatalogImportService {
+    /**
+     * Longest value accepted for a text column.
+     */
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final CreditsSearchIndex creditsSearchIndex;
+    private final TextSearchIndex textSearchIndex;
+    private final VideoCache videoCache;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public CatalogImportService(EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                CreditsSearchIndex creditsSearchIndex,
+                                TextSearchIndex textSearchIndex,
+                                VideoCache videoCache,
+                                ObjectMapper objectMapper,
+                                @Value("${videos.import.batch-size:500}") int batchSize,
+                                @Value("${videos.import.max-errors:1000}") int maxErrors) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.creditsSearchIndex = creditsSearchIndex;
+        this.textSearchIndex = textSearchIndex;
+        this.videoCache = videoCache;
+        this.jsonReader = objectMapper.readerFor(Video.class);
+        this.csvReader = CsvMapper.builder()
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build()
+                .readerFor(Video.class)
+                .with(CsvSchema.emptySchema().withHeader());
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Imports videos from CSV with a header row naming the {@link Video} properties, e.g.
+     * {@code title,director,videoCast,yearOfRelease,genre,runningTime}.
+     *
+     * @param body The request body containing the videos.
+     * @return The number of imported and rejected rows, with the errors of the rejected ones.
+     * @throws IOException if the body cannot be read.
+     */
+    public ImportResultDTO importCsv(InputStream body) throws IOException {
+        return importVideos(csvReader.readValues(body));
+    }
+
+    /**
+     * Imports videos from a JSON array or newline-delimited JSON of {@link Video} documents.
+     *
+     * @param body The request body containing the videos.
+     * @return The number of imported and rejected rows, with the errors of the rejected ones.
+     * @throws IOException if the body cannot be read.
+     */
+    public ImportResultDTO importJson(InputStream body) throws IOException {
+        return importVideos(jsonReader.readValues(body));
+    }
+
+    private ImportResultDTO importVideos(MappingIterator<Video> records) throws IOException {
+        Report report = new Report();
+        List<Video> batch = new ArrayList<>(batchSize);
+        List<Long> batchRows = new ArrayList<>(batchSize);
+        long row = 0;
+        try (records) {
+            while (records.hasNextValue()) {
+                row++;
+                Video video;
+                try {
+                    video = records.nextValue();
+                } catch (JsonMappingException e) {
+                    report.reject(row, e.getOriginalMessage());
+                    continue;
+                }
+                String error = validate(video);
+                if (error != null) {
+                    report.reject(row, error);
+                    continue;
+                }
+                batch.add(prepare(video));
+                batchRows.add(row);
+                if (batch.size() == batchSize) {
+                    store(batch, batchRows, report);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            report.reject(row, "Malformed input, import stopped: " + e.getOriginalMessage());
+        }
+        store(batch, batchRows, report);
+        return new ImportResultDTO(report.imported, report.rejected, report.errors);
+    }
+
+    /**
+     * Persists a batch in one transaction, then indexes the stored videos. If the database refuses
+     * the batch, its videos are stored one at a time, so only the rows at fault are rejected.
+     */
+    private void store(List<Video> batch, List<Long> batchRows, Report report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            persist(batch);
+            report.imported += batch.size();
+        } catch (RuntimeException e) {
+            log.warn("Could not store an import batch of {} videos, storing them one at a time", batch.size(), e);
+            for (int i = 0; i < batch.size(); i++) {
+                Video video = batch.get(i);
+                // The failed batch assigned an ID that was never stored.
+                video.setId(null);
+                try {
+                    persist(List.of(video));
+                    report.imported++;
+                } catch (RuntimeException rowError) {
+                    report.reject(batchRows.get(i), "Could not be stored: "
+                            + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+        batch.clear();
+        batchRows.clear();
+    }
+
+    /**
+     * Persists and clears videos in one transaction, sent as a single JDBC batch, then indexes them.
+     */
+    private void persist(List<Video> videos) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            videos.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        for (Video video : videos) {
+            videoCache.invalidate(video.getId());
+            creditsSearchIndex.index(video);
+            textSearchIndex.index(video);
+        }
+    }
+
+    /**
+     * @return The reason the video cannot be imported, or {@code null} if it is valid.
+     */
+    private static String validate(Video video) {
+        if (video == null) {
+            return "Empty record";
+        }
+        if (video.getTitle() == null || video.getTitle().isBlank()) {
+            return "title is required";
+        }
+        String[][] texts = {{"title", video.getTitle()}, {"synopsis", video.getSynopsis()},
+                {"director", video.getDirector()}, {"videoCast", video.getVideoCast()}, {"genre", video.getGenre()}};
+        for (String[] text : texts) {
+            if (text[1] != null && text[1].length() > MAX_TEXT_LENGTH) {
+                return text[0] + " is longer than " + MAX_TEXT_LENGTH + " characters";
+            }
+        }
+        if (video.getYearOfRelease() < 0) {
+            return "yearOfRelease must not be negative";
+        }
+        if (video.getRunningTime() < 0) {
+            return "runningTime must not be negative";
+        }
+        return null;
+    }
+
+    /**
+     * Drops the values an import must not set: the ID is generated, timestamps are set on insert,
+     * and media is only linked by a completed upload.
+     */
+    private static Video prepare(Video video) {
+        video.setId(null);
+        video.setEngagementStats(null);
+        video.setMediaPath(null);
+        video.setMediaSize(null);
+        video.setMediaChecksum(null);
+        video.setUpdatedAt(0);
+        return video;
+    }
+
+    /**
+     * Running totals of an import, keeping at most the configured number of errors.
+     */
+    private final class Report {
+        private final List<ImportErrorDTO> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        private void reject(long row, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportErrorDTO(row, message));
+            }
+        }
+    }
+}
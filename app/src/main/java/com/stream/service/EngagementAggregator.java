@@ -0,0 +1,239 @@
+package com.stream.service;
+
+import com.stream.repository.EngagementStatsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for engagement counters.
+ * <p>
+ * When enabled, impressions and views are accumulated in per-video {@link LongAdder} counters
+ * instead of being written to the database on every request. A background flusher drains the
+ * accumulated deltas and writes them with batched statements, either on a fixed interval or as
+ * soon as the number of buffered events reaches the configured threshold.
+ * <p>
+ * Recording an event never blocks: counters are striped and entries are only retired once they
+ * have stayed idle for a whole flush cycle. Unflushed deltas can be read back with
+ * {@link #pendingFor(UUID)} so that statistics stay accurate between flushes.
+ */
+@Slf4j
+@Component
+public class EngagementAggregator {
+    private final EngagementStatsRepository engagementStatsRepository;
+    private final boolean enabled;
+    private final long flushThreshold;
+    private final long flushIntervalMillis;
+
+    private final ConcurrentHashMap<UUID, PendingCounts> pending = new ConcurrentHashMap<>();
+    private final LongAdder pendingEvents = new LongAdder();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ScheduledExecutorService flusher;
+
+    public EngagementAggregator(EngagementStatsRepository engagementStatsRepository,
+                                @Value("${engagement.write-behind.enabled:false}") boolean enabled,
+                                @Value("${engagement.write-behind.flush-threshold:10000}") long flushThreshold,
+                                @Value("${engagement.write-behind.flush-interval-ms:1000}") long flushIntervalMillis) {
+        this.engagementStatsRepository = engagementStatsRepository;
+        this.enabled = enabled;
+        this.flushThreshold = flushThreshold;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Starts the background flusher when write-behind mode is enabled.
+     */
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "engagement-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Engagement write-behind enabled (interval={}ms, threshold={})", flushIntervalMillis, flushThreshold);
+    }
+
+    /**
+     * Stops the flusher and drains every buffered delta to the database.
+     */
+    @PreDestroy
+    void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * @return {@code true} if engagement events should be buffered instead of written directly.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers impressions for a video.
+     *
+     * @param videoId The unique identifier of the video.
+     * @param count   The number of impressions to add.
+     */
+    public void addImpressions(UUID videoId, long count) {
+        add(videoId, count, 0);
+    }
+
+    /**
+     * Buffers views for a video.
+     *
+     * @param videoId The unique identifier of the video.
+     * @param count   The number of views to add.
+     */
+    public void addViews(UUID videoId, long count) {
+        add(videoId, 0, count);
+    }
+
+    /**
+     * Returns the deltas buffered for a video that have not been written yet.
+     *
+     * @param videoId The unique identifier of the video.
+     * @return A two-element array holding pending impressions and views, or {@code null} if none.
+     */
+    public long[] pendingFor(UUID videoId) {
+        PendingCounts counts = pending.get(videoId);
+        if (counts == null) {
+            return null;
+        }
+        long impressions = counts.impressions.sum();
+        long views = counts.views.sum();
+        return impressions == 0 && views == 0 ? null : new long[]{impressions, views};
+    }
+
+    /**
+     * Drains all buffered deltas and writes them to the database in a single batched transaction.
+     * <p>
+     * If the write fails the drained deltas are put back so that they are retried on the next flush.
+     * Flushes are serialized with a {@link ReentrantLock} rather than a monitor, so a virtual thread
+     * waiting on the database does not pin its carrier.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushScheduled.set(false);
+            Map<UUID, long[]> deltas = drain();
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try {
+                apply(deltas);
+            } catch (RuntimeException e) {
+                deltas.forEach((videoId, delta) -> add(videoId, delta[0], delta[1]));
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void add(UUID videoId, long impressions, long views) {
+        while (true) {
+            PendingCounts counts = pending.computeIfAbsent(videoId, id -> new PendingCounts());
+            counts.writers.incrementAndGet();
+            try {
+                if (counts.retired) {
+                    continue;
+                }
+                if (impressions != 0) {
+                    counts.impressions.add(impressions);
+                }
+                if (views != 0) {
+                    counts.views.add(views);
+                }
+            } finally {
+                counts.writers.decrementAndGet();
+            }
+            break;
+        }
+        pendingEvents.add(impressions + views);
+        if (enabled && flusher != null && !flusher.isShutdown() && pendingEvents.sum() >= flushThreshold
+                && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private Map<UUID, long[]> drain() {
+        Map<UUID, long[]> deltas = new HashMap<>();
+        for (Map.Entry<UUID, PendingCounts> entry : pending.entrySet()) {
+            PendingCounts counts = entry.getValue();
+            long impressions = counts.impressions.sumThenReset();
+            long views = counts.views.sumThenReset();
+            if (impressions == 0 && views == 0) {
+                // Idle for a whole cycle: retire the entry once in-flight writers have finished.
+                counts.retired = true;
+                pending.remove(entry.getKey(), counts);
+                while (counts.writers.get() != 0) {
+                    Thread.onSpinWait();
+                }
+                impressions = counts.impressions.sumThenReset();
+                views = counts.views.sumThenReset();
+                if (impressions == 0 && views == 0) {
+                    continue;
+                }
+            }
+            deltas.put(entry.getKey(), new long[]{impressions, views});
+            pendingEvents.add(-(impressions + views));
+        }
+        return deltas;
+    }
+
+    private void apply(Map<UUID, long[]> deltas) {
+        Set<UUID> unknown = engagementStatsRepository.incrementAll(deltas);
+        if (!unknown.isEmpty()) {
+            log.warn("Dropping engagement deltas for {} unknown videos", unknown.size());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Engagement flush failed, deltas will be retried", e);
+        }
+    }
+
+    /**
+     * Striped counters buffered for a single video.
+     */
+    private static final class PendingCounts {
+        private final LongAdder impressions = new LongAdder();
+        private final LongAdder views = new LongAdder();
+        private final AtomicInteger writers = new AtomicInteger();
+        private volatile boolean retired;
+    }
+}
@@ -0,0 +1,285 @@
+package com.stream.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stream.counter.ReplicatedEngagementCounters;
+import com.stream.dto.BatchIngestResultDTO;
+import com.stream.dto.EngagementEventDTO;
+import com.stream.journal.EngagementJournal;
+import com.stream.model.EngagementStats;
+import com.stream.model.EngagementType;
+import com.stream.reach.ReachService;
+import com.stream.repository.EngagementStatsRepository;
+import com.stream.repository.VideoRepository;
+import com.stream.trending.TrendingService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service class for managing engagement statistics related to videos.
+ * <p>
+ * This service handles the recording of video impressions and views,
+ * as well as retrieving engagement statistics.
+ * <p>
+ * Uses {@link EngagementStatsRepository} for database interactions. When write-behind mode is
+ * enabled, increments are buffered by {@link EngagementAggregator} and flushed in batches. When the
+ * journal is enabled, they are appended to the durable {@link EngagementJournal} instead and applied
+ * in the background. With replicated counters enabled, every node counts into its own rows through
+ * {@link ReplicatedEngagementCounters}, and reads add up the rows of every node.
+ * Every counted event is also fed to the {@link TrendingService} leaderboard, and events that carry
+ * a viewer identifier to the {@link ReachService} unique-viewer sketches.
+ * <p>
+ * Every public method is timed as {@code engagement.service}, tagged with the method name.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed("engagement.service")
+public class EngagementService {
+    /**
+     * Number of distinct videos merged in memory before a batch ingestion applies its deltas.
+     */
+    private static final int BATCH_APPLY_SIZE = 1000;
+
+    /**
+     * Largest count accepted for a single event in a batch.
+     */
+    private static final long MAX_EVENT_COUNT = 100_000;
+
+    private final EngagementStatsRepository engagementStatsRepository;
+    private final EngagementAggregator engagementAggregator;
+    private final EngagementJournal engagementJournal;
+    private final ReplicatedEngagementCounters replicatedEngagementCounters;
+    private final TrendingService trendingService;
+    private final VideoRepository videoRepository;
+    private final VideoCache videoCache;
+    private final ReachService reachService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Records an impression for a given video.
+     * <p>
+     * An impression is counted each time a video page is loaded, even if the video is not played.
+     * If an engagement record does not already exist for the video, a new one is created.
+     * The counter is incremented atomically in the database.
+     *
+     * @param videoId The unique identifier of the video.
+     * @throws ResponseStatusException if the video does not exist (returns 404 NOT FOUND).
+     */
+    public void recordImpression(UUID videoId) {
+        recordImpression(videoId, null);
+    }
+
+    /**
+     * Records an impression for a given video on behalf of an identified viewer.
+     * <p>
+     * Besides incrementing the counter, the viewer is added to the video's unique-viewer sketch.
+     *
+     * @param videoId  The unique identifier of the video.
+     * @param viewerId An opaque viewer identifier, or {@code null} if the viewer is anonymous.
+     * @throws ResponseStatusException if the video does not exist (returns 404 NOT FOUND).
+     */
+    public void recordImpression(UUID videoId, String viewerId) {
+        if (isBuffered()) {
+            requireVideo(videoId);
+        }
+        if (engagementJournal.isEnabled()) {
+            engagementJournal.append(videoId, EngagementType.IMPRESSION);
+        } else if (replicatedEngagementCounters.isEnabled()) {
+            replicatedEngagementCounters.add(videoId, 1, 0);
+        } else if (engagementAggregator.isEnabled()) {
+            engagementAggregator.addImpressions(videoId, 1);
+        } else if (!engagementStatsRepository.increment(videoId, 1, 0)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found");
+        }
+        trendingService.record(videoId, 0, 1);
+        reachService.record(videoId, EngagementType.IMPRESSION, viewerId);
+    }
+
+    /**
+     * Records a view for a given video.
+     * <p>
+     * A view is counted when a user starts playing the video.
+     * If an engagement record does not already exist for the video, a new one is created.
+     * The counter is incremented atomically in the database.
+     *
+     * @param videoId The unique identifier of the video.
+     * @throws ResponseStatusException if the video does not exist (returns 404 NOT FOUND).
+     */
+    public void recordView(UUID videoId) {
+        recordView(videoId, null);
+    }
+
+    /**
+     * Records a view for a given video on behalf of an identified viewer.
+     * <p>
+     * Besides incrementing the counter, the viewer is added to the video's unique-viewer sketch.
+     *
+     * @param videoId  The unique identifier of the video.
+     * @param viewerId An opaque viewer identifier, or {@code null} if the viewer is anonymous.
+     * @throws ResponseStatusException if the video does not exist (returns 404 NOT FOUND).
+     */
+    public void recordView(UUID videoId, String viewerId) {
+        if (isBuffered()) {
+            requireVideo(videoId);
+        }
+        if (engagementJournal.isEnabled()) {
+            engagementJournal.append(videoId, EngagementType.VIEW);
+        } else if (replicatedEngagementCounters.isEnabled()) {
+            replicatedEngagementCounters.add(videoId, 0, 1);
+        } else if (engagementAggregator.isEnabled()) {
+            engagementAggregator.addViews(videoId, 1);
+        } else if (!engagementStatsRepository.increment(videoId, 0, 1)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found");
+        }
+        trendingService.record(videoId, 1, 0);
+        reachService.record(videoId, EngagementType.VIEW, viewerId);
+    }
+
+    /**
+     * Retrieves engagement statistics for a specific video.
+     * <p>
+     * This method fetches engagement data, including the number of impressions and views.
+     * Deltas still buffered in write-behind mode, or journaled but not applied yet, are merged into
+     * the returned figures, as are the totals of every node when replicated counters are enabled.
+     *
+     * @param videoId The unique identifier of the video.
+     * @return An {@link Optional} containing the engagement statistics if found,
+     *         or an empty Optional if no engagement data exists for the video.
+     */
+    public Optional<EngagementStats> getStats(UUID videoId) {
+        Optional<EngagementStats> stored = engagementStatsRepository.findByVideoId(videoId);
+        long[] pending = engagementJournal.isEnabled() ? engagementJournal.pendingFor(videoId)
+                : replicatedEngagementCounters.isEnabled() ? replicatedEngagementCounters.totalsFor(videoId)
+                : engagementAggregator.isEnabled() ? engagementAggregator.pendingFor(videoId) : null;
+        if (pending == null) {
+            return stored;
+        }
+        return Optional.of(stored.orElseGet(() -> EngagementStats.builder().videoId(videoId).build())
+                .plus(pending[0], pending[1]));
+    }
+
+    /**
+     * Ingests a batch of engagement events.
+     * <p>
+     * The body may be a JSON array or newline-delimited JSON of {@code {videoId, type, count}} events.
+     * Events are read one at a time, merged per video and applied with batched statements every
+     * {@value #BATCH_APPLY_SIZE} distinct videos, so the body is never held in memory as a whole.
+     * Events with a missing or invalid video ID, type or count, and events for unknown videos,
+     * are counted as rejected. A syntax error stops reading; events merged so far are still applied.
+     *
+     * @param body The request body containing the events.
+     * @return A {@link BatchIngestResultDTO} with the number of accepted and rejected events.
+     * @throws IOException if the body cannot be read.
+     */
+    public BatchIngestResultDTO ingestBatch(InputStream body) throws IOException {
+        Map<UUID, long[]> deltas = new HashMap<>();
+        long accepted = 0;
+        long rejected = 0;
+        try (MappingIterator<EngagementEventDTO> events =
+                     objectMapper.readerFor(EngagementEventDTO.class).readValues(body)) {
+            while (events.hasNextValue()) {
+                EngagementEventDTO event;
+                try {
+                    event = events.nextValue();
+                } catch (JsonMappingException e) {
+                    rejected++;
+                    continue;
+                }
+                if (!merge(event, deltas)) {
+                    rejected++;
+                    continue;
+                }
+                accepted++;
+                if (deltas.size() >= BATCH_APPLY_SIZE) {
+                    long unknown = applyBatch(deltas);
+                    accepted -= unknown;
+                    rejected += unknown;
+                }
+            }
+        } catch (JsonProcessingException e) {
+            rejected++;
+        }
+        long unknown = applyBatch(deltas);
+        return new BatchIngestResultDTO(accepted - unknown, rejected + unknown);
+    }
+
+    /**
+     * Validates an event and adds it to the per-video deltas.
+     *
+     * @return {@code false} if the event is invalid.
+     */
+    private static boolean merge(EngagementEventDTO event, Map<UUID, long[]> deltas) {
+        if (event == null || event.getVideoId() == null || event.getType() == null) {
+            return false;
+        }
+        long count = event.getCount() == null ? 1 : event.getCount();
+        if (count < 1 || count > MAX_EVENT_COUNT) {
+            return false;
+        }
+        UUID videoId;
+        EngagementType type;
+        try {
+            videoId = UUID.fromString(event.getVideoId());
+            type = EngagementType.valueOf(event.getType().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // Third slot tracks how many events were merged, so unknown videos can be reported.
+        long[] delta = deltas.computeIfAbsent(videoId, id -> new long[3]);
+        delta[type == EngagementType.IMPRESSION ? 0 : 1] += count;
+        delta[2]++;
+        return true;
+    }
+
+    /**
+     * Applies and clears the merged deltas, feeding those of known videos to the trending leaderboard.
+     *
+     * @return The number of events that referred to unknown videos.
+     */
+    private long applyBatch(Map<UUID, long[]> deltas) {
+        Set<UUID> unknown = engagementStatsRepository.incrementAll(deltas);
+        long rejected = 0;
+        for (Map.Entry<UUID, long[]> entry : deltas.entrySet()) {
+            long[] delta = entry.getValue();
+            if (unknown.contains(entry.getKey())) {
+                rejected += delta[2];
+            } else {
+                trendingService.record(entry.getKey(), delta[1], delta[0]);
+            }
+        }
+        deltas.clear();
+        return rejected;
+    }
+
+    /**
+     * @return {@code true} if events are counted in memory or in the journal and written later,
+     *         rather than written straight to the statistics.
+     */
+    private boolean isBuffered() {
+        return engagementJournal.isEnabled() || replicatedEngagementCounters.isEnabled()
+                || engagementAggregator.isEnabled();
+    }
+
+    /**
+     * Rejects events for unknown videos before they are buffered. Buffered events only meet the
+     * database when they are written, too late to keep them out of the trending leaderboard. The
+     * lookup goes through the {@link VideoCache}, which remembers unknown IDs as well.
+     */
+    private void requireVideo(UUID videoId) {
+        if (videoCache.get(videoId, videoRepository::findById).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.stream.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.stream.dto.CacheStatsDTO;
+import com.stream.model.Video;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of videos by ID.
+ * <p>
+ * Entries are evicted by size and expire after a fixed time. Lookups of unknown IDs are cached
+ * too, with a shorter lifetime, so repeated requests for a missing video do not reach the
+ * database either. Concurrent misses for the same ID share a single load, which runs on the
+ * thread that missed first and outside of any lock, so a virtual thread blocked on the database
+ * never pins its carrier.
+ * <p>
+ * The cache holds copies of the loaded entities without their engagement statistics, which
+ * change far more often than the video itself and are served from the engagement endpoints.
+ * Writers must call {@link #invalidate(UUID)} after changing a video.
+ */
+@Component
+public class VideoCache {
+    private final AsyncCache<UUID, Optional<Video>> cache;
+
+    public VideoCache(@Value("${videos.cache.max-size:10000}") long maxSize,
+                      @Value("${videos.cache.ttl-seconds:300}") long ttlSeconds,
+                      @Value("${videos.cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        long negativeTtlNanos = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<UUID, Optional<Video>>() {
+                    @Override
+                    public long expireAfterCreate(UUID id, Optional<Video> video, long currentTime) {
+                        return video.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID id, Optional<Video> video, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, video, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID id, Optional<Video> video, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached video, loading it on a miss.
+     *
+     * @param id     The unique identifier of the video.
+     * @param loader Loads the video from the database.
+     * @return The video, or empty if it does not exist.
+     */
+    public Optional<Video> get(UUID id, Function<UUID, Optional<Video>> loader) {
+        CompletableFuture<Optional<Video>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<Video>> cached = cache.get(id, (key, executor) -> load);
+        if (cached == load) {
+            try {
+                load.complete(loader.apply(id).map(VideoCache::copyOf));
+            } catch (RuntimeException e) {
+                // Failed futures are dropped by the cache, so the next lookup retries.
+                load.completeExceptionally(e);
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Discards the cached entry for a video, if any.
+     *
+     * @param id The unique identifier of the video.
+     */
+    public void invalidate(UUID id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    /**
+     * Discards every cached entry.
+     */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * @return The hit, miss and eviction counters of the cache since startup.
+     */
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.synchronous().stats();
+        return new CacheStatsDTO(cache.synchronous().estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    /**
+     * Copies a loaded entity so that the cached value is never managed by, or changed through,
+     * the persistence context of the request that loaded it.
+     */
+    private static Video copyOf(Video video) {
+        return video.toBuilder().engagementStats(null).build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.stream.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the catalog listing, encoded as an opaque continuation token.
+ * <p>
+ * The token is the URL-safe Base64 form of the {@code createdAt} timestamp and ID
+ * of the last video returned, which is exactly the keyset the next page seeks past.
+ *
+ * @param createdAt Creation timestamp of the last video of a page.
+ * @param id        ID of the last video of a page.
+ */
+public record VideoCursor(long createdAt, UUID id) {
+    private static final int ENCODED_BYTES = Long.BYTES * 3;
+
+    /**
+     * @return The opaque token for this position.
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+                .putLong(createdAt)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token The opaque token.
+     * @return The decoded position.
+     * @throws ResponseStatusException if the token is malformed (returns 400 BAD REQUEST).
+     */
+    public static VideoCursor decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        if (bytes.length != ENCODED_BYTES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new VideoCursor(buffer.getLong(), new UUID(buffer.getLong(), buffer.getLong()));
+    }
+}
@@ -0,0 +1,370 @@
+package com.stream.service;
+
+import com.stream.counter.ReplicatedEngagementCounters;
+import com.stream.dto.CacheStatsDTO;
+import com.stream.dto.CursorPageDTO;
+import com.stream.dto.TextSearchHitDTO;
+import com.stream.dto.VideoMetadataResultDTO;
+import com.stream.dto.VideoSummaryDTO;
+import com.stream.media.MediaStorage;
+import com.stream.model.Video;
+import com.stream.model.VideoMetadataResponse;
+import com.stream.repository.VideoMetadataRow;
+import com.stream.repository.VideoRepository;
+import com.stream.search.CreditsSearchIndex;
+import com.stream.search.TextSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.http.HttpStatus;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service class for managing video-related operations.
+ * <p>
+ * This service handles video streaming, publishing, searching, updating,
+ * and soft deletion. It interacts with the {@link VideoRepository} for database operations.
+ * <p>
+ * Single-video lookups are served through the {@link VideoCache}; every write invalidates the
+ * cached entry of the video it changed.
+ * <p>
+ * With replicated engagement counters enabled, the stored statistics no longer change, so the view
+ * counts of listings, searches and metadata get the counters of the returned videos added, with one
+ * extra query per call. Without them, the view counts come straight from the summary query.
+ * <p>
+ * Every public method is timed as {@code video.service}, tagged with the method name.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed("video.service")
+public class VideoService {
+    /**
+     * Page size used when the client does not ask for one.
+     */
+    static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * Largest page size a client may request.
+     */
+    static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Number of full-text search results returned when the client does not ask for a number.
+     */
+    static final int DEFAULT_SEARCH_LIMIT = 10;
+
+    /**
+     * Largest number of IDs accepted by a batch metadata lookup.
+     */
+    static final int MAX_METADATA_BATCH = 100;
+
+    private final VideoRepository videoRepository;
+    private final CreditsSearchIndex creditsSearchIndex;
+    private final TextSearchIndex textSearchIndex;
+    private final VideoCache videoCache;
+    private final MediaStorage mediaStorage;
+    private final ReplicatedEngagementCounters replicatedEngagementCounters;
+
+    /**
+     * Locates the media file to stream for a video.
+     * <p>
+     * Only active videos can be played, and only if their media file is present in the
+     * {@link MediaStorage} directory.
+     *
+     * @param id The unique identifier of the video.
+     * @return The media file of the video.
+     * @throws ResponseStatusException if the video is not found, has been delisted or has no
+     *                                 media file (returns 404 NOT FOUND).
+     */
+    public Path playVideo(UUID id) {
+        Video video = findVideo(id)
+                .filter(Video::isActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found or is delisted"));
+        return mediaStorage.locate(video.getMediaPath())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No media file for this video"));
+    }
+
+    /**
+     * Publishes a new video by saving its metadata in the database.
+     * <p>
+     * A new video has no media file; one is linked by {@link #attachMedia} once its upload completes.
+     *
+     * @param video The video details to be saved.
+     * @return The saved video entity.
+     */
+    public Video publishVideo(Video video) {
+        video.setMediaPath(null);
+        video.setMediaSize(null);
+        video.setMediaChecksum(null);
+        Video saved = videoRepository.save(video);
+        videoCache.invalidate(saved.getId());
+        creditsSearchIndex.index(saved);
+        textSearchIndex.index(saved);
+        return saved;
+    }
+
+    /**
+     * Retrieves a video by its ID.
+     *
+     * @param id The unique identifier of the video.
+     * @return An {@link Optional} containing the video if found, or empty if not found.
+     */
+    public Optional<Video> getVideo(UUID id) {
+        return findVideo(id);
+    }
+
+    /**
+     * @return The hit, miss and eviction counters of the video lookup cache.
+     */
+    public CacheStatsDTO getCacheStats() {
+        return videoCache.stats();
+    }
+
+    /**
+     * Retrieves one page of active (non-deleted) videos.
+     * <p>
+     * Videos are ordered by creation time and paged with a keyset cursor, so each page
+     * costs the same regardless of how far into the catalog it is.
+     *
+     * @param cursor        The continuation token from the previous page, or {@code null} for the first page.
+     * @param limit         The requested page size; defaults to {@value #DEFAULT_PAGE_SIZE}
+     *                      and is capped at {@value #MAX_PAGE_SIZE}.
+     * @param genre         Optional genre filter.
+     * @param yearOfRelease Optional release year filter.
+     * @return A page of active video summaries with the token for the next page, if any.
+     * @throws ResponseStatusException if the cursor is malformed (returns 400 BAD REQUEST).
+     */
+    public CursorPageDTO<VideoSummaryDTO> listVideos(String cursor, Integer limit, String genre, Integer yearOfRelease) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        VideoCursor after = cursor == null || cursor.isEmpty() ? null : VideoCursor.decode(cursor);
+
+        // Fetch one extra row to learn whether another page exists.
+        List<VideoSummaryDTO> videos = videoRepository.findActivePage(
+                after == null ? null : after.createdAt(),
+                after == null ? null : after.id(),
+                genre, yearOfRelease, pageSize + 1);
+        if (videos.size() <= pageSize) {
+            return new CursorPageDTO<>(withCounters(videos), null);
+        }
+        List<VideoSummaryDTO> page = withCounters(videos.subList(0, pageSize));
+        VideoSummaryDTO last = page.get(pageSize - 1);
+        return new CursorPageDTO<>(page, new VideoCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    /**
+     * Searches for videos by director's name.
+     * <p>
+     * Performs a case-insensitive search for videos that match the given director's name.
+     * Candidates are resolved through the in-memory {@link CreditsSearchIndex}, falling back
+     * to a database scan until the index has been built.
+     *
+     * @param director The partial or full name of the director.
+     * @return A list of summaries of the videos directed by the given director.
+     */
+    public List<VideoSummaryDTO> searchByDirector(String director) {
+        if (!creditsSearchIndex.isReady()) {
+            return withCounters(videoRepository.findSummariesByDirector(director));
+        }
+        return loadInOrder(creditsSearchIndex.search(CreditsSearchIndex.Field.DIRECTOR, director));
+    }
+
+    /**
+     * Searches for videos by a cast member's name.
+     * <p>
+     * Performs a case-insensitive search over the comma-separated cast of each video.
+     *
+     * @param name The partial or full name of the cast member.
+     * @return A list of summaries of the videos whose cast contains the given name.
+     */
+    public List<VideoSummaryDTO> searchByCast(String name) {
+        if (!creditsSearchIndex.isReady()) {
+            return withCounters(videoRepository.findSummariesByCast(name));
+        }
+        return loadInOrder(creditsSearchIndex.search(CreditsSearchIndex.Field.CAST, name));
+    }
+
+    /**
+     * Ranks active videos against a free-text query over title, synopsis, cast and director.
+     * <p>
+     * Served entirely from the in-memory {@link TextSearchIndex}, without touching the database.
+     *
+     * @param query The search terms.
+     * @param limit The maximum number of results; defaults to {@value #DEFAULT_SEARCH_LIMIT}
+     *              and is capped at {@value #MAX_PAGE_SIZE}.
+     * @return The best matching videos, best first.
+     * @throws ResponseStatusException if the index is still being built (returns 503 SERVICE UNAVAILABLE).
+     */
+    public List<TextSearchHitDTO> searchText(String query, Integer limit) {
+        if (!textSearchIndex.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is not ready");
+        }
+        int size = limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return textSearchIndex.search(query, size);
+    }
+
+    /**
+     * Updates metadata of an existing video.
+     * <p>
+     * If the video exists, it updates its metadata fields. Otherwise, it throws an exception.
+     *
+     * @param id          The unique identifier of the video.
+     * @param updatedData The updated video details.
+     * @return The updated video entity.
+     * @throws RuntimeException if the video is not found.
+     */
+    public Video updateVideo(UUID id, Video updatedData) {
+        return videoRepository.findById(id).map(existingVideo -> {
+            existingVideo.setTitle(updatedData.getTitle());
+            existingVideo.setSynopsis(updatedData.getSynopsis());
+            existingVideo.setDirector(updatedData.getDirector());
+            existingVideo.setVideoCast(updatedData.getVideoCast());
+            existingVideo.setYearOfRelease(updatedData.getYearOfRelease());
+            existingVideo.setGenre(updatedData.getGenre());
+            existingVideo.setRunningTime(updatedData.getRunningTime());
+            Video saved = videoRepository.save(existingVideo);
+            videoCache.invalidate(id);
+            creditsSearchIndex.index(saved);
+            textSearchIndex.index(saved);
+            return saved;
+        }).orElseThrow(() -> new RuntimeException("Video not found"));
+    }
+
+    /**
+     * Links a stored media file to a video.
+     *
+     * @param id        The unique identifier of the video.
+     * @param mediaPath The path of the file, relative to the media storage directory.
+     * @param size      The size of the file in bytes.
+     * @param checksum  The verified checksum of the file.
+     * @return The updated video entity.
+     * @throws ResponseStatusException if the video is not found (returns 404 NOT FOUND).
+     */
+    public Video attachMedia(UUID id, String mediaPath, long size, String checksum) {
+        Video video = videoRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found"));
+        video.setMediaPath(mediaPath);
+        video.setMediaSize(size);
+        video.setMediaChecksum(checksum);
+        Video saved = videoRepository.save(video);
+        videoCache.invalidate(id);
+        return saved;
+    }
+
+    /**
+     * Soft deletes a video by marking it as inactive.
+     * <p>
+     * The video remains in the database but is no longer considered available.
+     *
+     * @param id The unique identifier of the video.
+     */
+    public void delistVideo(UUID id) {
+        videoRepository.findById(id).ifPresent(video -> {
+            video.setActive(false);
+            Video saved = videoRepository.save(video);
+            videoCache.invalidate(id);
+            creditsSearchIndex.index(saved);
+            textSearchIndex.index(saved);
+        });
+    }
+
+    /**
+     * Retrieves metadata for a video, including title, duration, and total views.
+     *
+     * @param videoId The unique identifier of the video.
+     * @return A {@link VideoMetadataResponse} containing video title, running time, and total views.
+     * @throws ResponseStatusException if the video is not found (returns 404 NOT FOUND).
+     */
+    public VideoMetadataResponse getVideoMetadata(UUID videoId) {
+        Map<UUID, long[]> counters = counterTotals(List.of(videoId));
+        return videoRepository.findMetadataByIdIn(List.of(videoId)).stream()
+                .findFirst()
+                .map(row -> toMetadata(row, counters))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found"));
+    }
+
+    /**
+     * Retrieves metadata for many videos with a single query.
+     * <p>
+     * Results are returned in request order, one per requested ID. IDs that do not exist are
+     * reported individually instead of failing the whole batch.
+     *
+     * @param videoIds The unique identifiers of the videos, at most {@value #MAX_METADATA_BATCH}.
+     * @return One result per requested ID, holding either its metadata or an error.
+     * @throws ResponseStatusException if no IDs or too many IDs are requested (returns 400 BAD REQUEST).
+     */
+    public List<VideoMetadataResultDTO> getVideoMetadata(List<UUID> videoIds) {
+        if (videoIds == null || videoIds.isEmpty() || videoIds.size() > MAX_METADATA_BATCH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Between 1 and " + MAX_METADATA_BATCH + " video IDs must be requested");
+        }
+        if (videoIds.stream().anyMatch(Objects::isNull)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Video IDs must not be null");
+        }
+        LinkedHashSet<UUID> distinct = new LinkedHashSet<>(videoIds);
+        Map<UUID, long[]> counters = counterTotals(distinct);
+        Map<UUID, VideoMetadataResponse> found = videoRepository.findMetadataByIdIn(distinct).stream()
+                .collect(Collectors.toMap(VideoMetadataRow::getId, row -> toMetadata(row, counters)));
+        return videoIds.stream()
+                .map(id -> found.containsKey(id)
+                        ? new VideoMetadataResultDTO(id, found.get(id), null)
+                        : new VideoMetadataResultDTO(id, null, "Video not found"))
+                .toList();
+    }
+
+    private static VideoMetadataResponse toMetadata(VideoMetadataRow row, Map<UUID, long[]> counters) {
+        return new VideoMetadataResponse(row.getTitle(), row.getRunningTime(),
+                plusCounterViews(row.getViews(), counters.get(row.getId())));
+    }
+
+    /**
+     * Adds the replicated engagement counters of the given videos to their view counts, if enabled.
+     */
+    private List<VideoSummaryDTO> withCounters(List<VideoSummaryDTO> videos) {
+        if (!replicatedEngagementCounters.isEnabled() || videos.isEmpty()) {
+            return videos;
+        }
+        Map<UUID, long[]> counters = counterTotals(videos.stream().map(VideoSummaryDTO::getId).toList());
+        return videos.stream()
+                .map(video -> counters.containsKey(video.getId())
+                        ? new VideoSummaryDTO(video.getId(), video.getTitle(), video.getDirector(), video.getGenre(),
+                                video.getYearOfRelease(), video.getRunningTime(),
+                                plusCounterViews(video.getViews(), counters.get(video.getId())), video.getCreatedAt())
+                        : video)
+                .toList();
+    }
+
+    private Map<UUID, long[]> counterTotals(Collection<UUID> videoIds) {
+        return replicatedEngagementCounters.isEnabled() ? replicatedEngagementCounters.totalsFor(videoIds) : Map.of();
+    }
+
+    /**
+     * @return The stored view count plus the counted views, saturating at {@link Integer#MAX_VALUE} like the column.
+     */
+    private static int plusCounterViews(int views, long[] counters) {
+        return counters == null ? views : (int) Math.min(Integer.MAX_VALUE, views + counters[1]);
+    }
+
+    private Optional<Video> findVideo(UUID id) {
+        return videoCache.get(id, videoRepository::findById);
+    }
+
+    private List<VideoSummaryDTO> loadInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, VideoSummaryDTO> byId = withCounters(videoRepository.findSummariesByIdIn(ids)).stream()
+                .collect(Collectors.toMap(VideoSummaryDTO::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,200 @@
+package com.stream.trending;
+
+import com.stream.dto.TrendingVideoDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-video view and impression counts over a sliding window, with rankings kept up to date.
+ * <p>
+ * Counts are held in a ring of time buckets. Every video's totals over the whole window are kept
+ * alongside, in two ordered sets: one by views and one by view rate. Adding counts or expiring a
+ * bucket moves the affected videos within the sets, so reading the top K is a walk over the first
+ * K entries. Buckets are expired lazily when time moves past them on a write or a read.
+ */
+final class SlidingWindowCounter {
+    private static final Comparator<Totals> BY_VIEWS = Comparator.comparingLong((Totals totals) -> totals.views)
+            .reversed()
+            .thenComparing(totals -> totals.videoId);
+    private static final Comparator<Totals> BY_RATIO = ((Comparator<Totals>) (a, b) ->
+            // a.views / a.impressions against b.views / b.impressions, without division.
+            Double.compare((double) b.views * a.impressions, (double) a.views * b.impressions))
+            .thenComparing(BY_VIEWS);
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final long ratioMinImpressions;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Map<UUID, long[]>> ring;
+    private final long[] ringBuckets;
+    private long head = Long.MIN_VALUE;
+    private final Map<UUID, Totals> totals = new HashMap<>();
+    private final TreeSet<Totals> byViews = new TreeSet<>(BY_VIEWS);
+    private final TreeSet<Totals> byRatio = new TreeSet<>(BY_RATIO);
+
+    /**
+     * @param bucketMillis        The length of one bucket in milliseconds.
+     * @param buckets             The number of buckets in the window.
+     * @param ratioMinImpressions The impressions a video needs to be ranked by view rate.
+     */
+    SlidingWindowCounter(long bucketMillis, int buckets, long ratioMinImpressions) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = buckets;
+        this.ratioMinImpressions = ratioMinImpressions;
+        this.ring = new ArrayList<>(buckets);
+        this.ringBuckets = new long[buckets];
+        for (int i = 0; i < buckets; i++) {
+            ring.add(new HashMap<>());
+            ringBuckets[i] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Adds counts to the bucket holding the given time.
+     * <p>
+     * Counts for a time that has already slid out of the window are ignored.
+     *
+     * @param videoId     The unique identifier of the video.
+     * @param timeMillis  When the events happened, in milliseconds since the epoch.
+     * @param views       The number of views to add.
+     * @param impressions The number of impressions to add.
+     */
+    void add(UUID videoId, long timeMillis, long views, long impressions) {
+        long bucket = Math.floorDiv(timeMillis, bucketMillis);
+        lock.lock();
+        try {
+            advance(bucket);
+            if (bucket <= head - buckets) {
+                return;
+            }
+            int slot = (int) Math.floorMod(bucket, (long) buckets);
+            long[] counts = ring.get(slot).computeIfAbsent(videoId, id -> new long[2]);
+            counts[0] += views;
+            counts[1] += impressions;
+            update(videoId, views, impressions);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the highest ranked videos in the window ending at the given time.
+     *
+     * @param nowMillis The current time, in milliseconds since the epoch.
+     * @param ranking   The order of the leaderboard.
+     * @param limit     The maximum number of videos to return.
+     * @return Up to {@code limit} videos, best first.
+     */
+    List<TrendingVideoDTO> top(long nowMillis, TrendingRanking ranking, int limit) {
+        lock.lock();
+        try {
+            advance(Math.floorDiv(nowMillis, bucketMillis));
+            List<TrendingVideoDTO> top = new ArrayList<>(Math.min(limit, totals.size()));
+            Iterator<Totals> ranked = (ranking == TrendingRanking.VIEWS ? byViews : byRatio).iterator();
+            while (top.size() < limit && ranked.hasNext()) {
+                Totals entry = ranked.next();
+                double viewRate = entry.impressions == 0 ? 0 : (double) entry.views / entry.impressions;
+                top.add(new TrendingVideoDTO(entry.videoId, entry.views, entry.impressions, viewRate));
+            }
+            return top;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of videos with counts in the window.
+     */
+    int size() {
+        lock.lock();
+        try {
+            return totals.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every count.
+     */
+    void clear() {
+        lock.lock();
+        try {
+            ring.forEach(Map::clear);
+            Arrays.fill(ringBuckets, Long.MIN_VALUE);
+            head = Long.MIN_VALUE;
+            totals.clear();
+            byViews.clear();
+            byRatio.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the head of the window forward, expiring every bucket that slides out of it.
+     */
+    private void advance(long bucket) {
+        if (bucket <= head) {
+            return;
+        }
+        long first = head == Long.MIN_VALUE ? bucket - buckets + 1 : Math.max(head + 1, bucket - buckets + 1);
+        for (long next = first; next <= bucket; next++) {
+            int slot = (int) Math.floorMod(next, (long) buckets);
+            if (ringBuckets[slot] != next) {
+                Map<UUID, long[]> expired = ring.get(slot);
+                expired.forEach((videoId, counts) -> update(videoId, -counts[0], -counts[1]));
+                expired.clear();
+                ringBuckets[slot] = next;
+            }
+        }
+        head = bucket;
+    }
+
+    private void update(UUID videoId, long views, long impressions) {
+        Totals entry = totals.get(videoId);
+        if (entry == null) {
+            entry = new Totals(videoId);
+            totals.put(videoId, entry);
+        } else {
+            // The sets are ordered by the counts, so entries must leave them before changing.
+            byViews.remove(entry);
+            byRatio.remove(entry);
+        }
+        entry.views += views;
+        entry.impressions += impressions;
+        if (entry.views == 0 && entry.impressions == 0) {
+            totals.remove(videoId);
+            return;
+        }
+        if (entry.views > 0) {
+            byViews.add(entry);
+        }
+        if (entry.impressions >= ratioMinImpressions && entry.impressions > 0) {
+            byRatio.add(entry);
+        }
+    }
+
+    /**
+     * A video's counts over the whole window.
+     */
+    private static final class Totals {
+        private final UUID videoId;
+        private long views;
+        private long impressions;
+
+        private Totals(UUID videoId) {
+            this.videoId = videoId;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.stream.trending;
+
+/**
+ * The orders in which trending videos can be ranked.
+ */
+public enum TrendingRanking {
+    /**
+     * Most views first.
+     */
+    VIEWS,
+    /**
+     * Highest ratio of views to impressions first, among videos with enough impressions.
+     */
+    RATIO
+}
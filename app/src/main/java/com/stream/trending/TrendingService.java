@@ -0,0 +1,214 @@
+package com.stream.trending;
+
+import com.stream.dto.TrendingVideoDTO;
+import com.stream.model.EngagementRollup;
+import com.stream.repository.EngagementRollupRepository;
+import com.stream.repository.EngagementRollupRow;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Trending leaderboard of the videos with the most views, or the best view rate, over the last
+ * hour, day and week.
+ * <p>
+ * Every recorded view and impression is added to one {@link SlidingWindowCounter} per
+ * {@link TrendingWindow}, which keeps its rankings up to date, so reading a leaderboard never
+ * touches the database. The same events are summed into per-minute and per-hour
+ * {@link EngagementRollup}s that a background flusher writes in batches; on startup the windows are
+ * rebuilt from them. Minute rollups are kept for an hour and hourly rollups for a week.
+ */
+@Slf4j
+@Service
+public class TrendingService {
+    private static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final EngagementRollupRepository engagementRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final long flushIntervalMillis;
+
+    private final Map<TrendingWindow, SlidingWindowCounter> windows = new EnumMap<>(TrendingWindow.class);
+    private final ConcurrentHashMap<EngagementRollup.Key, long[]> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private long nextPruneMillis;
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public TrendingService(EngagementRollupRepository engagementRollupRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${trending.ratio-min-impressions:20}") long ratioMinImpressions,
+                           @Value("${trending.flush-interval-ms:5000}") long flushIntervalMillis) {
+        this(engagementRollupRepository, new TransactionTemplate(transactionManager), Clock.systemUTC(),
+                ratioMinImpressions, flushIntervalMillis);
+    }
+
+    TrendingService(EngagementRollupRepository engagementRollupRepository, TransactionTemplate transactionTemplate,
+                    Clock clock, long ratioMinImpressions, long flushIntervalMillis) {
+        this.engagementRollupRepository = engagementRollupRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.transactionTemplate.setReadOnly(true);
+        this.clock = clock;
+        this.flushIntervalMillis = flushIntervalMillis;
+        for (TrendingWindow window : TrendingWindow.values()) {
+            windows.put(window, new SlidingWindowCounter(window.bucketMinutes() * MINUTE_MILLIS, window.buckets(),
+                    ratioMinImpressions));
+        }
+    }
+
+    /**
+     * Rebuilds the windows from the persisted rollups and starts the background flusher.
+     * <p>
+     * Runs before the web server accepts requests, so no event can be counted twice.
+     */
+    @PostConstruct
+    void start() {
+        rebuild();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trending-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the flusher and writes every pending rollup to the database.
+     */
+    @PreDestroy
+    void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    /**
+     * Counts views and impressions of a video that happened now.
+     *
+     * @param videoId     The unique identifier of the video.
+     * @param views       The number of views.
+     * @param impressions The number of impressions.
+     */
+    public void record(UUID videoId, long views, long impressions) {
+        long now = clock.millis();
+        for (SlidingWindowCounter counter : windows.values()) {
+            counter.add(videoId, now, views, impressions);
+        }
+        long[] delta = {views, impressions};
+        pending.merge(new EngagementRollup.Key(videoId, 1, now - Math.floorMod(now, MINUTE_MILLIS)), delta, TrendingService::sum);
+        pending.merge(new EngagementRollup.Key(videoId, 60, now - Math.floorMod(now, HOUR_MILLIS)), delta.clone(), TrendingService::sum);
+    }
+
+    /**
+     * Returns the leaderboard of a window.
+     *
+     * @param window  The window to rank over.
+     * @param ranking The order of the leaderboard.
+     * @param limit   The maximum number of videos to return.
+     * @return Up to {@code limit} videos, best first.
+     */
+    public List<TrendingVideoDTO> top(TrendingWindow window, TrendingRanking ranking, int limit) {
+        return windows.get(window).top(clock.millis(), ranking, limit);
+    }
+
+    /**
+     * Writes the pending rollups to the database in a single batched transaction and deletes
+     * rollups that no window covers anymore.
+     * <p>
+     * If the write fails the pending rollups are put back so that they are retried on the next flush.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<EngagementRollup.Key, long[]> deltas = new HashMap<>();
+            for (EngagementRollup.Key key : pending.keySet()) {
+                long[] delta = pending.remove(key);
+                if (delta != null) {
+                    deltas.put(key, delta);
+                }
+            }
+            try {
+                engagementRollupRepository.addAll(deltas);
+            } catch (RuntimeException e) {
+                deltas.forEach((key, delta) -> pending.merge(key, delta, TrendingService::sum));
+                throw e;
+            }
+            long now = clock.millis();
+            if (now >= nextPruneMillis) {
+                engagementRollupRepository.deleteOlderThan(1, now - TrendingWindow.HOUR.buckets() * MINUTE_MILLIS);
+                engagementRollupRepository.deleteOlderThan(60, now - TrendingWindow.WEEK.buckets() * HOUR_MILLIS);
+                nextPruneMillis = now + MINUTE_MILLIS;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the counts of every window with the persisted rollups.
+     * <p>
+     * The hour window is filled from minute rollups and the longer windows from hourly rollups.
+     */
+    void rebuild() {
+        long start = System.nanoTime();
+        long now = clock.millis();
+        windows.values().forEach(SlidingWindowCounter::clear);
+        Integer rollups = transactionTemplate.execute(status -> {
+            int count = 0;
+            try (Stream<EngagementRollupRow> rows = engagementRollupRepository.streamSince(now - TrendingWindow.WEEK.buckets() * HOUR_MILLIS)) {
+                for (EngagementRollupRow row : (Iterable<EngagementRollupRow>) rows::iterator) {
+                    for (Map.Entry<TrendingWindow, SlidingWindowCounter> window : windows.entrySet()) {
+                        if (window.getKey().bucketMinutes() == row.getBucketMinutes()) {
+                            window.getValue().add(row.getVideoId(), row.getBucketStart(), row.getViews(), row.getImpressions());
+                        }
+                    }
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.info("Rebuilt trending windows from {} rollups in {} ms", rollups, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Trending rollup flush failed, rollups will be retried", e);
+        }
+    }
+
+    private static long[] sum(long[] a, long[] b) {
+        a[0] += b[0];
+        a[1] += b[1];
+        return a;
+    }
+}
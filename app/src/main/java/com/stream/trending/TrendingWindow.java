@@ -0,0 +1,55 @@
+package com.stream.trending;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The sliding windows over which trending videos are ranked.
+ * <p>
+ * The last hour is counted in one-minute buckets; the last day and week in one-hour buckets, so
+ * they slide forward once per hour.
+ */
+public enum TrendingWindow {
+    HOUR("1h", 1, 60),
+    DAY("24h", 60, 24),
+    WEEK("7d", 60, 168);
+
+    private final String key;
+    private final int bucketMinutes;
+    private final int buckets;
+
+    TrendingWindow(String key, int bucketMinutes, int buckets) {
+        this.key = key;
+        this.bucketMinutes = bucketMinutes;
+        this.buckets = buckets;
+    }
+
+    /**
+     * @return The name of the window in the API, e.g. {@code 24h}.
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * @return The length of one bucket in minutes.
+     */
+    public int bucketMinutes() {
+        return bucketMinutes;
+    }
+
+    /**
+     * @return The number of buckets in the window.
+     */
+    public int buckets() {
+        return buckets;
+    }
+
+    /**
+     * @param key The name of a window, e.g. {@code 7d}.
+     * @return The window, or an empty Optional if the name is unknown.
+     */
+    public static Optional<TrendingWindow> fromKey(String key) {
+        return Arrays.stream(values()).filter(window -> window.key.equalsIgnoreCase(key)).findFirst();
+    }
+}
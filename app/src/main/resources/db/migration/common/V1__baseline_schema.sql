@@ -0,0 +1,77 @@
+-- Tables as previously generated by Hibernate. IF NOT EXISTS lets databases created by
+-- spring.jpa.hibernate.ddl-auto=update be adopted through spring.flyway.baseline-on-migrate.
+
+CREATE TABLE IF NOT EXISTS video (
+    id              UUID         NOT NULL,
+    title           VARCHAR(255),
+    synopsis        VARCHAR(255),
+    director        VARCHAR(255),
+    video_cast      VARCHAR(255),
+    year_of_release INTEGER      NOT NULL,
+    genre           VARCHAR(255),
+    running_time    INTEGER      NOT NULL,
+    media_path      VARCHAR(255),
+    media_size      BIGINT,
+    media_checksum  VARCHAR(255),
+    is_active       BOOLEAN      NOT NULL,
+    created_at      BIGINT       NOT NULL,
+    updated_at      BIGINT       NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Every counter update and findByVideoId look a row up by video_id, through the unique constraint.
+CREATE TABLE IF NOT EXISTS engagement_stats (
+    id          UUID    NOT NULL,
+    video_id    UUID,
+    impressions INTEGER NOT NULL,
+    views       INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_engagement_stats_video_id UNIQUE (video_id),
+    CONSTRAINT fk_engagement_stats_video FOREIGN KEY (video_id) REFERENCES video (id)
+);
+
+CREATE TABLE IF NOT EXISTS engagement_rollup (
+    video_id       UUID    NOT NULL,
+    bucket_minutes INTEGER NOT NULL,
+    bucket_start   BIGINT  NOT NULL,
+    views          BIGINT  NOT NULL,
+    impressions    BIGINT  NOT NULL,
+    PRIMARY KEY (video_id, bucket_minutes, bucket_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_engagement_rollup_bucket ON engagement_rollup (bucket_minutes, bucket_start);
+
+CREATE TABLE IF NOT EXISTS viewer_sketch (
+    video_id        UUID        NOT NULL,
+    engagement_type VARCHAR(16) NOT NULL CHECK (engagement_type IN ('IMPRESSION', 'VIEW')),
+    bucket_day      DATE        NOT NULL,
+    registers       BYTEA       NOT NULL,
+    PRIMARY KEY (video_id, engagement_type, bucket_day)
+);
+
+CREATE TABLE IF NOT EXISTS engagement_counter (
+    video_id    UUID         NOT NULL,
+    node_id     VARCHAR(100) NOT NULL,
+    impressions BIGINT       NOT NULL,
+    views       BIGINT       NOT NULL,
+    PRIMARY KEY (video_id, node_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_engagement_counter_node ON engagement_counter (node_id);
+
+CREATE TABLE IF NOT EXISTS journal_checkpoint (
+    journal_name     VARCHAR(100) NOT NULL,
+    applied_sequence BIGINT       NOT NULL,
+    PRIMARY KEY (journal_name)
+);
+
+CREATE TABLE IF NOT EXISTS media_segment_index (
+    video_id                UUID         NOT NULL,
+    media_path              VARCHAR(255),
+    media_checksum          VARCHAR(255),
+    media_size              BIGINT       NOT NULL,
+    running_time            INTEGER      NOT NULL,
+    segment_duration_millis INTEGER      NOT NULL,
+    boundaries              BYTEA,
+    PRIMARY KEY (video_id)
+);
@@ -0,0 +1,22 @@
+-- Databases created by ddl-auto=update before media upload existed are adopted by the baseline,
+-- but V1 skips their existing tables. Bring those tables up to the current schema.
+
+ALTER TABLE video ADD COLUMN IF NOT EXISTS media_path VARCHAR(255);
+ALTER TABLE video ADD COLUMN IF NOT EXISTS media_size BIGINT;
+ALTER TABLE video ADD COLUMN IF NOT EXISTS media_checksum VARCHAR(255);
+
+-- Engagement used to be counted by read-modify-write, which could leave more than one row per
+-- video. Fold the counts of each video into its row with the lowest id and delete the others,
+-- so that video_id can be made unique. The columns are INTEGER, so the sums saturate.
+UPDATE engagement_stats s
+SET impressions = (SELECT LEAST(SUM(d.impressions), 2147483647) FROM engagement_stats d WHERE d.video_id = s.video_id),
+    views       = (SELECT LEAST(SUM(d.views), 2147483647) FROM engagement_stats d WHERE d.video_id = s.video_id)
+WHERE NOT EXISTS (SELECT 1 FROM engagement_stats d WHERE d.video_id = s.video_id AND d.id < s.id)
+  AND EXISTS (SELECT 1 FROM engagement_stats d WHERE d.video_id = s.video_id AND d.id > s.id);
+
+DELETE FROM engagement_stats s
+WHERE EXISTS (SELECT 1 FROM engagement_stats d WHERE d.video_id = s.video_id AND d.id < s.id);
+
+-- Statistics of videos that no longer exist would block the foreign key.
+DELETE FROM engagement_stats s
+WHERE s.video_id IS NOT NULL AND NOT EXISTS (SELECT 1 FROM video v WHERE v.id = s.video_id);
@@ -0,0 +1,6 @@
+-- Catalog listing: WHERE is_active ORDER BY created_at, id. H2 has no partial indexes, so the
+-- index leads with is_active instead.
+CREATE INDEX IF NOT EXISTS idx_video_active_created_id ON video (is_active, created_at, id);
+
+-- H2 has neither trigram nor expression indexes; director and cast search fall back to a scan,
+-- which only happens until the in-memory credits index has been built.
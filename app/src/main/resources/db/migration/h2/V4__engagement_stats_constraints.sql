@@ -0,0 +1,5 @@
+-- Constraints V1 declares but cannot add to an adopted engagement_stats table. Every counter
+-- update relies on the unique video_id for ON CONFLICT (video_id).
+ALTER TABLE engagement_stats ADD CONSTRAINT IF NOT EXISTS uk_engagement_stats_video_id UNIQUE (video_id);
+ALTER TABLE engagement_stats ADD CONSTRAINT IF NOT EXISTS fk_engagement_stats_video
+    FOREIGN KEY (video_id) REFERENCES video (id);
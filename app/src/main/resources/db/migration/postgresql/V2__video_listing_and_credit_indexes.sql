@@ -0,0 +1,10 @@
+-- Catalog listing: WHERE is_active ORDER BY created_at, id. A partial index leaves inactive
+-- videos out and needs no leading is_active column.
+DROP INDEX IF EXISTS idx_video_active_created_id;
+CREATE INDEX IF NOT EXISTS idx_video_active_listing ON video (created_at, id) WHERE is_active;
+
+-- Director and cast search: LOWER(column) LIKE '%name%' cannot use a B-tree index; a trigram
+-- GIN index over the same expression can.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_video_director_trgm ON video USING gin (LOWER(director) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_video_cast_trgm ON video USING gin (LOWER(video_cast) gin_trgm_ops);
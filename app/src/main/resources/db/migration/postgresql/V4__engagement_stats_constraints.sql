@@ -0,0 +1,23 @@
+-- Constraints V1 declares but cannot add to an adopted engagement_stats table. Every counter
+-- update relies on the unique video_id for ON CONFLICT (video_id). Hibernate may already have
+-- created equivalent constraints under generated names; those are kept rather than duplicated.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1
+                   FROM pg_index i
+                   JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+                   WHERE i.indrelid = 'engagement_stats'::regclass
+                     AND i.indisunique
+                     AND i.indnatts = 1
+                     AND a.attname = 'video_id') THEN
+        ALTER TABLE engagement_stats ADD CONSTRAINT uk_engagement_stats_video_id UNIQUE (video_id);
+    END IF;
+    IF NOT EXISTS (SELECT 1
+                   FROM pg_constraint
+                   WHERE conrelid = 'engagement_stats'::regclass
+                     AND confrelid = 'video'::regclass
+                     AND contype = 'f') THEN
+        ALTER TABLE engagement_stats ADD CONSTRAINT fk_engagement_stats_video
+            FOREIGN KEY (video_id) REFERENCES video (id);
+    END IF;
+END $$;
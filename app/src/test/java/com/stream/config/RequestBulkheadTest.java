@@ -0,0 +1,67 @@
+package com.stream.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.server.ResponseStatusException;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link RequestBulkhead}.
+ */
+class RequestBulkheadTest {
+
+    /**
+     * Tests whether requests beyond the limit are rejected with 503 once the wait expires,
+     * and admitted again after a permit is released.
+     */
+    @Test
+    void testRejectsWhenFullAndAdmitsAfterRelease() throws Exception {
+        RequestBulkhead bulkhead = new RequestBulkhead(2, 10);
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        assertTrue(bulkhead.preHandle(first, new MockHttpServletResponse(), null));
+        assertTrue(bulkhead.preHandle(second, new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> bulkhead.preHandle(new MockHttpServletRequest(), rejected, null));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(1, bulkhead.getRejected());
+
+        bulkhead.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        assertTrue(bulkhead.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), null));
+    }
+
+    /**
+     * Tests whether a permit is released only once, even if completion is signalled twice for a request.
+     */
+    @Test
+    void testReleasesPermitOnce() throws Exception {
+        RequestBulkhead bulkhead = new RequestBulkhead(1, 10);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        bulkhead.preHandle(request, new MockHttpServletResponse(), null);
+
+        bulkhead.afterCompletion(request, new MockHttpServletResponse(), null, null);
+        bulkhead.afterCompletion(request, new MockHttpServletResponse(), null, null);
+
+        assertTrue(bulkhead.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), null));
+        assertThrows(ResponseStatusException.class,
+                () -> bulkhead.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), null));
+    }
+
+    /**
+     * Tests whether a bulkhead without a limit admits every request.
+     */
+    @Test
+    void testDisabled() throws Exception {
+        RequestBulkhead bulkhead = new RequestBulkhead(0, 10);
+
+        assertFalse(bulkhead.isEnabled());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(bulkhead.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), null));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.stream.controller;
+
+import com.stream.StreamApplication;
+import com.stream.search.CreditsSearchIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the database bulkhead of both the platform-thread and the virtual-thread execution
+ * mode serves or sheds every request of a heavy load, and never lets one fail.
+ * <p>
+ * Starts the application once per mode, each on its own in-memory database with the same
+ * connection pool, and drives director searches (one database query each) from 5,000 concurrent
+ * clients that each issue requests back to back. Only runs with {@code mvn test -Pbenchmark}.
+ * Throughput and latency percentiles of the two modes under the same load are compared with
+ * {@code loadtest.jar --clients=5000 --mix=search:1 --compare-modes}.
+ */
+@Tag("benchmark")
+class ExecutionModeBulkheadTest {
+
+    private static final int CATALOG_SIZE = 5_000;
+    private static final int CLIENTS = 5_000;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int WARMUP_CLIENTS = 500;
+
+    /**
+     * Tests whether both modes serve or shed every request of the same load.
+     */
+    @Test
+    void shouldServeOrShedEveryRequestInBothModes() throws Exception {
+        for (Result result : List.of(run("platform", false), run("virtual", true))) {
+            assertEquals(CLIENTS * REQUESTS_PER_CLIENT, result.ok + result.shed, result.mode + " had failed requests");
+            assertTrue(result.ok > 0);
+        }
+    }
+
+    private Result run(String mode, boolean virtualThreads) throws Exception {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(StreamApplication.class);
+        if (virtualThreads) {
+            application.profiles("virtual-threads");
+        }
+        // Command-line arguments take precedence over application.properties and the profile.
+        try (ConfigurableApplicationContext context = application.run("--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark_" + mode
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=32",
+                "--server.tomcat.max-connections=10000")) {
+            seed(context);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            load(client, port, WARMUP_CLIENTS, new Result(mode));
+            Result result = new Result(mode);
+            load(client, port, CLIENTS, result);
+            return result;
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        List<Object[]> rows = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            rows.add(new Object[]{UUID.randomUUID(), "Title " + i, "Director " + i, "Actor " + (i % 97), (long) i});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate("INSERT INTO video (id, title, director, video_cast, "
+                + "year_of_release, genre, running_time, is_active, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, 2000, 'Drama', 90, TRUE, ?, 0)", rows);
+        context.getBean(CreditsSearchIndex.class).rebuild();
+    }
+
+    private static void load(HttpClient client, int port, int clients, Result result) throws InterruptedException {
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int seed = c;
+                pool.execute(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                                + "/videos/search?director=Director%20" + (seed * 31 + r) % CATALOG_SIZE)).build();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        result.record(status);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Outcomes of one run.
+     */
+    private static final class Result {
+        private final String mode;
+        private int ok;
+        private int shed;
+
+        Result(String mode) {
+            this.mode = mode;
+        }
+
+        synchronized void record(int status) {
+            if (status == 200) {
+                ok++;
+            } else if (status == 503) {
+                shed++;
+            }
+        }
+    }
+}
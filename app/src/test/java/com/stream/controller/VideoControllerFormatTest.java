@@ -0,0 +1,174 @@
+package com.stream.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.stream.model.Video;
+import com.stream.search.CreditsSearchIndex;
+import com.stream.search.TextSearchIndex;
+import com.stream.service.VideoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test of the response formats of {@link VideoController} over a real HTTP connection:
+ * content negotiation of JSON, CBOR and Smile, sparse fieldsets and response compression.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class VideoControllerFormatTest {
+    private static final int VIDEOS = 40;
+
+    private final String tag = UUID.randomUUID().toString().substring(0, 8);
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private VideoService videoService;
+
+    @Autowired
+    private CreditsSearchIndex creditsSearchIndex;
+
+    @Autowired
+    private TextSearchIndex textSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> videoIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < VIDEOS; i++) {
+            videoIds.add(videoService.publishVideo(Video.builder()
+                    .title("Format " + i)
+                    .synopsis("A synopsis long enough to resemble a real one, describing the plot of title " + i + ".")
+                    .director("Director " + tag)
+                    .videoCast("Actor A, Actor B")
+                    .genre(genre())
+                    .yearOfRelease(2000 + i)
+                    .runningTime(90 + i)
+                    .isActive(true)
+                    .build()).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM video WHERE genre = ?", genre());
+        creditsSearchIndex.rebuild();
+        textSearchIndex.rebuild();
+    }
+
+    /**
+     * Tests whether the same page is served as JSON by default and as CBOR or Smile on request,
+     * with the binary encodings smaller than JSON.
+     */
+    @Test
+    void shouldNegotiateBinaryFormats() throws Exception {
+        HttpResponse<byte[]> json = get("/videos?limit=100&genre=" + genre(), "*/*", false);
+        HttpResponse<byte[]> cbor = get("/videos?limit=100&genre=" + genre(), "application/cbor", false);
+        HttpResponse<byte[]> smile = get("/videos?limit=100&genre=" + genre(), "application/x-jackson-smile", false);
+
+        assertTrue(json.headers().firstValue("Content-Type").orElseThrow().startsWith("application/json"));
+        assertEquals("application/cbor", cbor.headers().firstValue("Content-Type").orElseThrow());
+        assertEquals("application/x-jackson-smile", smile.headers().firstValue("Content-Type").orElseThrow());
+
+        JsonNode expected = new ObjectMapper().readTree(json.body());
+        assertEquals(VIDEOS, expected.get("items").size());
+        assertEquals(expected, withTextIds(new ObjectMapper(new CBORFactory()).readTree(cbor.body())));
+        assertEquals(expected, withTextIds(new ObjectMapper(new SmileFactory()).readTree(smile.body())));
+        assertTrue(cbor.body().length < json.body().length);
+        assertTrue(smile.body().length < json.body().length);
+    }
+
+    /**
+     * Tests whether the fields parameter restricts every video of a listing and a single video to
+     * the requested properties.
+     */
+    @Test
+    void shouldReturnOnlyRequestedFields() throws Exception {
+        JsonNode page = new ObjectMapper().readTree(
+                get("/videos?limit=100&fields=id,title,runningTime&genre=" + genre(), "application/json", false).body());
+        for (JsonNode item : page.get("items")) {
+            assertEquals(List.of("id", "title", "runningTime"), fieldNames(item));
+        }
+        assertTrue(page.has("nextCursor") || page.size() == 1, "the page envelope is not filtered");
+
+        JsonNode video = new ObjectMapper(new CBORFactory()).readTree(
+                get("/videos/" + videoIds.get(0) + "?fields=title", "application/cbor", false).body());
+        assertEquals(List.of("title"), fieldNames(video));
+
+        JsonNode full = new ObjectMapper().readTree(get("/videos/" + videoIds.get(0), "application/json", false).body());
+        assertTrue(full.has("synopsis"));
+    }
+
+    /**
+     * Tests whether responses are gzip compressed for clients that accept it, and only for them.
+     */
+    @Test
+    void shouldCompressForClientsAcceptingGzip() throws Exception {
+        HttpResponse<byte[]> plain = get("/videos?limit=100&genre=" + genre(), "application/json", false);
+        HttpResponse<byte[]> compressed = get("/videos?limit=100&genre=" + genre(), "application/json", true);
+
+        assertTrue(plain.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals("gzip", compressed.headers().firstValue("Content-Encoding").orElse(null));
+        assertTrue(compressed.body().length < plain.body().length / 2);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.body()))) {
+            assertArrayEquals(plain.body(), in.readAllBytes());
+        }
+    }
+
+    private HttpResponse<byte[]> get(String path, String accept, boolean gzip) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", accept);
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+        return response;
+    }
+
+    /**
+     * The binary formats write UUIDs as 16 raw bytes; converts them back to the text JSON uses.
+     */
+    private static JsonNode withTextIds(JsonNode page) throws IOException {
+        for (JsonNode item : page.get("items")) {
+            ByteBuffer id = ByteBuffer.wrap(item.get("id").binaryValue());
+            ((ObjectNode) item).put("id", new UUID(id.getLong(), id.getLong()).toString());
+        }
+        return page;
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private String genre() {
+        return "format-" + tag;
+    }
+}
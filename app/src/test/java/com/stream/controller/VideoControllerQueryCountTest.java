@@ -0,0 +1,184 @@
+package com.stream.controller;
+
+import com.stream.model.Video;
+import com.stream.repository.EngagementStatsRepository;
+import com.stream.search.CreditsSearchIndex;
+import com.stream.search.TextSearchIndex;
+import com.stream.service.VideoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test asserting that the listing, search and batch metadata endpoints of {@link VideoController}
+ * issue the same number of SQL statements however many videos they return.
+ * <p>
+ * Statements are counted with Hibernate statistics around each request, which runs through the
+ * whole MVC stack including JSON serialization.
+ */
+@SpringBootTest
+class VideoControllerQueryCountTest {
+
+    private final String tag = UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private VideoService videoService;
+
+    @Autowired
+    private EngagementStatsRepository engagementStatsRepository;
+
+    @Autowired
+    private CreditsSearchIndex creditsSearchIndex;
+
+    @Autowired
+    private TextSearchIndex textSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+    private boolean statisticsEnabled;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(statisticsEnabled);
+        jdbcTemplate.update("DELETE FROM engagement_stats WHERE video_id IN (SELECT id FROM video WHERE genre = ?)", genre());
+        jdbcTemplate.update("DELETE FROM video WHERE genre = ?", genre());
+        creditsSearchIndex.rebuild();
+        textSearchIndex.rebuild();
+    }
+
+    /**
+     * Tests whether a catalog page is served by one statement, whether it holds 5 or 50 videos.
+     */
+    @Test
+    void shouldListVideosWithConstantStatementCount() throws Exception {
+        publish(5);
+        long small = statementsFor(get("/videos").param("genre", genre()).param("limit", "100"), "$.items", 5);
+        publish(45);
+        long large = statementsFor(get("/videos").param("genre", genre()).param("limit", "100"), "$.items", 50);
+
+        assertEquals(1, small);
+        assertEquals(small, large);
+    }
+
+    /**
+     * Tests whether director and cast searches cost the same number of statements for 5 or 50 matches.
+     */
+    @Test
+    void shouldSearchWithConstantStatementCount() throws Exception {
+        publish(5);
+        long smallDirector = statementsFor(get("/videos/search").param("director", director()), "$", 5);
+        long smallCast = statementsFor(get("/videos/search/cast").param("name", actor()), "$", 5);
+        publish(45);
+        long largeDirector = statementsFor(get("/videos/search").param("director", director()), "$", 50);
+        long largeCast = statementsFor(get("/videos/search/cast").param("name", actor()), "$", 50);
+
+        assertEquals(1, smallDirector);
+        assertEquals(smallDirector, largeDirector);
+        assertEquals(smallCast, largeCast);
+    }
+
+    /**
+     * Tests whether a batch metadata lookup of 40 IDs, some unknown, is answered by one statement.
+     */
+    @Test
+    void shouldResolveMetadataBatchWithOneStatement() throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 38; i++) {
+            ids.add(publish("Counted " + i).getId());
+        }
+        ids.add(1, UUID.randomUUID());
+        ids.add(UUID.randomUUID());
+
+        statistics.clear();
+        mockMvc.perform(post("/videos/metadata:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ids.stream().map(id -> "\"" + id + "\"").toList().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(40))
+                .andExpect(jsonPath("$[0].id").value(ids.get(0).toString()))
+                .andExpect(jsonPath("$[0].metadata.title").value("Counted 0"))
+                .andExpect(jsonPath("$[0].metadata.views").value(3))
+                .andExpect(jsonPath("$[1].error").value("Video not found"))
+                .andExpect(jsonPath("$[1].metadata").doesNotExist())
+                .andExpect(jsonPath("$[39].error").value("Video not found"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private long statementsFor(MockHttpServletRequestBuilder request, String items, int expectedResults) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(items + ".length()").value(expectedResults))
+                .andExpect(jsonPath(items + "[0].views").value(3));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void publish(int count) {
+        for (int i = 0; i < count; i++) {
+            publish("Counted " + i);
+        }
+    }
+
+    private Video publish(String title) {
+        Video video = videoService.publishVideo(Video.builder()
+                .title(title)
+                .director(director())
+                .videoCast(actor() + ", Someone Else")
+                .genre(genre())
+                .yearOfRelease(2020)
+                .runningTime(90)
+                .isActive(true)
+                .build());
+        engagementStatsRepository.increment(video.getId(), 0, 3);
+        return video;
+    }
+
+    private String genre() {
+        return "query-count-" + tag;
+    }
+
+    private String director() {
+        return "Director " + tag;
+    }
+
+    private String actor() {
+        return "Actor " + tag;
+    }
+}
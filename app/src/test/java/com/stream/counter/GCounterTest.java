@@ -0,0 +1,64 @@
+package com.stream.counter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link GCounter}.
+ */
+class GCounterTest {
+
+    /**
+     * Tests whether the totals add up the entries of every node.
+     */
+    @Test
+    void shouldSumEntriesOfEveryNode() {
+        GCounter counter = new GCounter();
+        counter.merge("a", 3, 1);
+        counter.merge("b", 5, 2);
+
+        assertArrayEquals(new long[]{8, 3}, counter.value());
+        assertEquals(2, counter.nodes());
+    }
+
+    /**
+     * Tests whether merging keeps the larger value of an entry, so stale or repeated entries change nothing.
+     */
+    @Test
+    void shouldKeepLargestValueOfEachEntry() {
+        GCounter counter = new GCounter();
+        counter.merge("a", 10, 4);
+        counter.merge("a", 7, 6);
+        counter.merge("a", 10, 4);
+
+        assertArrayEquals(new long[]{10, 6}, counter.value());
+    }
+
+    /**
+     * Tests whether replicas converge whatever the order in which they exchange their vectors.
+     */
+    @Test
+    void shouldConvergeRegardlessOfMergeOrder() {
+        GCounter a = new GCounter();
+        a.merge("a", 4, 2);
+        GCounter b = new GCounter();
+        b.merge("b", 1, 1);
+        GCounter c = new GCounter();
+        c.merge("c", 2, 9);
+        c.merge("a", 3, 1);
+
+        GCounter left = new GCounter();
+        left.merge(a);
+        left.merge(b);
+        left.merge(c);
+        GCounter right = new GCounter();
+        right.merge(c);
+        right.merge(b);
+        right.merge(a);
+        right.merge(c);
+
+        assertArrayEquals(new long[]{7, 12}, left.value());
+        assertArrayEquals(left.value(), right.value());
+    }
+}
@@ -0,0 +1,153 @@
+package com.stream.counter;
+
+import com.stream.StreamApplication;
+import com.stream.model.EngagementStats;
+import com.stream.model.Video;
+import com.stream.repository.VideoRepository;
+import com.stream.service.CatalogExportService;
+import com.stream.service.EngagementService;
+import com.stream.service.VideoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of replicated engagement counters with several application contexts in one JVM.
+ * <p>
+ * Each context plays a replica with its own node identifier, and all of them share one in-memory
+ * database, as replicas behind a load balancer share one PostgreSQL instance.
+ */
+class ReplicatedEngagementCountersTest {
+    private static final List<String> NODES = List.of("node-a", "node-b", "node-c");
+
+    private final String database = "peers_" + UUID.randomUUID().toString().replace("-", "");
+    private final List<ConfigurableApplicationContext> peers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        peers.forEach(ConfigurableApplicationContext::close);
+    }
+
+    /**
+     * Tests whether every replica reads the same totals once all of them have flushed, with each
+     * replica writing only its own rows.
+     */
+    @Test
+    void shouldConvergeOnTotalsCountedByEveryPeer() throws Exception {
+        for (String node : NODES) {
+            peers.add(start(node));
+        }
+        UUID videoId = peers.get(0).getBean(VideoRepository.class)
+                .save(Video.builder().title("Replicated").isActive(true).build()).getId();
+
+        ExecutorService writers = Executors.newFixedThreadPool(NODES.size());
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < NODES.size(); i++) {
+            EngagementService engagementService = peers.get(i).getBean(EngagementService.class);
+            int views = 100 * (i + 1);
+            results.add(writers.submit(() -> {
+                for (int n = 0; n < views; n++) {
+                    engagementService.recordImpression(videoId);
+                    engagementService.recordView(videoId);
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        writers.shutdown();
+
+        // Before a flush, a replica only sees its own counts.
+        assertEquals(100, views(peers.get(0), videoId));
+
+        peers.forEach(peer -> peer.getBean(ReplicatedEngagementCounters.class).flush());
+
+        for (ConfigurableApplicationContext peer : peers) {
+            EngagementStats stats = peer.getBean(EngagementService.class).getStats(videoId).orElseThrow();
+            assertEquals(600, stats.getImpressions());
+            assertEquals(600, stats.getViews());
+        }
+        JdbcTemplate jdbcTemplate = peers.get(0).getBean(JdbcTemplate.class);
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM engagement_counter WHERE video_id = ?", Integer.class, videoId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM engagement_stats WHERE video_id = ?", Integer.class, videoId));
+
+        // Listings, metadata and the export merge the counters of every node too.
+        VideoService videoService = peers.get(1).getBean(VideoService.class);
+        assertEquals(600, videoService.listVideos(null, 100, null, null).getItems().stream()
+                .filter(video -> video.getId().equals(videoId)).findFirst().orElseThrow().getViews());
+        assertEquals(600, videoService.getVideoMetadata(videoId).getViews());
+        assertEquals(600, videoService.getVideoMetadata(List.of(videoId)).get(0).getMetadata().getViews());
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        peers.get(2).getBean(CatalogExportService.class).exportCatalog(export);
+        assertTrue(export.toString(StandardCharsets.UTF_8).contains("\"impressions\":600,\"views\":600"),
+                export::toString);
+    }
+
+    /**
+     * Tests whether a restarted replica resumes from its stored totals instead of counting from zero.
+     */
+    @Test
+    void shouldResumeOwnTotalsAfterRestart() {
+        peers.add(start("node-a"));
+        peers.add(start("node-b"));
+        UUID videoId = peers.get(0).getBean(VideoRepository.class)
+                .save(Video.builder().title("Restarted").isActive(true).build()).getId();
+        for (int n = 0; n < 5; n++) {
+            peers.get(0).getBean(EngagementService.class).recordView(videoId);
+        }
+        peers.get(1).getBean(EngagementService.class).recordView(videoId);
+        peers.remove(0).close();
+
+        ConfigurableApplicationContext restarted = start("node-a");
+        peers.add(restarted);
+        restarted.getBean(EngagementService.class).recordView(videoId);
+        restarted.getBean(ReplicatedEngagementCounters.class).flush();
+        peers.get(0).getBean(ReplicatedEngagementCounters.class).flush();
+
+        assertEquals(7, views(restarted, videoId));
+        assertEquals(7, views(peers.get(0), videoId));
+    }
+
+    /**
+     * Tests whether a replica refuses to start with counters enabled but no node identifier, since
+     * replicas sharing a default one would overwrite each other's counts.
+     */
+    @Test
+    void shouldFailStartupWithoutNodeId() {
+        BeanCreationException exception = assertThrows(BeanCreationException.class, () -> start(""));
+        assertTrue(NestedExceptionUtils.getMostSpecificCause(exception).getMessage()
+                .contains("engagement.counters.node-id"));
+    }
+
+    private static long views(ConfigurableApplicationContext peer, UUID videoId) {
+        return peer.getBean(EngagementService.class).getStats(videoId).map(EngagementStats::getViews).orElse(0);
+    }
+
+    private ConfigurableApplicationContext start(String node) {
+        return new SpringApplicationBuilder(StreamApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "--engagement.counters.enabled=true",
+                        "--engagement.counters.node-id=" + node,
+                        "--engagement.counters.flush-interval-ms=3600000",
+                        "--logging.level.root=WARN");
+    }
+}
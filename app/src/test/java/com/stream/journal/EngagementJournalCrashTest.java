@@ -0,0 +1,136 @@
+package com.stream.journal;
+
+import com.stream.StreamApplication;
+import com.stream.model.Video;
+import com.stream.repository.VideoRepository;
+import com.stream.service.EngagementService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Kill-and-restart test of the engagement journal.
+ * <p>
+ * A child JVM runs the application with the journal enabled against a file-based H2 database and
+ * records views from many threads while the applier folds them into the statistics in small
+ * transactions. The child is killed with {@code SIGKILL} in the middle of that, then the
+ * application is restarted in this JVM on the same journal and database. Once the replayed tail
+ * is applied, the stored views must equal the number of records in the journal: every
+ * acknowledged view is counted, and none twice.
+ */
+class EngagementJournalCrashTest {
+    private static final long KILL_AFTER_ACKS = 3_000;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests whether every journaled view is applied exactly once across a crash.
+     */
+    @Test
+    void shouldApplyEveryRecordExactlyOnceAcrossKill() throws Exception {
+        String[] args = arguments(directory);
+
+        List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), Child.class.getName()));
+        command.addAll(List.of(args));
+        Process child = new ProcessBuilder(command).redirectErrorStream(true).start();
+        UUID videoId = null;
+        long acked = 0;
+        StringBuilder log = new StringBuilder();
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(child.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (acked < KILL_AFTER_ACKS && (line = output.readLine()) != null) {
+                if (line.startsWith("VIDEO ")) {
+                    videoId = UUID.fromString(line.substring(6));
+                } else if (line.startsWith("ACKED ")) {
+                    acked = Long.parseLong(line.substring(6));
+                } else {
+                    log.append(line).append('\n');
+                }
+            }
+        } finally {
+            child.destroyForcibly();
+            assertTrue(child.waitFor(30, TimeUnit.SECONDS));
+        }
+        assertTrue(acked >= KILL_AFTER_ACKS, "child stopped before acknowledging enough views:\n" + log);
+
+        try (ConfigurableApplicationContext context = start(args)) {
+            EngagementJournal journal = context.getBean(EngagementJournal.class);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (journal.getAppliedSequence() < journal.getDurableSequence() && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            long journaled = journal.getDurableSequence();
+            Long views = context.getBean(JdbcTemplate.class)
+                    .queryForObject("SELECT views FROM engagement_stats WHERE video_id = ?", Long.class, videoId);
+
+            assertEquals(journaled, journal.getAppliedSequence());
+            assertEquals(journaled, views);
+            assertTrue(views >= acked, "acknowledged views were lost");
+        }
+    }
+
+    private static String[] arguments(Path directory) {
+        return new String[]{
+                "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("db")
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;WRITE_DELAY=0",
+                "--media.storage-dir=" + directory.resolve("media"),
+                "--engagement.journal.enabled=true",
+                "--engagement.journal.dir=" + directory.resolve("journal"),
+                "--engagement.journal.segment-records=1024",
+                "--engagement.journal.apply-batch-size=50",
+                "--engagement.journal.apply-interval-ms=5",
+                "--logging.level.root=WARN"};
+    }
+
+    private static ConfigurableApplicationContext start(String[] args) {
+        return new SpringApplicationBuilder(StreamApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args);
+    }
+
+    /**
+     * The application that gets killed: publishes a video and records views of it until the parent
+     * kills it, reporting the video ID and the number of acknowledged views on standard output.
+     */
+    public static final class Child {
+        public static void main(String[] args) {
+            ConfigurableApplicationContext context = start(args);
+            UUID videoId = context.getBean(VideoRepository.class)
+                    .save(Video.builder().title("Crash").isActive(true).build()).getId();
+            System.out.println("VIDEO " + videoId);
+            EngagementService engagementService = context.getBean(EngagementService.class);
+            AtomicLong acked = new AtomicLong();
+            ExecutorService writers = Executors.newFixedThreadPool(16);
+            for (int i = 0; i < 16; i++) {
+                writers.execute(() -> {
+                    while (true) {
+                        engagementService.recordView(videoId);
+                        long count = acked.incrementAndGet();
+                        if (count % 100 == 0) {
+                            System.out.println("ACKED " + count);
+                            System.out.flush();
+                        }
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.stream.journal;
+
+import com.stream.model.EngagementType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link JournalLog}.
+ */
+class JournalLogTest {
+
+    @TempDir
+    Path directory;
+
+    private final UUID videoId = UUID.randomUUID();
+
+    /**
+     * Tests whether appended records are durable and read back in order after reopening.
+     */
+    @Test
+    void shouldReadBackRecordsAfterReopening() throws IOException {
+        try (JournalLog journal = new JournalLog(directory, 100, 0)) {
+            journal.awaitDurable(journal.append(videoId, EngagementType.VIEW, 1_000));
+            journal.awaitDurable(journal.append(videoId, EngagementType.IMPRESSION, 2_000));
+            assertEquals(2, journal.durableSequence());
+        }
+
+        try (JournalLog journal = new JournalLog(directory, 100, 0)) {
+            assertEquals(2, journal.nextSequence());
+            List<JournalLog.Entry> entries = journal.read(0, 2);
+            assertEquals(new JournalLog.Entry(0, videoId, EngagementType.VIEW, 1_000), entries.get(0));
+            assertEquals(new JournalLog.Entry(1, videoId, EngagementType.IMPRESSION, 2_000), entries.get(1));
+        }
+    }
+
+    /**
+     * Tests whether a record torn by a crash ends the recovered journal and is overwritten.
+     */
+    @Test
+    void shouldDiscardTornTailRecord() throws IOException {
+        try (JournalLog journal = new JournalLog(directory, 100, 0)) {
+            for (int i = 0; i < 3; i++) {
+                journal.awaitDurable(journal.append(videoId, EngagementType.VIEW, i));
+            }
+        }
+        try (RandomAccessFile segment = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            segment.seek(2L * JournalLog.RECORD_SIZE + 5);
+            segment.write(0x7F);
+        }
+
+        try (JournalLog journal = new JournalLog(directory, 100, 0)) {
+            assertEquals(2, journal.nextSequence());
+            assertEquals(2, journal.append(videoId, EngagementType.IMPRESSION, 9));
+        }
+    }
+
+    /**
+     * Tests whether intact records left after a torn one are not replayed after a second crash,
+     * once new appends have overwritten the torn record.
+     */
+    @Test
+    void shouldNotReplayStaleRecordsAfterSecondCrash() throws IOException {
+        try (JournalLog journal = new JournalLog(directory, 100, 0)) {
+            for (int i = 0; i < 5; i++) {
+                journal.awaitDurable(journal.append(videoId, EngagementType.VIEW, i));
+            }
+        }
+        try (RandomAccessFile segment = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            segment.seek(JournalLog.RECORD_SIZE + 5);
+            segment.write(0x7F);
+        }
+        try (JournalLog journal = new JournalLog(directory, 100, 0)) {
+            assertEquals(1, journal.nextSequence());
+            journal.awaitDurable(journal.append(videoId, EngagementType.IMPRESSION, 9));
+        }
+
+        try (JournalLog journal = new JournalLog(directory, 100, 0)) {
+            assertEquals(2, journal.nextSequence());
+            assertEquals(List.of(0L, 9L), journal.read(0, 2).stream().map(JournalLog.Entry::timestamp).toList());
+        }
+    }
+
+    /**
+     * Tests whether full segments are rotated, and deleted once every record in them is applied.
+     */
+    @Test
+    void shouldRotateAndDeleteAppliedSegments() throws IOException {
+        try (JournalLog journal = new JournalLog(directory, 4, 0)) {
+            for (int i = 0; i < 10; i++) {
+                journal.awaitDurable(journal.append(videoId, EngagementType.VIEW, i));
+            }
+            assertEquals(3, segments().size());
+            assertEquals(9, journal.read(0, 10).get(9).timestamp());
+
+            journal.deleteBefore(9);
+
+            assertEquals(1, segments().size());
+            assertEquals(9, journal.read(9, 10).get(0).timestamp());
+        }
+    }
+
+    /**
+     * Tests whether a journal that is behind the checkpoint restarts at the checkpoint.
+     */
+    @Test
+    void shouldStartAtCheckpointWhenJournalIsBehind() throws IOException {
+        try (JournalLog journal = new JournalLog(directory, 4, 0)) {
+            journal.awaitDurable(journal.append(videoId, EngagementType.VIEW, 0));
+        }
+
+        try (JournalLog journal = new JournalLog(directory, 4, 50)) {
+            assertEquals(50, journal.nextSequence());
+            assertEquals(List.of(directory.resolve("00000000000000000050.journal")), segments());
+        }
+    }
+
+    /**
+     * Tests whether concurrent writers share syncs and every record gets a distinct sequence.
+     */
+    @Test
+    void shouldGroupCommitConcurrentAppends() throws Exception {
+        try (JournalLog journal = new JournalLog(directory, 1_000, 0);
+             ExecutorService writers = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = Stream.<Future<?>>generate(() -> writers.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    journal.awaitDurable(journal.append(videoId, EngagementType.VIEW, i));
+                }
+            })).limit(8).toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertEquals(1_600, journal.durableSequence());
+            assertEquals(1_600, journal.read(0, 1_600).stream().map(JournalLog.Entry::sequence).distinct().count());
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.stream.media;
+
+import com.stream.model.MediaSegmentIndex;
+import com.stream.model.Video;
+import com.stream.repository.MediaSegmentIndexRepository;
+import com.stream.service.VideoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test class for {@link HlsPlaylistService}.
+ * <p>
+ * Media files live in a temporary storage directory; the segment index repository is a mock
+ * backed by a map so that persisted indexes survive across service instances.
+ */
+@ExtendWith(MockitoExtension.class)
+class HlsPlaylistServiceTest {
+
+    private static final Pattern SEGMENT = Pattern.compile("#EXTINF:([0-9.]+),\n#EXT-X-BYTERANGE:(\\d+)@(\\d+)\nplay\n");
+
+    @TempDir
+    Path storage;
+
+    @Mock
+    private VideoService videoService;
+
+    @Mock
+    private MediaSegmentIndexRepository segmentIndexRepository;
+
+    private final Map<UUID, MediaSegmentIndex> savedIndexes = new HashMap<>();
+    private UUID videoId;
+
+    @BeforeEach
+    void setUp() {
+        videoId = UUID.randomUUID();
+        lenient().when(segmentIndexRepository.findById(any()))
+                .thenAnswer(invocation -> Optional.ofNullable(savedIndexes.get(invocation.<UUID>getArgument(0))));
+        lenient().when(segmentIndexRepository.save(any())).thenAnswer(invocation -> {
+            MediaSegmentIndex index = invocation.getArgument(0);
+            savedIndexes.put(index.getVideoId(), index);
+            return index;
+        });
+    }
+
+    /**
+     * Tests whether the playlist is a VOD playlist whose byte ranges cover the whole file without gaps
+     * and whose segment durations add up to the running time.
+     */
+    @Test
+    void testPlaylistCoversFile() throws IOException {
+        long size = 1_000_003;
+        givenVideo("movie.mp4", size, "abc", 2);
+
+        String playlist = service().playlist(videoId);
+
+        assertTrue(playlist.startsWith("#EXTM3U\n#EXT-X-VERSION:4\n#EXT-X-PLAYLIST-TYPE:VOD\n#EXT-X-TARGETDURATION:6\n"));
+        assertTrue(playlist.endsWith("#EXT-X-ENDLIST\n"));
+        List<long[]> segments = segments(playlist);
+        assertEquals(20, segments.size());
+        long next = 0;
+        double seconds = 0;
+        for (long[] segment : segments) {
+            assertEquals(next, segment[2]);
+            assertTrue(segment[1] > 0);
+            next = segment[2] + segment[1];
+        }
+        for (Matcher m = SEGMENT.matcher(playlist); m.find(); ) {
+            seconds += Double.parseDouble(m.group(1));
+        }
+        assertEquals(size, next);
+        assertEquals(120, seconds, 0.01);
+    }
+
+    /**
+     * Tests whether segments of an MPEG transport stream start on 188-byte packet boundaries.
+     */
+    @Test
+    void testTransportStreamSegmentsAlignToPackets() throws IOException {
+        long size = 188L * 10_000 + 17;
+        givenVideo("movie.ts", size, "abc", 3);
+
+        List<long[]> segments = segments(service().playlist(videoId));
+
+        assertEquals(30, segments.size());
+        for (long[] segment : segments) {
+            assertEquals(0, segment[2] % HlsPlaylistService.TS_PACKET_SIZE);
+        }
+        long[] last = segments.get(segments.size() - 1);
+        assertEquals(size, last[2] + last[1]);
+    }
+
+    /**
+     * Tests whether a file too small for the planned number of segments gets fewer, non-empty segments.
+     */
+    @Test
+    void testBoundariesOfTinyFile() {
+        long[] boundaries = HlsPlaylistService.boundaries(5, 600_000, 6_000, 1);
+
+        assertArrayEquals(new long[]{0, 1, 2, 3, 4, 5}, boundaries);
+    }
+
+    /**
+     * Tests whether playlists are served from the cache and then from the persisted index
+     * without the media file being present.
+     */
+    @Test
+    void testPlaylistDoesNotReadMediaFileOnceIndexed() throws IOException {
+        givenVideo("movie.mp4", 50_000, "abc", 1);
+        HlsPlaylistService service = service();
+        String playlist = service.playlist(videoId);
+        Files.delete(storage.resolve("movie.mp4"));
+
+        assertEquals(playlist, service.playlist(videoId));
+        assertEquals(playlist, service().playlist(videoId));
+        verify(segmentIndexRepository, times(1)).save(any());
+    }
+
+    /**
+     * Tests whether replacing the media file rebuilds the index from the new file.
+     */
+    @Test
+    void testNewChecksumRebuildsIndex() throws IOException {
+        givenVideo("movie.mp4", 50_000, "abc", 1);
+        HlsPlaylistService service = service();
+        service.playlist(videoId);
+
+        givenVideo("movie.mp4", 80_000, "def", 1);
+        List<long[]> segments = segments(service.playlist(videoId));
+
+        long[] last = segments.get(segments.size() - 1);
+        assertEquals(80_000, last[2] + last[1]);
+        assertEquals("def", savedIndexes.get(videoId).getMediaChecksum());
+        verify(segmentIndexRepository, times(2)).save(any());
+    }
+
+    /**
+     * Tests whether a delisted video or a video without media has no playlist.
+     */
+    @Test
+    void testPlaylistOfUnplayableVideo() {
+        when(videoService.getVideo(videoId)).thenReturn(Optional.of(Video.builder().id(videoId).isActive(false).build()));
+        ResponseStatusException delisted = assertThrows(ResponseStatusException.class, () -> service().playlist(videoId));
+        assertEquals(HttpStatus.NOT_FOUND, delisted.getStatusCode());
+
+        when(videoService.getVideo(videoId)).thenReturn(Optional.of(Video.builder().id(videoId).isActive(true).runningTime(1).build()));
+        ResponseStatusException noMedia = assertThrows(ResponseStatusException.class, () -> service().playlist(videoId));
+        assertEquals(HttpStatus.NOT_FOUND, noMedia.getStatusCode());
+    }
+
+    /**
+     * Tests whether a video without a running time is rejected, since segment durations cannot be estimated.
+     */
+    @Test
+    void testPlaylistWithoutRunningTime() throws IOException {
+        givenVideo("movie.mp4", 50_000, "abc", 0);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> service().playlist(videoId));
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        verifyNoInteractions(segmentIndexRepository);
+    }
+
+    private HlsPlaylistService service() {
+        return new HlsPlaylistService(videoService, new MediaStorage(storage), segmentIndexRepository, 6, 100);
+    }
+
+    private void givenVideo(String mediaPath, long size, String checksum, int runningTime) throws IOException {
+        Files.write(storage.resolve(mediaPath), new byte[(int) size]);
+        when(videoService.getVideo(videoId)).thenReturn(Optional.of(Video.builder()
+                .id(videoId)
+                .isActive(true)
+                .runningTime(runningTime)
+                .mediaPath(mediaPath)
+                .mediaSize(size)
+                .mediaChecksum(checksum)
+                .build()));
+    }
+
+    /**
+     * @return The duration in milliseconds, length and offset of every segment of a playlist.
+     */
+    private static List<long[]> segments(String playlist) {
+        List<long[]> segments = new ArrayList<>();
+        Matcher m = SEGMENT.matcher(playlist);
+        while (m.find()) {
+            segments.add(new long[]{Math.round(Double.parseDouble(m.group(1)) * 1000),
+                    Long.parseLong(m.group(2)), Long.parseLong(m.group(3))});
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,185 @@
+package com.stream.media;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link MediaBlockCache}.
+ * <p>
+ * Blocks are filled by a loader that writes the block number into every byte and counts its calls.
+ */
+class MediaBlockCacheTest {
+
+    private static final int BLOCK_SIZE = 64;
+
+    private final UUID videoId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final MediaBlockCache.BlockLoader loader = (buffer, position) -> {
+        loads.incrementAndGet();
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) (position / BLOCK_SIZE));
+        }
+    };
+
+    /**
+     * Tests whether a block is loaded once and then served from memory, read-only and with its own length.
+     */
+    @Test
+    void shouldLoadOnMissAndServeHits() throws Exception {
+        MediaBlockCache cache = new MediaBlockCache(BLOCK_SIZE, 4 * BLOCK_SIZE, Long.MAX_VALUE);
+
+        assertEquals(7, read(cache, 7, BLOCK_SIZE));
+        try (MediaBlockCache.Block block = cache.acquire(videoId, 1, 7, BLOCK_SIZE, loader)) {
+            ByteBuffer bytes = block.buffer();
+            assertTrue(bytes.isReadOnly());
+            assertTrue(bytes.isDirect());
+            assertEquals(BLOCK_SIZE, bytes.remaining());
+        }
+        try (MediaBlockCache.Block last = cache.acquire(videoId, 1, 8, 10, loader)) {
+            assertEquals(10, last.buffer().remaining());
+        }
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(2, cache.stats().getMisses());
+    }
+
+    /**
+     * Tests whether blocks of another file version are not returned.
+     */
+    @Test
+    void shouldKeyBlocksByVersion() throws Exception {
+        MediaBlockCache cache = new MediaBlockCache(BLOCK_SIZE, 4 * BLOCK_SIZE, Long.MAX_VALUE);
+        read(cache, 0, BLOCK_SIZE);
+        try (MediaBlockCache.Block block = cache.acquire(videoId, 2, 0, BLOCK_SIZE, loader)) {
+            assertNotNull(block);
+        }
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Tests whether the clock hand gives recently used blocks a second chance and evicts an idle one.
+     */
+    @Test
+    void shouldEvictUnreferencedBlockFirst() throws Exception {
+        MediaBlockCache cache = new MediaBlockCache(BLOCK_SIZE, 3 * BLOCK_SIZE, Long.MAX_VALUE);
+        read(cache, 0, BLOCK_SIZE);
+        read(cache, 1, BLOCK_SIZE);
+        read(cache, 2, BLOCK_SIZE);
+        read(cache, 0, BLOCK_SIZE);
+
+        read(cache, 3, BLOCK_SIZE);
+        assertEquals(1, cache.stats().getEvictions());
+        int loaded = loads.get();
+        read(cache, 0, BLOCK_SIZE);
+        assertEquals(loaded, loads.get(), "referenced block 0 was evicted");
+        read(cache, 1, BLOCK_SIZE);
+        assertEquals(loaded + 1, loads.get(), "idle block 1 should have been evicted");
+    }
+
+    /**
+     * Tests whether pinned blocks are never evicted and lookups bypass the cache when every slot is pinned.
+     */
+    @Test
+    void shouldBypassWhenEverySlotIsPinned() throws Exception {
+        MediaBlockCache cache = new MediaBlockCache(BLOCK_SIZE, 2 * BLOCK_SIZE, Long.MAX_VALUE);
+        try (MediaBlockCache.Block first = cache.acquire(videoId, 1, 0, BLOCK_SIZE, loader);
+             MediaBlockCache.Block second = cache.acquire(videoId, 1, 1, BLOCK_SIZE, loader)) {
+            assertNull(cache.acquire(videoId, 1, 2, BLOCK_SIZE, loader));
+            assertEquals(0, first.buffer().get(0));
+            assertEquals(1, second.buffer().get(0));
+        }
+        assertEquals(1, cache.stats().getBypasses());
+        assertEquals(0, cache.stats().getEvictions());
+        assertEquals(2, read(cache, 2, BLOCK_SIZE));
+    }
+
+    /**
+     * Tests whether concurrent misses on the same block share one load.
+     */
+    @Test
+    void shouldShareInFlightLoads() throws Exception {
+        MediaBlockCache cache = new MediaBlockCache(BLOCK_SIZE, 4 * BLOCK_SIZE, Long.MAX_VALUE);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MediaBlockCache.BlockLoader slowLoader = (buffer, position) -> {
+            loading.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            loader.load(buffer, position);
+        };
+        int readers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(readers);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(pool.submit(() -> read(cache, 5, slowLoader)));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < readers; i++) {
+                results.add(pool.submit(() -> read(cache, 5, slowLoader)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(5, result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getMisses());
+        assertEquals(readers - 1, cache.stats().getHits());
+    }
+
+    /**
+     * Tests whether a failed load is reported and does not leave a broken block behind.
+     */
+    @Test
+    void shouldRetryAfterFailedLoad() throws Exception {
+        MediaBlockCache cache = new MediaBlockCache(BLOCK_SIZE, 2 * BLOCK_SIZE, Long.MAX_VALUE);
+        assertThrows(IOException.class, () -> cache.acquire(videoId, 1, 0, BLOCK_SIZE, (buffer, position) -> {
+            throw new IOException("disk error");
+        }));
+        assertThrows(IOException.class, () -> cache.acquire(videoId, 1, 0, BLOCK_SIZE, (buffer, position) -> {
+            // A short read, as if the file had been truncated.
+        }));
+        assertEquals(0, read(cache, 0, BLOCK_SIZE));
+        assertEquals(1, cache.stats().getCachedBlocks());
+    }
+
+    /**
+     * Tests whether only offsets within the configured prefix are cached, and nothing when the capacity is zero.
+     */
+    @Test
+    void shouldOnlyCachePrefix() {
+        MediaBlockCache cache = new MediaBlockCache(BLOCK_SIZE, 4 * BLOCK_SIZE, 1000);
+        assertTrue(cache.caches(999));
+        assertFalse(cache.caches(1000));
+        assertFalse(new MediaBlockCache(BLOCK_SIZE, 0, 1000).caches(0));
+    }
+
+    private int read(MediaBlockCache cache, long blockIndex, int length) throws IOException {
+        try (MediaBlockCache.Block block = cache.acquire(videoId, 1, blockIndex, length, loader)) {
+            return block.buffer().get(0);
+        }
+    }
+
+    private int read(MediaBlockCache cache, long blockIndex, MediaBlockCache.BlockLoader blockLoader) throws IOException {
+        try (MediaBlockCache.Block block = cache.acquire(videoId, 1, blockIndex, BLOCK_SIZE, blockLoader)) {
+            return block.buffer().get(0);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.stream.media;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link MediaStreamer} and {@link MediaStorage}.
+ * <p>
+ * Checks the status, headers and bytes of full, single-range, multi-range and unsatisfiable
+ * requests against a small text file, and that streaming a large file allocates a small,
+ * constant amount of heap regardless of its size.
+ * <p>
+ * The streamer reads the first {@value #CACHED_PREFIX} bytes of a file through a small
+ * {@link MediaBlockCache}, so ranges exercise the cached path, the direct path and both at once.
+ */
+class MediaStreamerTest {
+
+    private static final int FILE_SIZE = 10_000;
+    private static final long LARGE_FILE_SIZE = 64L * 1024 * 1024;
+    private static final long ALLOCATION_BUDGET_BYTES = 512 * 1024;
+    private static final int BLOCK_SIZE = 1024;
+    private static final int CACHED_PREFIX = 4096;
+
+    @TempDir
+    Path storage;
+
+    private final MediaBlockCache blockCache = new MediaBlockCache(BLOCK_SIZE, 8 * BLOCK_SIZE, CACHED_PREFIX);
+    private final MediaStreamer mediaStreamer = new MediaStreamer(blockCache);
+    private final UUID videoId = UUID.randomUUID();
+    private Path file;
+    private String content;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StringBuilder text = new StringBuilder(FILE_SIZE);
+        for (int i = 0; i < FILE_SIZE; i++) {
+            text.append((char) ('a' + i % 26));
+        }
+        content = text.toString();
+        file = storage.resolve("movie.mp4");
+        Files.writeString(file, content, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Tests whether a request without a range gets the whole file with 200 and advertises range support.
+     */
+    @Test
+    void shouldStreamWholeFileWithoutRange() throws Exception {
+        MockHttpServletResponse response = stream("GET", null);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("video/mp4", response.getContentType());
+        assertEquals(FILE_SIZE, response.getContentLengthLong());
+        assertEquals(content, response.getContentAsString());
+    }
+
+    /**
+     * Tests whether bounded, open-ended and suffix ranges return exactly the requested bytes with 206.
+     */
+    @Test
+    void shouldStreamSingleRanges() throws Exception {
+        assertSingleRange("bytes=100-199", 100, 200);
+        assertSingleRange("bytes=9990-", 9990, FILE_SIZE);
+        assertSingleRange("bytes=-250", FILE_SIZE - 250, FILE_SIZE);
+        assertSingleRange("bytes=9000-20000", 9000, FILE_SIZE);
+        assertSingleRange("bytes=0-0", 0, 1);
+        assertSingleRange("bytes=1000-5000", 1000, 5001);
+    }
+
+    /**
+     * Tests whether repeated requests for the opening bytes are answered from the block cache.
+     */
+    @Test
+    void shouldServeRepeatedOpeningRangesFromCache() throws Exception {
+        assertSingleRange("bytes=0-2999", 0, 3000);
+        long misses = blockCache.stats().getMisses();
+        assertSingleRange("bytes=0-2999", 0, 3000);
+        assertSingleRange("bytes=500-1500", 500, 1501);
+
+        assertEquals(3, misses);
+        assertEquals(misses, blockCache.stats().getMisses());
+        assertEquals(5, blockCache.stats().getHits());
+    }
+
+    /**
+     * Tests whether a file replaced under the same path is never served from blocks of its previous version.
+     */
+    @Test
+    void shouldNotServeBlocksOfReplacedFile() throws Exception {
+        assertSingleRange("bytes=0-99", 0, 100);
+        content = content.toUpperCase();
+        Files.writeString(file, content, StandardCharsets.US_ASCII);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(
+                Files.getLastModifiedTime(file).toMillis() + 1000));
+
+        assertSingleRange("bytes=0-99", 0, 100);
+    }
+
+    /**
+     * Tests whether several ranges are returned as a multipart/byteranges body with an exact Content-Length.
+     */
+    @Test
+    void shouldStreamMultipleRangesAsMultipart() throws Exception {
+        MockHttpServletResponse response = stream("GET", "bytes=0-9, 5000-5019, -5");
+
+        assertEquals(206, response.getStatus());
+        String contentType = response.getContentType();
+        assertTrue(contentType.startsWith("multipart/byteranges; boundary="), contentType);
+        String boundary = contentType.substring(contentType.indexOf('=') + 1);
+        String expected = part(boundary, 0, 10) + part(boundary, 5000, 5020) + part(boundary, FILE_SIZE - 5, FILE_SIZE)
+                + "\r\n--" + boundary + "--\r\n";
+        assertEquals(expected, response.getContentAsString());
+        assertEquals(expected.length(), response.getContentLengthLong());
+    }
+
+    /**
+     * Tests whether ranges that cannot be satisfied are rejected with 416 and the file length.
+     */
+    @Test
+    void shouldRejectUnsatisfiableRanges() throws Exception {
+        for (String range : new String[]{"bytes=10000-", "bytes=-0", "bytes=500-100", "items=0-5",
+                "bytes=0-9999, 0-9999"}) {
+            MockHttpServletResponse response = stream("GET", range);
+            assertEquals(416, response.getStatus(), range);
+            assertEquals("bytes */" + FILE_SIZE, response.getHeader(HttpHeaders.CONTENT_RANGE), range);
+            assertEquals(0, response.getContentAsByteArray().length, range);
+        }
+    }
+
+    /**
+     * Tests whether a HEAD request gets the headers of the range without a body.
+     */
+    @Test
+    void shouldOmitBodyForHead() throws Exception {
+        MockHttpServletResponse response = stream("HEAD", "bytes=0-99");
+
+        assertEquals(206, response.getStatus());
+        assertEquals(100, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    /**
+     * Tests whether single ranges past the cached prefix are handed to the container when it supports sendfile,
+     * while ranges within the prefix are still served from the cache.
+     */
+    @Test
+    void shouldDelegateToSendfileWhenSupported() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/videos/x/play");
+        request.addHeader(HttpHeaders.RANGE, "bytes=5000-5099");
+        request.setAttribute(MediaStreamer.SENDFILE_SUPPORT_ATTR, Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        mediaStreamer.stream(videoId, file, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(100, response.getContentLengthLong());
+        assertEquals(file.toFile().getCanonicalPath(), request.getAttribute(MediaStreamer.SENDFILE_FILENAME_ATTR));
+        assertEquals(5000L, request.getAttribute(MediaStreamer.SENDFILE_START_ATTR));
+        assertEquals(5100L, request.getAttribute(MediaStreamer.SENDFILE_END_ATTR));
+        assertEquals(0, response.getContentAsByteArray().length);
+
+        MockHttpServletRequest cached = new MockHttpServletRequest("GET", "/videos/x/play");
+        cached.addHeader(HttpHeaders.RANGE, "bytes=100-199");
+        cached.setAttribute(MediaStreamer.SENDFILE_SUPPORT_ATTR, Boolean.TRUE);
+        MockHttpServletResponse cachedResponse = new MockHttpServletResponse();
+        mediaStreamer.stream(videoId, file, cached, cachedResponse);
+
+        assertNull(cached.getAttribute(MediaStreamer.SENDFILE_FILENAME_ATTR));
+        assertEquals(content.substring(100, 200), cachedResponse.getContentAsString());
+    }
+
+    /**
+     * Tests whether streaming a large file, whole or as a range, allocates a small fixed amount of heap,
+     * i.e. that file bytes are not copied through heap buffers sized by the request.
+     */
+    @Test
+    void shouldStreamLargeFileWithoutHeapCopies() throws Exception {
+        Path large = storage.resolve("large.mp4");
+        try (RandomAccessFile raf = new RandomAccessFile(large.toFile(), "rw")) {
+            raf.setLength(LARGE_FILE_SIZE);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        MediaStreamer streamer = new MediaStreamer(new MediaBlockCache(256 * 1024, 4L * 1024 * 1024, 16L * 1024 * 1024));
+
+        streamDiscarding(streamer, large, null);
+        long before = threads.getThreadAllocatedBytes(threadId);
+        DiscardingResponse whole = streamDiscarding(streamer, large, null);
+        long wholeAllocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        before = threads.getThreadAllocatedBytes(threadId);
+        DiscardingResponse range = streamDiscarding(streamer, large, "bytes=1000000-");
+        long rangeAllocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(LARGE_FILE_SIZE, whole.written);
+        assertEquals(LARGE_FILE_SIZE - 1_000_000, range.written);
+        assertTrue(wholeAllocated < ALLOCATION_BUDGET_BYTES, "allocated " + wholeAllocated + " bytes");
+        assertTrue(rangeAllocated < ALLOCATION_BUDGET_BYTES, "allocated " + rangeAllocated + " bytes");
+    }
+
+    /**
+     * Tests whether media paths are resolved inside the storage directory only.
+     */
+    @Test
+    void shouldLocateMediaInsideStorageOnly() throws Exception {
+        Files.writeString(storage.getParent().resolve("outside.mp4"), "secret");
+        MediaStorage mediaStorage = new MediaStorage(storage);
+
+        assertEquals(file, mediaStorage.locate("movie.mp4").orElseThrow());
+        assertTrue(mediaStorage.locate("../outside.mp4").isEmpty());
+        assertTrue(mediaStorage.locate("missing.mp4").isEmpty());
+        assertTrue(mediaStorage.locate(null).isEmpty());
+        assertTrue(mediaStorage.locate(".").isEmpty());
+    }
+
+    private void assertSingleRange(String range, int start, int end) throws Exception {
+        MockHttpServletResponse response = stream("GET", range);
+        assertEquals(206, response.getStatus(), range);
+        assertEquals("bytes " + start + "-" + (end - 1) + "/" + FILE_SIZE, response.getHeader(HttpHeaders.CONTENT_RANGE), range);
+        assertEquals(end - start, response.getContentLengthLong(), range);
+        assertEquals(content.substring(start, end), response.getContentAsString(), range);
+    }
+
+    private String part(String boundary, int start, int end) {
+        return "\r\n--" + boundary + "\r\nContent-Type: video/mp4\r\nContent-Range: bytes " + start + "-" + (end - 1)
+                + "/" + FILE_SIZE + "\r\n\r\n" + content.substring(start, end);
+    }
+
+    private MockHttpServletResponse stream(String method, String range) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/videos/x/play");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        mediaStreamer.stream(videoId, file, request, response);
+        return response;
+    }
+
+    private DiscardingResponse streamDiscarding(MediaStreamer streamer, Path media, String range) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/videos/x/play");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        DiscardingResponse response = new DiscardingResponse();
+        streamer.stream(videoId, media, request, response);
+        return response;
+    }
+
+    /**
+     * Response whose body is counted and dropped, like a socket, instead of being buffered on the heap.
+     */
+    private static final class DiscardingResponse extends MockHttpServletResponse {
+        private long written;
+
+        private final ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                written++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written += len;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.stream.media;
+
+import com.stream.dto.UploadInitRequestDTO;
+import com.stream.dto.UploadStatusDTO;
+import com.stream.model.Video;
+import com.stream.service.VideoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test class for {@link MediaUploadService}.
+ * <p>
+ * Uploads files into a temporary storage directory, with a mocked {@link VideoService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class MediaUploadServiceTest {
+
+    private static final int CHUNK_SIZE = MediaUploadService.MIN_CHUNK_SIZE;
+
+    @TempDir
+    Path storage;
+
+    @Mock
+    private VideoService videoService;
+
+    private MediaUploadService mediaUploadService;
+    private UUID videoId;
+
+    @BeforeEach
+    void setUp() {
+        videoId = UUID.randomUUID();
+        mediaUploadService = new MediaUploadService(new MediaStorage(storage), videoService, 1L << 30, 60);
+        lenient().when(videoService.getVideo(videoId)).thenReturn(Optional.of(Video.builder().id(videoId).build()));
+    }
+
+    /**
+     * Tests whether chunks sent in parallel and out of order reassemble the original file,
+     * which is then verified and linked to the video.
+     */
+    @Test
+    void shouldAssembleChunksSentInParallelOutOfOrder() throws Exception {
+        byte[] media = randomBytes(12 * CHUNK_SIZE + 1234);
+        UploadStatusDTO upload = mediaUploadService.initiate(videoId, new UploadInitRequestDTO(media.length, CHUNK_SIZE, "Movie.MP4"));
+        assertEquals(13, upload.getChunkCount());
+        assertEquals(13, upload.getMissingChunks().size());
+
+        List<Integer> order = new ArrayList<>(upload.getMissingChunks());
+        Collections.shuffle(order, new Random(7));
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> sent = new ArrayList<>();
+            for (int index : order) {
+                sent.add(pool.submit(() -> {
+                    sendChunk(upload.getUploadId(), index, media);
+                    return null;
+                }));
+            }
+            for (Future<?> future : sent) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(mediaUploadService.status(videoId, upload.getUploadId()).getMissingChunks().isEmpty());
+        String checksum = compositeChecksum(media);
+        UploadStatusDTO completed = mediaUploadService.complete(videoId, upload.getUploadId(), checksum);
+
+        assertTrue(completed.isCompleted());
+        Path stored = storage.resolve(videoId + ".mp4");
+        assertArrayEquals(media, Files.readAllBytes(stored));
+        verify(videoService).attachMedia(videoId, videoId + ".mp4", media.length, checksum);
+        assertThrows(ResponseStatusException.class, () -> mediaUploadService.status(videoId, upload.getUploadId()));
+    }
+
+    /**
+     * Tests whether an interrupted chunk stays missing and can be resent, and whether the upload
+     * can only complete once every chunk has arrived and the checksum matches.
+     */
+    @Test
+    void shouldResumeAfterFailedChunkAndVerifyChecksum() throws Exception {
+        byte[] media = randomBytes(3 * CHUNK_SIZE);
+        UUID uploadId = mediaUploadService.initiate(videoId, new UploadInitRequestDTO(media.length, CHUNK_SIZE, null)).getUploadId();
+        sendChunk(uploadId, 0, media);
+        sendChunk(uploadId, 2, media);
+
+        ResponseStatusException truncated = assertThrows(ResponseStatusException.class, () -> mediaUploadService.writeChunk(
+                videoId, uploadId, 1, null, -1, new ByteArrayInputStream(media, CHUNK_SIZE, 1000)));
+        assertEquals(HttpStatus.BAD_REQUEST, truncated.getStatusCode());
+        assertEquals(List.of(1), mediaUploadService.status(videoId, uploadId).getMissingChunks());
+        assertEquals(HttpStatus.CONFLICT, assertThrows(ResponseStatusException.class,
+                () -> mediaUploadService.complete(videoId, uploadId, compositeChecksum(media))).getStatusCode());
+
+        sendChunk(uploadId, 1, media);
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+                () -> mediaUploadService.complete(videoId, uploadId, "00")).getStatusCode());
+        verify(videoService, never()).attachMedia(any(), any(), anyLong(), any());
+
+        mediaUploadService.complete(videoId, uploadId, compositeChecksum(media));
+        assertArrayEquals(media, Files.readAllBytes(storage.resolve(videoId.toString())));
+    }
+
+    /**
+     * Tests whether chunks with a wrong index, offset or declared length are rejected.
+     */
+    @Test
+    void shouldRejectMisplacedChunks() throws Exception {
+        UUID uploadId = mediaUploadService.initiate(videoId, new UploadInitRequestDTO(2L * CHUNK_SIZE, CHUNK_SIZE, null)).getUploadId();
+        InputStream empty = InputStream.nullInputStream();
+
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+                () -> mediaUploadService.writeChunk(videoId, uploadId, 2, null, CHUNK_SIZE, empty)).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+                () -> mediaUploadService.writeChunk(videoId, uploadId, 1, 0L, CHUNK_SIZE, empty)).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+                () -> mediaUploadService.writeChunk(videoId, uploadId, 1, null, CHUNK_SIZE + 1, empty)).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, assertThrows(ResponseStatusException.class,
+                () -> mediaUploadService.writeChunk(UUID.randomUUID(), uploadId, 0, null, CHUNK_SIZE, empty)).getStatusCode());
+    }
+
+    /**
+     * Tests whether uploads cannot be started for unknown videos or with invalid sizes.
+     */
+    @Test
+    void shouldRejectInvalidUploads() {
+        UUID unknown = UUID.randomUUID();
+        when(videoService.getVideo(unknown)).thenReturn(Optional.empty());
+
+        assertEquals(HttpStatus.NOT_FOUND, assertThrows(ResponseStatusException.class,
+                () -> mediaUploadService.initiate(unknown, new UploadInitRequestDTO(10, null, null))).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+                () -> mediaUploadService.initiate(videoId, new UploadInitRequestDTO(0, null, null))).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+                () -> mediaUploadService.initiate(videoId, new UploadInitRequestDTO(10, 1, null))).getStatusCode());
+    }
+
+    /**
+     * Tests whether aborting an upload deletes its partial file.
+     */
+    @Test
+    void shouldDeletePartialFileOnAbort() throws Exception {
+        UUID uploadId = mediaUploadService.initiate(videoId, new UploadInitRequestDTO(CHUNK_SIZE, null, null)).getUploadId();
+        Path parts = storage.resolve(".uploads");
+        assertEquals(1, Files.list(parts).count());
+
+        mediaUploadService.abort(videoId, uploadId);
+
+        assertEquals(0, Files.list(parts).count());
+    }
+
+    /**
+     * Tests whether a large chunk is streamed to disk with a small fixed heap allocation.
+     */
+    @Test
+    void shouldStreamLargeChunkWithoutBufferingIt() throws Exception {
+        int chunkSize = MediaUploadService.MAX_CHUNK_SIZE;
+        UUID uploadId = mediaUploadService.initiate(videoId, new UploadInitRequestDTO(chunkSize, chunkSize, null)).getUploadId();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        mediaUploadService.writeChunk(videoId, uploadId, 0, 0L, chunkSize, new PatternInputStream(chunkSize));
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(allocated < 1024 * 1024, "allocated " + allocated + " bytes");
+        assertTrue(mediaUploadService.status(videoId, uploadId).getMissingChunks().isEmpty());
+    }
+
+    private void sendChunk(UUID uploadId, int index, byte[] media) throws Exception {
+        int from = index * CHUNK_SIZE;
+        int to = Math.min(media.length, from + CHUNK_SIZE);
+        mediaUploadService.writeChunk(videoId, uploadId, index, (long) from, to - from,
+                new ByteArrayInputStream(media, from, to - from));
+    }
+
+    private static String compositeChecksum(byte[] media) throws Exception {
+        MessageDigest composite = MessageDigest.getInstance("SHA-256");
+        for (int from = 0; from < media.length; from += CHUNK_SIZE) {
+            byte[] chunk = Arrays.copyOfRange(media, from, Math.min(media.length, from + CHUNK_SIZE));
+            composite.update(MessageDigest.getInstance("SHA-256").digest(chunk));
+        }
+        return HexFormat.of().formatHex(composite.digest());
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Generates a fixed number of bytes without holding them in memory.
+     */
+    private static final class PatternInputStream extends InputStream {
+        private long remaining;
+
+        PatternInputStream(long length) {
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() {
+            return remaining-- > 0 ? (int) (remaining & 0x7f) : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = (int) Math.min(length, remaining);
+            Arrays.fill(buffer, offset, offset + count, (byte) remaining);
+            remaining -= count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.stream.metrics;
+
+import com.stream.model.Video;
+import com.stream.repository.VideoRepository;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for the metrics published on {@code /actuator/prometheus}.
+ * <p>
+ * Sends requests through the servlet filters that record them and checks the scrape output.
+ */
+@SpringBootTest
+class PrometheusEndpointTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private StatementMetricsFilter statementMetricsFilter;
+
+    private MockMvc mockMvc;
+    private UUID videoId;
+
+    @BeforeEach
+    void setUp() {
+        Filter observationFilter = context.getBeansOfType(FilterRegistrationBean.class).values().stream()
+                .map(FilterRegistrationBean::getFilter)
+                .filter(ServerHttpObservationFilter.class::isInstance)
+                .findFirst()
+                .orElseThrow();
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(observationFilter, statementMetricsFilter)
+                .build();
+        videoId = videoRepository.save(Video.builder().title("Metered").runningTime(90).isActive(true).build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        videoRepository.deleteById(videoId);
+    }
+
+    /**
+     * Tests whether endpoint latency histograms, service timers, per-request statement counts,
+     * connection pool and Hibernate statistics are all exposed for scraping.
+     */
+    @Test
+    void shouldExposeHotPathMetrics() throws Exception {
+        mockMvc.perform(get("/videos/{id}/metadata", videoId)).andExpect(status().isOk());
+        mockMvc.perform(post("/engagement/{id}/view", videoId)).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "endpoint latency histogram");
+        assertMetric(scrape, "http_server_requests_seconds_count", "uri=\"/engagement/{videoId}/view\"");
+        assertMetric(scrape, "video_service_seconds_count", "method=\"getVideoMetadata\"");
+        assertMetric(scrape, "engagement_service_seconds_count", "method=\"recordView\"");
+        assertEquals(1.0, value(scrape, "http_server_requests_db_statements_sum", "uri=\"/videos/{videoId}/metadata\""),
+                "one statement for the metadata lookup");
+        assertMetric(scrape, "http_server_requests_db_statements_count",
+                "exception=\"none\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/videos/{videoId}/metadata\"");
+        assertMetric(scrape, "hikaricp_connections_pending", "pool=");
+        assertMetric(scrape, "hikaricp_connections_active", "pool=");
+        assertMetric(scrape, "hibernate_sessions_open_total", "entityManagerFactory=");
+        assertMetric(scrape, "hibernate_query_executions_total", "entityManagerFactory=");
+    }
+
+    /**
+     * Tests whether the statement count of a failed request carries the same status, outcome and
+     * exception tags as its {@code http.server.requests} timer.
+     */
+    @Test
+    void shouldTagStatementCountsLikeRequestTimer() throws Exception {
+        mockMvc.perform(get("/videos/{id}/metadata", UUID.randomUUID())).andExpect(status().isNotFound());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus")).andReturn().getResponse().getContentAsString();
+
+        String tags = "exception=\"none\",method=\"GET\",outcome=\"CLIENT_ERROR\",status=\"404\","
+                + "uri=\"/videos/{videoId}/metadata\"";
+        assertMetric(scrape, "http_server_requests_seconds_count", tags);
+        assertMetric(scrape, "http_server_requests_db_statements_count", tags);
+    }
+
+    /**
+     * Tests whether the statements of the streamed export, which run after the request thread has
+     * returned, are counted once for the whole request.
+     */
+    @Test
+    void shouldCountStatementsOfStreamedExport() throws Exception {
+        String label = "uri=\"/videos/export\"";
+        String before = mockMvc.perform(get("/actuator/prometheus")).andReturn().getResponse().getContentAsString();
+        double countBefore = orZero(value(before, "http_server_requests_db_statements_count", label));
+        double sumBefore = orZero(value(before, "http_server_requests_db_statements_sum", label));
+
+        MvcResult export = mockMvc.perform(get("/videos/export")).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus")).andReturn().getResponse().getContentAsString();
+        assertEquals(countBefore + 1, value(scrape, "http_server_requests_db_statements_count", label));
+        assertTrue(value(scrape, "http_server_requests_db_statements_sum", label) >= sumBefore + 1,
+                "the catalog query runs on the export thread");
+    }
+
+    private static double orZero(Double value) {
+        return value == null ? 0 : value;
+    }
+
+    private static void assertMetric(String scrape, String name, String label) {
+        assertNotNull(value(scrape, name, label), name + " with " + label + " missing from:\n" + scrape);
+    }
+
+    private static Double value(String scrape, String name, String label) {
+        Matcher line = Pattern.compile("(?m)^" + Pattern.quote(name) + "\\{(.*)\\} (\\S+)$").matcher(scrape);
+        while (line.find()) {
+            if (line.group(1).contains(label)) {
+                return Double.parseDouble(line.group(2));
+            }
+        }
+        return null;
+    }
+}
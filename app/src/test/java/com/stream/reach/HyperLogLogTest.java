@@ -0,0 +1,79 @@
+package com.stream.reach;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link HyperLogLog}.
+ */
+class HyperLogLogTest {
+
+    /**
+     * Tests whether estimates stay within three standard errors across small and large cardinalities.
+     */
+    @Test
+    void shouldEstimateWithinBoundedError() {
+        for (int distinct : new int[]{10, 1_000, 10_000, 1_000_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (int i = 0; i < distinct; i++) {
+                sketch.add(HyperLogLog.hash("viewer-" + i));
+            }
+            assertEquals(distinct, sketch.estimate(), Math.max(1, distinct * 3 * HyperLogLog.standardError()),
+                    "estimate for " + distinct + " viewers");
+        }
+    }
+
+    /**
+     * Tests whether repeated viewers are only counted once.
+     */
+    @Test
+    void shouldIgnoreRepeatedViewers() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add(HyperLogLog.hash("viewer-" + i % 100));
+        }
+        assertEquals(100, sketch.estimate(), 3);
+    }
+
+    /**
+     * Tests whether merging two sketches equals the sketch of the union of their viewers.
+     */
+    @Test
+    void shouldMergeIntoUnion() {
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        HyperLogLog both = new HyperLogLog();
+        for (int i = 0; i < 50_000; i++) {
+            long hash = HyperLogLog.hash("viewer-" + i);
+            (i < 30_000 ? monday : tuesday).add(hash);
+            if (i >= 20_000 && i < 30_000) {
+                tuesday.add(hash);
+            }
+            both.add(hash);
+        }
+
+        monday.merge(tuesday);
+
+        assertArrayEquals(both.toBytes(), monday.toBytes());
+        assertEquals(50_000, monday.estimate(), 50_000 * 3 * HyperLogLog.standardError());
+    }
+
+    /**
+     * Tests whether a sketch survives serialization unchanged and in a few KB.
+     */
+    @Test
+    void shouldRoundTripThroughBytes() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(HyperLogLog.hash("viewer-" + i));
+        }
+
+        byte[] bytes = sketch.toBytes();
+
+        assertEquals(3073, bytes.length);
+        HyperLogLog copy = HyperLogLog.fromBytes(bytes);
+        assertEquals(sketch.estimate(), copy.estimate());
+        assertArrayEquals(bytes, copy.toBytes());
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[16]));
+    }
+}
@@ -0,0 +1,106 @@
+package com.stream.reach;
+
+import com.stream.dto.ReachDTO;
+import com.stream.model.EngagementType;
+import com.stream.model.ViewerSketch;
+import com.stream.repository.ViewerSketchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test class for {@link ReachService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReachServiceTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 7);
+
+    @Mock
+    private ViewerSketchRepository viewerSketchRepository;
+
+    private ReachService reachService;
+    private UUID videoId;
+
+    @BeforeEach
+    void setUp() {
+        reachService = new ReachService(viewerSketchRepository,
+                Clock.fixed(Instant.parse("2026-03-07T10:00:00Z"), ZoneOffset.UTC), 60_000);
+        videoId = UUID.randomUUID();
+    }
+
+    /**
+     * Tests whether a flush merges one sketch per video, type and day, and skips anonymous events.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFlushOneSketchPerVideoTypeAndDay() {
+        for (int i = 0; i < 500; i++) {
+            reachService.record(videoId, EngagementType.VIEW, "viewer-" + i % 50);
+        }
+        reachService.record(videoId, EngagementType.IMPRESSION, "viewer-1");
+        reachService.record(videoId, EngagementType.IMPRESSION, null);
+        reachService.record(videoId, EngagementType.IMPRESSION, " ");
+        when(viewerSketchRepository.mergeAll(anyMap())).thenReturn(Set.of());
+
+        reachService.flush();
+
+        ArgumentCaptor<Map<ViewerSketch.Key, byte[]>> sketches = ArgumentCaptor.forClass(Map.class);
+        verify(viewerSketchRepository).mergeAll(sketches.capture());
+        assertEquals(2, sketches.getValue().size());
+        byte[] views = sketches.getValue().get(new ViewerSketch.Key(videoId, EngagementType.VIEW, TODAY));
+        assertEquals(50, HyperLogLog.fromBytes(views).estimate(), 2);
+
+        reachService.flush();
+        verifyNoMoreInteractions(viewerSketchRepository);
+    }
+
+    /**
+     * Tests whether reach merges the stored daily sketches with viewers not flushed yet.
+     */
+    @Test
+    void shouldMergeStoredAndPendingViewers() {
+        HyperLogLog yesterday = new HyperLogLog();
+        for (int i = 0; i < 1_000; i++) {
+            yesterday.add(HyperLogLog.hash("viewer-" + i));
+        }
+        when(viewerSketchRepository.findByVideoIdAndDayGreaterThanEqual(videoId, TODAY.minusDays(6))).thenReturn(List.of(
+                new ViewerSketch(videoId, EngagementType.VIEW, TODAY.minusDays(1), yesterday.toBytes())));
+        for (int i = 500; i < 1_500; i++) {
+            reachService.record(videoId, EngagementType.VIEW, "viewer-" + i);
+        }
+
+        ReachDTO reach = reachService.reach(videoId, 7);
+
+        assertEquals(1_500, reach.getUniqueViewers(), 1_500 * 3 * HyperLogLog.standardError());
+        assertEquals(0, reach.getReach());
+        assertEquals(7, reach.getDays());
+    }
+
+    /**
+     * Tests whether viewers are retried after a failed flush.
+     */
+    @Test
+    void shouldRetryViewersAfterFailedFlush() {
+        reachService.record(videoId, EngagementType.VIEW, "viewer");
+        when(viewerSketchRepository.mergeAll(anyMap())).thenThrow(new IllegalStateException("down")).thenReturn(Set.of());
+
+        assertThrows(IllegalStateException.class, reachService::flush);
+        reachService.flush();
+
+        verify(viewerSketchRepository, times(2)).mergeAll(argThat(sketches -> sketches.size() == 1));
+    }
+}
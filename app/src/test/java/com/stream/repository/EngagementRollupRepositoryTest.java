@@ -0,0 +1,67 @@
+package com.stream.repository;
+
+import com.stream.model.EngagementRollup;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for {@link EngagementRollupRepository} against the embedded H2 database.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EngagementRollupRepositoryTest {
+
+    @Autowired
+    private EngagementRollupRepository engagementRollupRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    /**
+     * Tests whether batched additions create missing rollups and add to existing ones.
+     */
+    @Test
+    void testAddAllCreatesAndIncrements() {
+        UUID videoId = UUID.randomUUID();
+        EngagementRollup.Key minute = new EngagementRollup.Key(videoId, 1, 60_000);
+        EngagementRollup.Key hour = new EngagementRollup.Key(videoId, 60, 0);
+
+        engagementRollupRepository.addAll(Map.of(minute, new long[]{2, 5}));
+        engagementRollupRepository.addAll(Map.of(minute, new long[]{1, 1}, hour, new long[]{3, 6}));
+        entityManager.clear();
+
+        EngagementRollup minuteRollup = engagementRollupRepository.findById(minute).orElseThrow();
+        assertEquals(3, minuteRollup.getViews());
+        assertEquals(6, minuteRollup.getImpressions());
+        assertEquals(3, engagementRollupRepository.findById(hour).orElseThrow().getViews());
+    }
+
+    /**
+     * Tests whether streaming and pruning select rollups by bucket start.
+     */
+    @Test
+    void testStreamSinceAndDeleteOlderThan() {
+        UUID videoId = UUID.randomUUID();
+        engagementRollupRepository.addAll(Map.of(
+                new EngagementRollup.Key(videoId, 1, 1_000), new long[]{1, 0},
+                new EngagementRollup.Key(videoId, 1, 5_000), new long[]{2, 0},
+                new EngagementRollup.Key(videoId, 60, 1_000), new long[]{3, 0}));
+
+        try (Stream<EngagementRollupRow> rows = engagementRollupRepository.streamSince(2_000)) {
+            List<EngagementRollupRow> recent = rows.toList();
+            assertEquals(1, recent.size());
+            assertEquals(2, recent.get(0).getViews());
+        }
+
+        assertEquals(1, engagementRollupRepository.deleteOlderThan(1, 2_000));
+        assertEquals(2, engagementRollupRepository.count());
+    }
+}
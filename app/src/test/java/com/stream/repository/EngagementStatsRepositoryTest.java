@@ -0,0 +1,172 @@
+package com.stream.repository;
+
+import com.stream.model.EngagementStats;
+import com.stream.model.Video;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the atomic increment path of {@link EngagementStatsRepository}.
+ * <p>
+ * Runs against the embedded H2 database and hammers a single hot video from many threads,
+ * contrasting the legacy read-modify-write path with the single-statement increment. The throughput
+ * of both paths is compared by {@code EngagementBenchmark} in the {@code benchmarks} module.
+ */
+@SpringBootTest
+class EngagementStatsRepositoryTest {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTS_PER_THREAD = 100;
+
+    @Autowired
+    private EngagementStatsRepository engagementStatsRepository;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<UUID> published = new ArrayList<>();
+
+    /**
+     * Removes the videos published by a test so that they do not leak into other tests sharing the database.
+     */
+    @AfterEach
+    void tearDown() {
+        engagementStatsRepository.deleteAll(engagementStatsRepository.findByVideoIdIn(published));
+        videoRepository.deleteAllById(published);
+    }
+
+    /**
+     * Tests whether N concurrent increments for the same video yield exactly N,
+     * including the race to create the record for a video that has none yet.
+     */
+    @Test
+    void shouldNotLoseConcurrentIncrements() throws Exception {
+        UUID videoId = publishVideo();
+
+        runConcurrently(() -> engagementStatsRepository.increment(videoId, 1, 0));
+
+        EngagementStats stats = engagementStatsRepository.findByVideoId(videoId).orElseThrow();
+        assertEquals(THREADS * INCREMENTS_PER_THREAD, stats.getImpressions());
+        assertEquals(videoId, stats.getVideoId());
+        assertEquals(1, engagementStatsRepository.findByVideoIdIn(List.of(videoId)).size());
+    }
+
+    /**
+     * Tests whether the legacy read-modify-write path never counts more than was attempted;
+     * unlike the atomic increment, it is expected to lose updates.
+     */
+    @Test
+    void shouldNotOvercountOnLegacyReadModifyWrite() throws Exception {
+        UUID videoId = publishVideo();
+        engagementStatsRepository.increment(videoId, 0, 0);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        runConcurrently(() -> transactionTemplate.executeWithoutResult(status -> {
+            EngagementStats stats = engagementStatsRepository.findByVideoId(videoId).orElseThrow();
+            stats.incrementImpressions();
+            engagementStatsRepository.save(stats);
+        }));
+
+        int counted = engagementStatsRepository.findByVideoId(videoId).orElseThrow().getImpressions();
+        assertTrue(counted > 0);
+        assertTrue(counted <= THREADS * INCREMENTS_PER_THREAD);
+    }
+
+    /**
+     * Tests whether increments for an unknown video are refused without creating an orphan record.
+     */
+    @Test
+    void shouldNotCreateRecordForUnknownVideo() {
+        UUID videoId = UUID.randomUUID();
+        assertFalse(engagementStatsRepository.increment(videoId, 1, 0));
+        assertTrue(engagementStatsRepository.findByVideoId(videoId).isEmpty());
+    }
+
+    /**
+     * Tests whether batched increments update existing records, create missing ones
+     * and report unknown videos.
+     */
+    @Test
+    void shouldApplyBatchedIncrements() {
+        UUID existing = publishVideo();
+        UUID fresh = publishVideo();
+        UUID unknown = UUID.randomUUID();
+        engagementStatsRepository.increment(existing, 1, 1);
+
+        Set<UUID> missing = engagementStatsRepository.incrementAll(Map.of(
+                existing, new long[]{2, 3},
+                fresh, new long[]{0, 4},
+                unknown, new long[]{1, 0}));
+
+        assertEquals(Set.of(unknown), missing);
+        EngagementStats existingStats = engagementStatsRepository.findByVideoId(existing).orElseThrow();
+        assertEquals(3, existingStats.getImpressions());
+        assertEquals(4, existingStats.getViews());
+        assertEquals(4, engagementStatsRepository.findByVideoId(fresh).orElseThrow().getViews());
+    }
+
+    /**
+     * Tests whether deltas beyond the range of the counters saturate them instead of failing the
+     * batch, and whether the other videos of the batch are still updated.
+     */
+    @Test
+    void shouldSaturateCountersInsteadOfOverflowing() {
+        UUID hot = publishVideo();
+        UUID other = publishVideo();
+        engagementStatsRepository.increment(hot, 5, 5);
+
+        Set<UUID> missing = engagementStatsRepository.incrementAll(Map.of(
+                hot, new long[]{200_000L * 100_000, Integer.MAX_VALUE},
+                other, new long[]{1, 2}));
+        assertTrue(engagementStatsRepository.increment(hot, 1, 1));
+
+        assertEquals(Set.of(), missing);
+        EngagementStats hotStats = engagementStatsRepository.findByVideoId(hot).orElseThrow();
+        assertEquals(Integer.MAX_VALUE, hotStats.getImpressions());
+        assertEquals(Integer.MAX_VALUE, hotStats.getViews());
+        assertEquals(2, engagementStatsRepository.findByVideoId(other).orElseThrow().getViews());
+    }
+
+    private UUID publishVideo() {
+        UUID videoId = videoRepository.save(Video.builder().title("Hot title").isActive(true).build()).getId();
+        published.add(videoId);
+        return videoId;
+    }
+
+    private void runConcurrently(Runnable increment) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(() -> {
+                for (int j = 0; j < INCREMENTS_PER_THREAD; j++) {
+                    increment.run();
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
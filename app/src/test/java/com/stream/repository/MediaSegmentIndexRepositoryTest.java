@@ -0,0 +1,54 @@
+package com.stream.repository;
+
+import com.stream.model.MediaSegmentIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for {@link MediaSegmentIndexRepository} against the embedded H2 database.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MediaSegmentIndexRepositoryTest {
+
+    @Autowired
+    private MediaSegmentIndexRepository segmentIndexRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    /**
+     * Tests whether the boundaries of a feature-length video survive a round trip through the database.
+     */
+    @Test
+    void testBoundariesRoundTrip() {
+        UUID videoId = UUID.randomUUID();
+        long[] offsets = new long[1201];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = i * 3_000_000L;
+        }
+        segmentIndexRepository.save(MediaSegmentIndex.builder()
+                .videoId(videoId)
+                .mediaPath(videoId + ".mp4")
+                .mediaChecksum("abc")
+                .mediaSize(offsets[1200])
+                .runningTime(120)
+                .segmentDurationMillis(6000)
+                .boundaries(MediaSegmentIndex.pack(offsets))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        MediaSegmentIndex index = segmentIndexRepository.findById(videoId).orElseThrow();
+
+        assertEquals(1200, index.segmentCount());
+        for (int i = 0; i < offsets.length; i++) {
+            assertEquals(offsets[i], index.boundary(i));
+        }
+    }
+}
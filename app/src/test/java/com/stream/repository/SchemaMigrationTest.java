@@ -0,0 +1,105 @@
+package com.stream.repository;
+
+import org.flywaydb.core.Flyway;
+import org.h2.Driver;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test of the Flyway migrations against the embedded H2 database.
+ * <p>
+ * Checks the query plans of the hot queries, so that a migration dropping or reshaping one of
+ * their indexes fails the build instead of turning them into table scans.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Tests whether the shared and the H2-specific migrations have been applied.
+     */
+    @Test
+    void shouldApplyEveryMigration() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" AND \"version\" IS NOT NULL "
+                        + "ORDER BY \"installed_rank\"", String.class);
+        assertTrue(versions.containsAll(List.of("1", "2", "3", "4")), "applied migrations: " + versions);
+    }
+
+    /**
+     * Tests whether a database created by {@code ddl-auto=update} from the original entities is
+     * adopted: the media columns are added, duplicate statistics rows are folded into one and the
+     * unique and foreign key constraints on {@code video_id} are added.
+     */
+    @Test
+    void shouldAdoptSchemaCreatedFromBaselineEntities() {
+        SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new Driver(), "jdbc:h2:mem:baseline_"
+                + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate baseline = new JdbcTemplate(dataSource);
+        // The tables as Hibernate generated them from the entities before schema migrations existed.
+        baseline.execute("CREATE TABLE video (id UUID NOT NULL, title VARCHAR(255), synopsis VARCHAR(255), "
+                + "director VARCHAR(255), video_cast VARCHAR(255), year_of_release INTEGER NOT NULL, "
+                + "genre VARCHAR(255), running_time INTEGER NOT NULL, is_active BOOLEAN NOT NULL, "
+                + "created_at BIGINT NOT NULL, updated_at BIGINT NOT NULL, PRIMARY KEY (id))");
+        baseline.execute("CREATE TABLE engagement_stats (id UUID NOT NULL, video_id UUID, "
+                + "impressions INTEGER NOT NULL, views INTEGER NOT NULL, PRIMARY KEY (id))");
+        UUID videoId = UUID.randomUUID();
+        baseline.update("INSERT INTO video VALUES (?, 'Heat', NULL, 'Michael Mann', NULL, 1995, 'Crime', 170, TRUE, 1, 1)",
+                videoId);
+        baseline.update("INSERT INTO engagement_stats VALUES (?, ?, 3, 1)", new UUID(0, 1), videoId);
+        baseline.update("INSERT INTO engagement_stats VALUES (?, ?, 4, 2)", new UUID(0, 2), videoId);
+        baseline.update("INSERT INTO engagement_stats VALUES (?, ?, 5, 5)", new UUID(0, 3), UUID.randomUUID());
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        assertEquals(1, baseline.queryForObject("SELECT COUNT(*) FROM video WHERE media_path IS NULL "
+                + "AND media_size IS NULL AND media_checksum IS NULL", Integer.class));
+        assertEquals(List.of(Map.of("id", new UUID(0, 1), "impressions", 7, "views", 3)),
+                baseline.queryForList("SELECT id, impressions, views FROM engagement_stats"));
+        assertThrows(DataIntegrityViolationException.class, () -> baseline.update(
+                "INSERT INTO engagement_stats VALUES (?, ?, 0, 0)", UUID.randomUUID(), videoId));
+        assertThrows(DataIntegrityViolationException.class, () -> baseline.update(
+                "INSERT INTO engagement_stats VALUES (?, ?, 0, 0)", UUID.randomUUID(), UUID.randomUUID()));
+    }
+
+    /**
+     * Tests whether looking up the statistics of a video uses the unique index on {@code video_id}.
+     */
+    @Test
+    void shouldLookUpStatsByVideoIdThroughUniqueIndex() {
+        String plan = explain("SELECT s.id, s.impressions, s.views FROM engagement_stats s WHERE s.video_id = '"
+                + UUID.randomUUID() + "'");
+        assertTrue(plan.contains("uk_engagement_stats_video_id"), plan);
+    }
+
+    /**
+     * Tests whether the catalog listing reads active videos through the listing index.
+     */
+    @Test
+    void shouldListActiveVideosThroughListingIndex() {
+        String plan = explain("SELECT v.id FROM video v WHERE v.is_active = TRUE ORDER BY v.created_at, v.id LIMIT 20");
+        assertTrue(plan.contains("idx_video_active_created_id"), plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toLowerCase();
+    }
+}
@@ -0,0 +1,126 @@
+package com.stream.repository;
+
+import com.stream.dto.VideoSummaryDTO;
+import com.stream.model.EngagementStats;
+import com.stream.model.Video;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the catalog queries of {@link VideoRepository} against the embedded H2 database.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VideoRepositoryTest {
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        videoRepository.deleteAll();
+        for (int i = 0; i < 7; i++) {
+            videoRepository.save(Video.builder()
+                    .title("Video " + i)
+                    .director(i < 2 ? "Director_" + i : "Director " + i)
+                    .videoCast("Actor " + i)
+                    .genre(i % 2 == 0 ? "Drama" : "Comedy")
+                    .yearOfRelease(2000 + i)
+                    .isActive(i != 3)
+                    .build());
+        }
+    }
+
+    /**
+     * Tests whether seeking page by page visits every active video exactly once, in listing order.
+     */
+    @Test
+    void shouldPageThroughActiveVideosWithKeyset() {
+        List<VideoSummaryDTO> seen = new ArrayList<>();
+        Long afterCreatedAt = null;
+        UUID afterId = null;
+        List<VideoSummaryDTO> page;
+        do {
+            page = videoRepository.findActivePage(afterCreatedAt, afterId, null, null, 2);
+            seen.addAll(page);
+            if (!page.isEmpty()) {
+                afterCreatedAt = page.get(page.size() - 1).getCreatedAt();
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 2);
+
+        assertEquals(6, seen.size());
+        assertEquals(6, seen.stream().map(VideoSummaryDTO::getId).distinct().count());
+        assertTrue(seen.stream().noneMatch(video -> video.getTitle().equals("Video 3")));
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1).getCreatedAt() <= seen.get(i).getCreatedAt());
+        }
+    }
+
+    /**
+     * Tests whether the genre and year filters are applied.
+     */
+    @Test
+    void shouldFilterByGenreAndYear() {
+        assertEquals(4, videoRepository.findActivePage(null, null, "Drama", null, 10).size());
+        List<VideoSummaryDTO> match = videoRepository.findActivePage(null, null, "Comedy", 2005, 10);
+        assertEquals(1, match.size());
+        assertEquals("Video 5", match.get(0).getTitle());
+    }
+
+    /**
+     * Tests whether summaries carry the view count from the joined statistics, and zero without statistics.
+     */
+    @Test
+    void shouldJoinViewsIntoSummaries() {
+        Video watched = videoRepository.findAll().stream()
+                .filter(video -> video.getTitle().equals("Video 4")).findFirst().orElseThrow();
+        entityManager.persist(EngagementStats.builder().videoId(watched.getId()).video(watched).views(12).build());
+        entityManager.flush();
+
+        List<VideoSummaryDTO> drama = videoRepository.findActivePage(null, null, "Drama", null, 10);
+
+        for (VideoSummaryDTO summary : drama) {
+            assertEquals(summary.getId().equals(watched.getId()) ? 12 : 0, summary.getViews());
+        }
+        assertEquals("Director 4", drama.stream()
+                .filter(video -> video.getId().equals(watched.getId())).findFirst().orElseThrow().getDirector());
+    }
+
+    /**
+     * Tests whether the database search treats LIKE wildcards in the query literally and ignores case.
+     */
+    @Test
+    void shouldSearchSummariesByDirectorAndCast() {
+        assertEquals(2, videoRepository.findSummariesByDirector("TOR_").size());
+        assertEquals(5, videoRepository.findSummariesByDirector("director ").size());
+        assertEquals(0, videoRepository.findSummariesByDirector("%").size());
+        assertEquals(1, videoRepository.findSummariesByCast("actor 6").size());
+    }
+
+    /**
+     * Tests whether the index backing the listing order exists.
+     */
+    @Test
+    void shouldCreateListingIndex() {
+        Integer indexes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.indexes WHERE index_name = 'idx_video_active_created_id'",
+                Integer.class);
+        assertEquals(1, indexes);
+    }
+}
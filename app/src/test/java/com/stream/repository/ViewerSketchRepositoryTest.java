@@ -0,0 +1,69 @@
+package com.stream.repository;
+
+import com.stream.model.EngagementType;
+import com.stream.model.Video;
+import com.stream.model.ViewerSketch;
+import com.stream.reach.HyperLogLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for {@link ViewerSketchRepository} against the embedded H2 database.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ViewerSketchRepositoryTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    @Autowired
+    private ViewerSketchRepository viewerSketchRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    /**
+     * Tests whether merging stores new sketches and unions existing ones with the merged sketch.
+     */
+    @Test
+    void testMergeAllCreatesAndUnions() {
+        UUID videoId = entityManager.persistAndFlush(Video.builder().title("Reach").isActive(true).build()).getId();
+        ViewerSketch.Key key = new ViewerSketch.Key(videoId, EngagementType.VIEW, DAY);
+
+        assertTrue(viewerSketchRepository.mergeAll(Map.of(key, sketch(0, 600))).isEmpty());
+        assertTrue(viewerSketchRepository.mergeAll(Map.of(key, sketch(400, 1000))).isEmpty());
+        entityManager.clear();
+
+        ViewerSketch stored = viewerSketchRepository.findByVideoIdAndDayGreaterThanEqual(videoId, DAY).get(0);
+        assertEquals(HyperLogLog.SERIALIZED_SIZE, stored.getRegisters().length);
+        assertEquals(1000, HyperLogLog.fromBytes(stored.getRegisters()).estimate(), 1000 * 3 * HyperLogLog.standardError());
+    }
+
+    /**
+     * Tests whether sketches of unknown videos are reported and not stored.
+     */
+    @Test
+    void testMergeAllDropsUnknownVideos() {
+        ViewerSketch.Key key = new ViewerSketch.Key(UUID.randomUUID(), EngagementType.IMPRESSION, DAY);
+
+        Set<ViewerSketch.Key> unknown = viewerSketchRepository.mergeAll(Map.of(key, sketch(0, 10)));
+
+        assertEquals(Set.of(key), unknown);
+        assertFalse(viewerSketchRepository.existsById(key));
+    }
+
+    private static byte[] sketch(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.add(HyperLogLog.hash("viewer-" + i));
+        }
+        return sketch.toBytes();
+    }
+}
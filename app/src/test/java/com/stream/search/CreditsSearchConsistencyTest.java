@@ -0,0 +1,81 @@
+package com.stream.search;
+
+import com.stream.dto.VideoSummaryDTO;
+import com.stream.repository.VideoRepository;
+import com.stream.service.VideoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that director search through {@link CreditsSearchIndex} finds the same videos as the
+ * {@code LIKE '%x%'} query on a synthetic catalog in the embedded H2 database.
+ * <p>
+ * Timings of both paths are measured by {@code CreditsSearchBenchmark} in the {@code benchmarks} module.
+ */
+@SpringBootTest
+class CreditsSearchConsistencyTest {
+
+    private static final int CATALOG_SIZE = 50_000;
+    private static final String GENRE = "credits-consistency";
+    private static final List<String> QUERIES = List.of(
+            "director 4217", "ector 99", "xyz", "DIRECTOR 12", "or 3", "77", "director 4999x");
+
+    @Autowired
+    private VideoService videoService;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private CreditsSearchIndex creditsSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            rows.add(new Object[]{UUID.randomUUID(), "Title " + i, "Director " + (i % 5000),
+                    "Actor " + (i % 997) + ", Actor " + (i % 389), GENRE, (long) i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO video (id, title, director, video_cast, year_of_release, genre, "
+                + "running_time, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, 2000, ?, 90, TRUE, ?, 0)", rows);
+        creditsSearchIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM video WHERE genre = ?", GENRE);
+        creditsSearchIndex.rebuild();
+    }
+
+    /**
+     * Tests whether the index returns the same videos as the LIKE query.
+     */
+    @Test
+    void shouldMatchLikeQuery() {
+        for (String query : QUERIES) {
+            List<VideoSummaryDTO> viaLike = videoRepository.findSummariesByDirector(query);
+            List<UUID> candidates = creditsSearchIndex.search(CreditsSearchIndex.Field.DIRECTOR, query);
+            List<VideoSummaryDTO> viaIndex = videoService.searchByDirector(query);
+
+            assertEquals(ids(viaLike), ids(viaIndex), "results differ for '" + query + "'");
+            assertEquals(ids(viaLike), Set.copyOf(candidates));
+        }
+    }
+
+    private static Set<UUID> ids(List<VideoSummaryDTO> videos) {
+        return videos.stream().map(VideoSummaryDTO::getId).collect(Collectors.toSet());
+    }
+}
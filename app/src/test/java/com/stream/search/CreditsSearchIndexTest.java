@@ -0,0 +1,101 @@
+package com.stream.search;
+
+import com.stream.model.Video;
+import com.stream.repository.VideoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link CreditsSearchIndex}.
+ * <p>
+ * Verifies that trigram lookups return exactly the videos a case-insensitive
+ * "contains" match would, and that re-indexing replaces stale postings.
+ */
+@ExtendWith(MockitoExtension.class)
+class CreditsSearchIndexTest {
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CreditsSearchIndex index;
+    private Video inception;
+    private Video lostInTranslation;
+    private Video untitled;
+
+    @BeforeEach
+    void setUp() {
+        index = new CreditsSearchIndex(videoRepository, transactionManager);
+        inception = video("Christopher Nolan", "Leonardo DiCaprio, Elliot Page");
+        lostInTranslation = video("Sofia Coppola", "Bill Murray, Scarlett Johansson");
+        untitled = video(null, null);
+        List.of(inception, lostInTranslation, untitled).forEach(index::index);
+    }
+
+    /**
+     * Tests whether director substrings match regardless of case.
+     */
+    @Test
+    void shouldFindDirectorSubstringIgnoringCase() {
+        assertEquals(List.of(inception.getId()), index.search(CreditsSearchIndex.Field.DIRECTOR, "NOLAN"));
+        assertEquals(List.of(inception.getId()), index.search(CreditsSearchIndex.Field.DIRECTOR, "topher no"));
+        assertEquals(List.of(), index.search(CreditsSearchIndex.Field.DIRECTOR, "nolan x"));
+    }
+
+    /**
+     * Tests whether candidates sharing all trigrams but not the substring are filtered out.
+     */
+    @Test
+    void shouldVerifyCandidates() {
+        Video anagram = video("abcdbc", null);
+        index.index(anagram);
+        // "abcdbc" contains every trigram of "bcdbcd" (bcd, cdb, dbc) but not the substring itself.
+        assertEquals(List.of(), index.search(CreditsSearchIndex.Field.DIRECTOR, "bcdbcd"));
+        assertEquals(List.of(anagram.getId()), index.search(CreditsSearchIndex.Field.DIRECTOR, "cdbc"));
+    }
+
+    /**
+     * Tests whether short queries, including the empty query, behave like a "contains" match.
+     */
+    @Test
+    void shouldHandleQueriesShorterThanATrigram() {
+        assertEquals(Set.of(inception.getId(), lostInTranslation.getId()),
+                Set.copyOf(index.search(CreditsSearchIndex.Field.DIRECTOR, "")));
+        assertEquals(List.of(lostInTranslation.getId()), index.search(CreditsSearchIndex.Field.DIRECTOR, "pp"));
+    }
+
+    /**
+     * Tests whether cast members are searchable.
+     */
+    @Test
+    void shouldFindCastMember() {
+        assertEquals(List.of(lostInTranslation.getId()), index.search(CreditsSearchIndex.Field.CAST, "murray"));
+        assertEquals(List.of(), index.search(CreditsSearchIndex.Field.DIRECTOR, "murray"));
+    }
+
+    /**
+     * Tests whether re-indexing a video drops the postings of its previous credits.
+     */
+    @Test
+    void shouldReplaceCreditsOnUpdate() {
+        inception.setDirector("Denis Villeneuve");
+        index.index(inception);
+
+        assertEquals(List.of(), index.search(CreditsSearchIndex.Field.DIRECTOR, "nolan"));
+        assertEquals(List.of(inception.getId()), index.search(CreditsSearchIndex.Field.DIRECTOR, "villeneuve"));
+    }
+
+    private static Video video(String director, String cast) {
+        return Video.builder().id(UUID.randomUUID()).director(director).videoCast(cast).build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.stream.search;
+
+import com.stream.dto.TextSearchHitDTO;
+import com.stream.model.Video;
+import com.stream.repository.VideoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link TextSearchIndex}.
+ * <p>
+ * Verifies tokenization, field boosts, top-K selection and that delisted or
+ * replaced videos stop matching, including after compaction.
+ */
+@ExtendWith(MockitoExtension.class)
+class TextSearchIndexTest {
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TextSearchIndex index;
+    private Video inception;
+    private Video interstellar;
+    private Video dreamDocumentary;
+
+    @BeforeEach
+    void setUp() {
+        index = new TextSearchIndex(videoRepository, transactionManager);
+        inception = video("Inception", "A thief enters dreams to plant an idea.", "Christopher Nolan", "Leonardo DiCaprio");
+        interstellar = video("Interstellar", "Explorers travel through a wormhole.", "Christopher Nolan", "Matthew McConaughey");
+        dreamDocumentary = video("The Science of Sleep", "A documentary about dreams, dreams and more dreams.",
+                "Michel Gondry", "Gael Garcia Bernal");
+        List.of(inception, interstellar, dreamDocumentary).forEach(index::index);
+    }
+
+    /**
+     * Tests whether text is split into lower-cased terms without stop words or single characters.
+     */
+    @Test
+    void shouldTokenizeText() {
+        assertEquals(Map.of("thief", 2, "dreams", 2), TextSearchIndex.tokenize("The THIEF, a thief? dreams-dreams"));
+        assertEquals(List.of("sci", "fi", "2010"), List.copyOf(TextSearchIndex.tokenize("Sci-Fi (2010) x").keySet()));
+    }
+
+    /**
+     * Tests whether a title match outranks synopsis-only matches thanks to field boosts.
+     */
+    @Test
+    void shouldBoostTitleMatches() {
+        List<TextSearchHitDTO> hits = index.search("inception", 10);
+        assertEquals(1, hits.size());
+        assertEquals(inception.getId(), hits.get(0).getId());
+
+        hits = index.search("interstellar dreams", 10);
+        assertEquals(3, hits.size());
+        assertEquals(interstellar.getId(), hits.get(0).getId());
+    }
+
+    /**
+     * Tests whether only the requested number of best hits is returned, best first.
+     */
+    @Test
+    void shouldReturnTopKInScoreOrder() {
+        List<TextSearchHitDTO> hits = index.search("nolan dreams", 2);
+        assertEquals(2, hits.size());
+        assertTrue(hits.get(0).getScore() >= hits.get(1).getScore());
+    }
+
+    /**
+     * Tests whether delisted videos are excluded and updated videos match their new text only.
+     */
+    @Test
+    void shouldExcludeDelistedAndReplaceUpdatedVideos() {
+        inception.setActive(false);
+        index.index(inception);
+        interstellar.setTitle("Wormhole Voyage");
+        index.index(interstellar);
+
+        assertTrue(index.search("inception", 10).isEmpty());
+        assertTrue(index.search("interstellar", 10).isEmpty());
+        assertEquals(interstellar.getId(), index.search("voyage", 10).get(0).getId());
+        assertEquals(2, index.size());
+    }
+
+    /**
+     * Tests whether results stay correct after enough updates to trigger compaction.
+     */
+    @Test
+    void shouldStayCorrectAcrossCompaction() {
+        for (int i = 0; i < 3000; i++) {
+            inception.setSynopsis("Revision " + i + " of a dream heist");
+            index.index(inception);
+        }
+        List<TextSearchHitDTO> hits = index.search("heist", 10);
+        assertEquals(1, hits.size());
+        assertEquals(inception.getId(), hits.get(0).getId());
+        assertEquals(3, index.size());
+        // Renumbered documents keep their own IDs and titles.
+        assertEquals("The Science of Sleep", index.search("gondry", 10).get(0).getTitle());
+        assertEquals(interstellar.getId(), index.search("wormhole", 10).get(0).getId());
+    }
+
+    /**
+     * Tests whether compaction reclaims the document numbers of replaced videos, so an index whose
+     * videos keep being edited does not grow.
+     */
+    @Test
+    void shouldNotGrowWithRepeatedEdits() {
+        for (int i = 0; i < 100_000; i++) {
+            interstellar.setTitle("Interstellar " + (i % 7));
+            index.index(interstellar);
+        }
+        assertEquals(3, index.size());
+        assertTrue(index.documentCount() <= 3 + 1025, "document numbers in use: " + index.documentCount());
+        assertEquals(interstellar.getId(), index.search("interstellar", 10).get(0).getId());
+    }
+
+    private static Video video(String title, String synopsis, String director, String cast) {
+        return Video.builder().id(UUID.randomUUID()).title(title).synopsis(synopsis)
+                .director(director).videoCast(cast).isActive(true).build();
+    }
+}
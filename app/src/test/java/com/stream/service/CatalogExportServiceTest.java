@@ -0,0 +1,102 @@
+package com.stream.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for {@link CatalogExportService}.
+ * <p>
+ * Exports a six-figure synthetic catalog from the embedded H2 database and checks that the
+ * live heap stays within a fixed budget while doing so, i.e. that exported entities are
+ * released instead of accumulating in the persistence context.
+ */
+@SpringBootTest
+class CatalogExportServiceTest {
+
+    private static final int CATALOG_SIZE = 100_000;
+    private static final long HEAP_BUDGET_BYTES = 16L * 1024 * 1024;
+    private static final String GENRE = "export-test";
+
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            rows.add(new Object[]{UUID.randomUUID(), "Synthetic title " + i, "A synopsis for title " + i,
+                    "Director " + (i % 500), "Actor A, Actor B", 1950 + i % 70, GENRE, 90 + i % 60, (long) i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO video (id, title, synopsis, director, video_cast, year_of_release, "
+                + "genre, running_time, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, TRUE, ?, 0)", rows);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM video WHERE genre = ?", GENRE);
+    }
+
+    /**
+     * Tests whether the whole catalog is exported as one JSON document per line
+     * while the live heap stays within a fixed budget.
+     */
+    @Test
+    void shouldExportLargeCatalogWithinFixedHeap() throws Exception {
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+
+        long exported = catalogExportService.exportCatalog(out);
+
+        assertEquals(CATALOG_SIZE, exported);
+        assertEquals(CATALOG_SIZE, out.lines);
+        long growth = out.peakUsed - out.baselineUsed;
+        assertTrue(growth < HEAP_BUDGET_BYTES, "live heap grew by " + growth + " bytes");
+    }
+
+    /**
+     * Discards the export while sampling the live heap (after a full GC) every few thousand lines.
+     */
+    private static final class HeapSamplingOutputStream extends OutputStream {
+        private static final int SAMPLE_EVERY_LINES = 20_000;
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long baselineUsed = liveHeap();
+        private long peakUsed = baselineUsed;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            count((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                count(b[i]);
+            }
+        }
+
+        private void count(byte b) {
+            if (b == '\n' && ++lines % SAMPLE_EVERY_LINES == 0) {
+                peakUsed = Math.max(peakUsed, liveHeap());
+            }
+        }
+
+        private long liveHeap() {
+            System.gc();
+            return memory.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.stream.service;
+
+import com.stream.dto.ImportErrorDTO;
+import com.stream.dto.ImportResultDTO;
+import com.stream.search.CreditsSearchIndex;
+import com.stream.search.TextSearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for {@link CatalogImportService} against the embedded H2 database.
+ */
+@SpringBootTest(properties = "videos.import.batch-size=500")
+class CatalogImportServiceTest {
+
+    private static final String HEADER = "title,director,videoCast,yearOfRelease,genre,runningTime\n";
+    private static final int LARGE_IMPORT_ROWS = 60_000;
+    private static final long MIN_ROWS_PER_MINUTE = 50_000;
+
+    private final String tag = UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CreditsSearchIndex creditsSearchIndex;
+
+    @Autowired
+    private TextSearchIndex textSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM video WHERE genre = ?", genre());
+        creditsSearchIndex.rebuild();
+        textSearchIndex.rebuild();
+    }
+
+    /**
+     * Tests whether valid CSV rows are imported and searchable while invalid rows are reported with
+     * their row number without stopping the import.
+     */
+    @Test
+    void shouldImportCsvAndReportRowErrors() throws Exception {
+        String csv = HEADER
+                + "First,Director " + tag + ",\"Actor A, Actor B\",2001," + genre() + ",95\n"
+                + "," + "Director " + tag + ",Actor C,2002," + genre() + ",90\n"
+                + "Third,Director " + tag + ",Actor D,not-a-year," + genre() + ",90\n"
+                + "Fourth,Director " + tag + ",Actor E,2004," + genre() + ",-1\n"
+                + "Fifth,Director " + tag + ",Actor F,2005," + genre() + ",120\n";
+
+        ImportResultDTO result = catalogImportService.importCsv(body(csv));
+
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertEquals(List.of(2L, 3L, 4L), result.getErrors().stream().map(ImportErrorDTO::getRow).toList());
+        assertEquals("title is required", result.getErrors().get(0).getMessage());
+        assertEquals("runningTime must not be negative", result.getErrors().get(2).getMessage());
+        assertEquals(List.of("Fifth", "First"), jdbcTemplate.queryForList(
+                "SELECT title FROM video WHERE genre = ? ORDER BY title", String.class, genre()));
+        assertEquals("Actor A, Actor B", jdbcTemplate.queryForObject(
+                "SELECT video_cast FROM video WHERE title = 'First' AND genre = ?", String.class, genre()));
+        assertEquals(2, creditsSearchIndex.search(CreditsSearchIndex.Field.DIRECTOR, "director " + tag).size());
+    }
+
+    /**
+     * Tests whether newline-delimited JSON is imported, ignoring client-supplied IDs.
+     */
+    @Test
+    void shouldImportNdjsonWithGeneratedIds() throws Exception {
+        UUID clientId = UUID.randomUUID();
+        String ndjson = "{\"id\":\"" + clientId + "\",\"title\":\"One\",\"genre\":\"" + genre() + "\",\"runningTime\":80}\n"
+                + "{\"title\":\"Two\",\"genre\":\"" + genre() + "\",\"yearOfRelease\":\"soon\"}\n"
+                + "{\"title\":\"Three\",\"genre\":\"" + genre() + "\",\"active\":false}\n";
+
+        ImportResultDTO result = catalogImportService.importJson(body(ndjson));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(2L, result.getErrors().get(0).getRow());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM video WHERE id = ?", Integer.class, clientId));
+        assertEquals(Boolean.FALSE, jdbcTemplate.queryForObject(
+                "SELECT is_active FROM video WHERE title = 'Three' AND genre = ?", Boolean.class, genre()));
+    }
+
+    /**
+     * Tests whether a row the database refuses is rejected on its own, while the other rows of its
+     * batch are stored, and whether media fields in the input are ignored.
+     */
+    @Test
+    void shouldRejectOnlyTheRowsTheDatabaseRefuses() throws Exception {
+        String csv = "title,genre,mediaPath,mediaSize,mediaChecksum\n"
+                + "Good one," + genre() + ",other-title.mp4,10,abc\n"
+                + "Refused," + genre() + ",,,\n"
+                + "Good two," + genre() + ",.uploads/unfinished.part,,\n";
+        jdbcTemplate.execute("ALTER TABLE video ADD CONSTRAINT chk_import_test CHECK (title <> 'Refused')");
+        ImportResultDTO result;
+        try {
+            result = catalogImportService.importCsv(body(csv));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE video DROP CONSTRAINT chk_import_test");
+        }
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(2L, result.getErrors().get(0).getRow());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Could not be stored"));
+        assertEquals(List.of("Good one", "Good two"), jdbcTemplate.queryForList(
+                "SELECT title FROM video WHERE genre = ? ORDER BY title", String.class, genre()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM video WHERE genre = ? AND (media_path IS NOT NULL OR media_size IS NOT NULL "
+                        + "OR media_checksum IS NOT NULL)", Integer.class, genre()));
+    }
+
+    /**
+     * Tests whether a large import sends its inserts in JDBC batches and stores at least
+     * {@value #MIN_ROWS_PER_MINUTE} rows per minute.
+     */
+    @Test
+    void shouldImportLargeCatalogInJdbcBatches() throws Exception {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < LARGE_IMPORT_ROWS; i++) {
+            csv.append("Imported title ").append(i).append(",Director ").append(i % 500).append(",\"Actor ")
+                    .append(i % 700).append(", Actor B\",").append(1950 + i % 70).append(',').append(genre())
+                    .append(',').append(90 + i % 60).append('\n');
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+        ImportResultDTO result = catalogImportService.importCsv(body(csv.toString()));
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(LARGE_IMPORT_ROWS, result.getImported());
+        assertEquals(0, result.getRejected());
+        assertEquals(LARGE_IMPORT_ROWS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM video WHERE genre = ?", Integer.class, genre()));
+        // One prepared statement per batch of 500 inserts, not one per row.
+        assertTrue(statistics.getPrepareStatementCount() <= LARGE_IMPORT_ROWS / 500 + 10,
+                "prepared statements: " + statistics.getPrepareStatementCount());
+        double rowsPerMinute = LARGE_IMPORT_ROWS * (double) TimeUnit.MINUTES.toNanos(1) / elapsed;
+        assertTrue(rowsPerMinute >= MIN_ROWS_PER_MINUTE, "imported " + Math.round(rowsPerMinute) + " rows/min");
+    }
+
+    private static ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String genre() {
+        return "import-" + tag;
+    }
+}
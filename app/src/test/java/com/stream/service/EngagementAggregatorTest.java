@@ -0,0 +1,121 @@
+package com.stream.service;
+
+import com.stream.repository.EngagementStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test class for {@link EngagementAggregator}.
+ * <p>
+ * Verifies that buffered increments are merged per video, flushed in a single batch
+ * and never lost while writers race with the flusher.
+ */
+@ExtendWith(MockitoExtension.class)
+class EngagementAggregatorTest {
+
+    @Mock
+    private EngagementStatsRepository engagementStatsRepository;
+
+    private EngagementAggregator aggregator;
+    private UUID videoId;
+
+    @BeforeEach
+    void setUp() {
+        // Flushes are driven explicitly by the tests, so the background flusher is not started.
+        aggregator = new EngagementAggregator(engagementStatsRepository, true, Long.MAX_VALUE, 1000);
+        videoId = UUID.randomUUID();
+    }
+
+    /**
+     * Tests whether buffered deltas are visible before a flush and cleared after it.
+     */
+    @Test
+    void shouldExposePendingDeltasUntilFlushed() {
+        aggregator.addImpressions(videoId, 3);
+        aggregator.addViews(videoId, 2);
+        assertArrayEquals(new long[]{3, 2}, aggregator.pendingFor(videoId));
+
+        aggregator.flush();
+
+        assertNull(aggregator.pendingFor(videoId));
+    }
+
+    /**
+     * Tests whether a flush writes one merged increment per video.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFlushMergedDeltasPerVideo() {
+        UUID otherVideoId = UUID.randomUUID();
+
+        aggregator.addImpressions(videoId, 1);
+        aggregator.addImpressions(videoId, 1);
+        aggregator.addViews(videoId, 1);
+        aggregator.addViews(otherVideoId, 1);
+        aggregator.flush();
+
+        ArgumentCaptor<Map<UUID, long[]>> batch = ArgumentCaptor.forClass(Map.class);
+        verify(engagementStatsRepository, times(1)).incrementAll(batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertArrayEquals(new long[]{2, 1}, batch.getValue().get(videoId));
+        assertArrayEquals(new long[]{0, 1}, batch.getValue().get(otherVideoId));
+    }
+
+    /**
+     * Tests whether deltas are put back when the database write fails.
+     */
+    @Test
+    void shouldRetainDeltasWhenFlushFails() {
+        when(engagementStatsRepository.incrementAll(anyMap())).thenThrow(new IllegalStateException("db down"));
+        aggregator.addViews(videoId, 5);
+
+        assertThrows(IllegalStateException.class, aggregator::flush);
+
+        assertArrayEquals(new long[]{0, 5}, aggregator.pendingFor(videoId));
+    }
+
+    /**
+     * Tests whether concurrent writers racing with repeated flushes never lose an increment.
+     */
+    @Test
+    void shouldNotLoseIncrementsWhileFlushing() throws Exception {
+        LongAdder written = new LongAdder();
+        when(engagementStatsRepository.incrementAll(anyMap())).thenAnswer(invocation -> {
+            written.add(invocation.<Map<UUID, long[]>>getArgument(0).get(videoId)[1]);
+            return Set.of();
+        });
+
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            pool.submit(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    aggregator.addViews(videoId, 1);
+                }
+            });
+        }
+        pool.shutdown();
+        while (!pool.awaitTermination(1, TimeUnit.MILLISECONDS)) {
+            aggregator.flush();
+        }
+        aggregator.flush();
+        aggregator.flush();
+
+        assertEquals((long) threads * perThread, written.sum());
+    }
+}
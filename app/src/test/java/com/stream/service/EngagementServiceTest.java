@@ -0,0 +1,298 @@
+package com.stream.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stream.counter.ReplicatedEngagementCounters;
+import com.stream.dto.BatchIngestResultDTO;
+import com.stream.journal.EngagementJournal;
+import com.stream.model.EngagementStats;
+import com.stream.model.EngagementType;
+import com.stream.model.Video;
+import com.stream.reach.ReachService;
+import com.stream.repository.EngagementStatsRepository;
+import com.stream.repository.VideoRepository;
+import com.stream.trending.TrendingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test class for {@link EngagementService}.
+ * <p>
+ * This test verifies the functionality of engagement tracking,
+ * specifically recording impressions and views.
+ * It uses Mockito to mock dependencies and JUnit 5 for testing.
+ */
+@ExtendWith(MockitoExtension.class)
+class EngagementServiceTest {
+
+    /**
+     * Mocked instance of {@link EngagementStatsRepository} to simulate database interactions.
+     */
+    @Mock
+    private EngagementStatsRepository engagementStatsRepository;
+
+    /**
+     * Mocked instance of {@link EngagementAggregator}; write-behind is disabled unless a test enables it.
+     */
+    @Mock
+    private EngagementAggregator engagementAggregator;
+
+    /**
+     * Mocked instance of {@link EngagementJournal}; the journal is disabled unless a test enables it.
+     */
+    @Mock
+    private EngagementJournal engagementJournal;
+
+    /**
+     * Mocked instance of {@link ReplicatedEngagementCounters}; replicated counters are disabled unless a test enables them.
+     */
+    @Mock
+    private ReplicatedEngagementCounters replicatedEngagementCounters;
+
+    /**
+     * Mocked instance of {@link TrendingService} receiving every counted event.
+     */
+    @Mock
+    private TrendingService trendingService;
+
+    /**
+     * Mocked instance of {@link ReachService} receiving identified viewers.
+     */
+    @Mock
+    private ReachService reachService;
+
+    /**
+     * Mocked instance of {@link VideoRepository} used to check that a video exists before buffering its events.
+     */
+    @Mock
+    private VideoRepository videoRepository;
+
+    /**
+     * Real {@link VideoCache} in front of the video lookups.
+     */
+    @Spy
+    private VideoCache videoCache = new VideoCache(100, 60, 10);
+
+    /**
+     * Real {@link ObjectMapper} used to parse batch bodies.
+     */
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Instance of {@link EngagementService} with mocked dependencies injected.
+     */
+    @InjectMocks
+    private EngagementService engagementService;
+
+    private UUID videoId;
+    private EngagementStats engagementStats;
+
+    /**
+     * Sets up test data before each test execution.
+     * <p>
+     * Initializes a random video ID and an empty {@link EngagementStats} object.
+     */
+    @BeforeEach
+    void setUp() {
+        videoId = UUID.randomUUID();
+        engagementStats = new EngagementStats();
+        engagementStats.setImpressions(0);
+        engagementStats.setViews(0);
+    }
+
+    /**
+     * Tests whether an impression is recorded correctly.
+     * <p>
+     * When an impression is recorded, the counter should be incremented by 1
+     * through a single atomic repository operation.
+     */
+    @Test
+    void shouldRecordImpression() {
+        when(engagementStatsRepository.increment(videoId, 1, 0)).thenReturn(true);
+        engagementService.recordImpression(videoId);
+        verify(engagementStatsRepository).increment(videoId, 1, 0);
+        verify(engagementStatsRepository, never()).save(any());
+    }
+
+    /**
+     * Tests whether a view is recorded correctly.
+     * <p>
+     * When a view is recorded, the counter should be incremented by 1
+     * through a single atomic repository operation.
+     */
+    @Test
+    void shouldRecordView() {
+        when(engagementStatsRepository.increment(videoId, 0, 1)).thenReturn(true);
+        engagementService.recordView(videoId);
+        verify(engagementStatsRepository).increment(videoId, 0, 1);
+        verify(engagementStatsRepository, never()).save(any());
+        verify(trendingService).record(videoId, 1, 0);
+    }
+
+    /**
+     * Tests whether an identified viewer is added to the video's unique-viewer sketch.
+     */
+    @Test
+    void shouldRecordViewerForReach() {
+        when(engagementStatsRepository.increment(videoId, 0, 1)).thenReturn(true);
+        engagementService.recordView(videoId, "viewer-1");
+        verify(reachService).record(videoId, EngagementType.VIEW, "viewer-1");
+    }
+
+    /**
+     * Tests whether recording engagement for an unknown video is rejected with 404.
+     */
+    @Test
+    void shouldRejectViewForUnknownVideo() {
+        when(engagementStatsRepository.increment(videoId, 0, 1)).thenReturn(false);
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> engagementService.recordView(videoId));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        verifyNoInteractions(trendingService, reachService);
+    }
+
+    /**
+     * Tests whether views are buffered instead of written when write-behind mode is enabled.
+     */
+    @Test
+    void shouldBufferViewWhenWriteBehindEnabled() {
+        when(engagementAggregator.isEnabled()).thenReturn(true);
+        givenVideoExists();
+        engagementService.recordView(videoId);
+        verify(engagementAggregator).addViews(videoId, 1);
+        verifyNoInteractions(engagementStatsRepository);
+        verify(trendingService).record(videoId, 1, 0);
+    }
+
+    /**
+     * Tests whether views are journaled instead of written when the journal is enabled.
+     */
+    @Test
+    void shouldJournalViewWhenJournalEnabled() {
+        when(engagementJournal.isEnabled()).thenReturn(true);
+        givenVideoExists();
+        engagementService.recordView(videoId);
+        verify(engagementJournal).append(videoId, EngagementType.VIEW);
+        verifyNoInteractions(engagementStatsRepository, engagementAggregator);
+    }
+
+    /**
+     * Tests whether views are counted in this node's counters when replicated counters are enabled.
+     */
+    @Test
+    void shouldCountViewInReplicatedCountersWhenEnabled() {
+        when(replicatedEngagementCounters.isEnabled()).thenReturn(true);
+        givenVideoExists();
+        engagementService.recordView(videoId);
+        verify(replicatedEngagementCounters).add(videoId, 0, 1);
+        verifyNoInteractions(engagementStatsRepository, engagementAggregator);
+    }
+
+    /**
+     * Tests whether events for unknown videos are rejected before they are buffered, so they never
+     * reach the trending leaderboard.
+     */
+    @Test
+    void shouldRejectBufferedViewForUnknownVideo() {
+        when(engagementAggregator.isEnabled()).thenReturn(true);
+        when(videoRepository.findById(videoId)).thenReturn(Optional.empty());
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> engagementService.recordView(videoId));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        assertThrows(ResponseStatusException.class, () -> engagementService.recordImpression(videoId));
+        verify(engagementAggregator, never()).addViews(any(), anyLong());
+        verifyNoInteractions(trendingService, reachService);
+        // The unknown ID is remembered, so repeated events do not reach the database.
+        verify(videoRepository, times(1)).findById(videoId);
+    }
+
+    /**
+     * Tests whether unflushed deltas are merged into the stored statistics.
+     */
+    @Test
+    void shouldMergePendingDeltasIntoStats() {
+        engagementStats.setImpressions(5);
+        engagementStats.setViews(2);
+        when(engagementAggregator.isEnabled()).thenReturn(true);
+        when(engagementAggregator.pendingFor(videoId)).thenReturn(new long[]{3, 1});
+        when(engagementStatsRepository.findByVideoId(videoId)).thenReturn(Optional.of(engagementStats));
+
+        EngagementStats stats = engagementService.getStats(videoId).orElseThrow();
+
+        assertEquals(8, stats.getImpressions());
+        assertEquals(3, stats.getViews());
+    }
+
+    /**
+     * Tests whether an NDJSON batch is merged per video and applied in one batched call,
+     * with invalid events counted as rejected.
+     */
+    @Test
+    void shouldIngestNdjsonBatch() throws Exception {
+        String body = String.join("\n",
+                "{\"videoId\":\"" + videoId + "\",\"type\":\"impression\",\"count\":3}",
+                "{\"videoId\":\"" + videoId + "\",\"type\":\"view\"}",
+                "{\"videoId\":\"not-a-uuid\",\"type\":\"view\"}",
+                "{\"videoId\":\"" + videoId + "\",\"type\":\"like\"}",
+                "{\"videoId\":\"" + videoId + "\",\"type\":\"view\",\"count\":0}");
+        // The deltas map is cleared after being applied, so it is inspected while the call is in flight.
+        when(engagementStatsRepository.incrementAll(anyMap())).thenAnswer(invocation -> {
+            long[] delta = invocation.<Map<UUID, long[]>>getArgument(0).get(videoId);
+            assertEquals(3, delta[0]);
+            assertEquals(1, delta[1]);
+            return Set.of();
+        });
+
+        BatchIngestResultDTO result = engagementService.ingestBatch(stream(body));
+
+        assertEquals(2, result.getAccepted());
+        assertEquals(3, result.getRejected());
+        verify(engagementStatsRepository, times(1)).incrementAll(anyMap());
+    }
+
+    /**
+     * Tests whether a JSON array batch is accepted and events for unknown videos are rejected
+     * and kept out of the trending leaderboard.
+     */
+    @Test
+    void shouldRejectEventsForUnknownVideosInArrayBatch() throws Exception {
+        UUID unknownVideoId = UUID.randomUUID();
+        String body = "[{\"videoId\":\"" + videoId + "\",\"type\":\"VIEW\"},"
+                + "{\"videoId\":\"" + unknownVideoId + "\",\"type\":\"VIEW\"},"
+                + "{\"videoId\":\"" + unknownVideoId + "\",\"type\":\"IMPRESSION\"}]";
+        when(engagementStatsRepository.incrementAll(anyMap())).thenReturn(Set.of(unknownVideoId));
+
+        BatchIngestResultDTO result = engagementService.ingestBatch(stream(body));
+
+        assertEquals(1, result.getAccepted());
+        assertEquals(2, result.getRejected());
+        verify(trendingService).record(videoId, 1, 0);
+        verify(trendingService, never()).record(eq(unknownVideoId), anyLong(), anyLong());
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void givenVideoExists() {
+        when(videoRepository.findById(videoId)).thenReturn(Optional.of(Video.builder().id(videoId).build()));
+    }
+}
@@ -0,0 +1,488 @@
+package com.stream.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stream.counter.ReplicatedEngagementCounters;
+import com.stream.dto.CursorPageDTO;
+import com.stream.dto.VideoMetadataResultDTO;
+import com.stream.dto.VideoSummaryDTO;
+import com.stream.media.MediaStorage;
+import com.stream.model.Video;
+import com.stream.model.VideoMetadataResponse;
+import com.stream.repository.VideoMetadataRow;
+import com.stream.repository.VideoRepository;
+import com.stream.search.CreditsSearchIndex;
+import com.stream.search.TextSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test class for {@link VideoService}.
+ * <p>
+ * This test verifies the functionality of video management operations,
+ * including publishing, retrieving, and playing videos.
+ * It uses Mockito to mock dependencies and JUnit 5 for testing.
+ */
+@ExtendWith(MockitoExtension.class)
+class VideoServiceTest {
+
+    /**
+     * Mocked instance of {@link VideoRepository} to simulate database interactions.
+     */
+    @Mock
+    private VideoRepository videoRepository;
+
+    /**
+     * Mocked instance of {@link CreditsSearchIndex}; it reports itself as not ready unless a test says otherwise.
+     */
+    @Mock
+    private CreditsSearchIndex creditsSearchIndex;
+
+    /**
+     * Mocked instance of {@link TextSearchIndex}.
+     */
+    @Mock
+    private TextSearchIndex textSearchIndex;
+
+    /**
+     * Mocked instance of {@link MediaStorage}.
+     */
+    @Mock
+    private MediaStorage mediaStorage;
+
+    /**
+     * Mocked instance of {@link ReplicatedEngagementCounters}; disabled unless a test says otherwise.
+     */
+    @Mock
+    private ReplicatedEngagementCounters replicatedEngagementCounters;
+
+    /**
+     * Real {@link VideoCache}, so that tests exercise read-through and invalidation.
+     */
+    @Spy
+    private VideoCache videoCache = new VideoCache(100, 60, 10);
+
+    /**
+     * Instance of {@link VideoService} with mocked dependencies injected.
+     */
+    @InjectMocks
+    private VideoService videoService;
+
+    private Video video;
+    private UUID videoId;
+
+    /**
+     * Sets up test data before each test execution.
+     * <p>
+     * Initializes a random video ID and creates a sample {@link Video} object.
+     */
+    @BeforeEach
+    void setUp() {
+        videoId = UUID.randomUUID();
+        video = Video.builder()
+                .id(videoId)
+                .title("Inception")
+                .director("Christopher Nolan")
+                .mediaPath("inception.mp4")
+                .isActive(true)
+                .build();
+    }
+
+    /**
+     * Tests whether a video is successfully published (saved to the repository).
+     * <p>
+     * Given a video object, when it is saved, it should return the same video with an assigned ID.
+     */
+    @Test
+    void shouldPublishVideo() {
+        when(videoRepository.save(any(Video.class))).thenReturn(video);
+        Video savedVideo = videoService.publishVideo(video);
+        assertNotNull(savedVideo);
+        assertEquals("Inception", savedVideo.getTitle());
+        verify(creditsSearchIndex).index(video);
+        verify(textSearchIndex).index(video);
+    }
+
+    /**
+     * Tests whether a published video is saved without media, whatever media fields the caller set,
+     * so it cannot point at another title's file or at an unfinished upload.
+     */
+    @Test
+    void shouldPublishVideoWithoutClientSuppliedMedia() throws Exception {
+        Video published = new ObjectMapper().readValue(
+                "{\"title\":\"Heist\",\"mediaPath\":\".uploads/other.part\",\"mediaSize\":1,\"mediaChecksum\":\"00\"}",
+                Video.class);
+        assertNull(published.getMediaPath());
+
+        video.setMediaSize(42L);
+        video.setMediaChecksum("abc");
+        when(videoRepository.save(any(Video.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Video saved = videoService.publishVideo(video);
+
+        assertNull(saved.getMediaPath());
+        assertNull(saved.getMediaSize());
+        assertNull(saved.getMediaChecksum());
+    }
+
+    /**
+     * Tests whether a video can be loaded by its ID.
+     * <p>
+     * Given a valid video ID, when the video is retrieved, it should return the correct video metadata.
+     */
+    @Test
+    void shouldLoadVideoById() {
+        when(videoRepository.findById(videoId)).thenReturn(Optional.of(video));
+        Optional<Video> retrievedVideo = videoService.getVideo(videoId);
+        assertTrue(retrievedVideo.isPresent());
+        assertEquals("Inception", retrievedVideo.get().getTitle());
+    }
+
+    /**
+     * Tests whether the media file of an active video is returned for playback.
+     * <p>
+     * Given an active video ID, when the play method is called, it should return the file located in media storage.
+     */
+    @Test
+    void shouldReturnMediaFileWhenPlayed() {
+        Path file = Path.of("/media/inception.mp4");
+        when(videoRepository.findById(videoId)).thenReturn(Optional.of(video));
+        when(mediaStorage.locate("inception.mp4")).thenReturn(Optional.of(file));
+        assertEquals(file, videoService.playVideo(videoId));
+    }
+
+    /**
+     * Tests whether an exception is thrown when attempting to play a delisted video.
+     * <p>
+     * Given a video that has been soft deleted (isActive = false), when play is called,
+     * it should throw a {@link ResponseStatusException} with 404 and the expected reason.
+     */
+    @Test
+    void shouldThrowExceptionForDelistedVideo() {
+        video.setActive(false);
+        when(videoRepository.findById(videoId)).thenReturn(Optional.of(video));
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> videoService.playVideo(videoId));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        assertEquals("Video not found or is delisted", exception.getReason());
+        verifyNoInteractions(mediaStorage);
+    }
+
+    /**
+     * Tests whether a video whose media file is missing cannot be played.
+     */
+    @Test
+    void shouldReturnNotFoundWhenMediaIsMissing() {
+        when(videoRepository.findById(videoId)).thenReturn(Optional.of(video));
+        when(mediaStorage.locate("inception.mp4")).thenReturn(Optional.empty());
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> videoService.playVideo(videoId));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    /**
+     * Tests whether a full page returns a cursor that resumes after its last video.
+     * <p>
+     * The service fetches one row more than the page size to detect whether another page exists.
+     */
+    @Test
+    void shouldReturnCursorWhenMoreVideosExist() {
+        List<VideoSummaryDTO> rows = summaries(3);
+        when(videoRepository.findActivePage(null, null, "Drama", null, 3)).thenReturn(rows);
+
+        CursorPageDTO<VideoSummaryDTO> page = videoService.listVideos(null, 2, "Drama", null);
+
+        assertEquals(2, page.getItems().size());
+        VideoCursor cursor = VideoCursor.decode(page.getNextCursor());
+        assertEquals(rows.get(1).getCreatedAt(), cursor.createdAt());
+        assertEquals(rows.get(1).getId(), cursor.id());
+    }
+
+    /**
+     * Tests whether the cursor is passed back to the repository as the keyset to seek past,
+     * and the last page carries no cursor.
+     */
+    @Test
+    void shouldSeekPastCursorAndEndOnLastPage() {
+        VideoCursor cursor = new VideoCursor(42L, videoId);
+        when(videoRepository.findActivePage(42L, videoId, null, 2010, VideoService.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(summaries(1));
+
+        CursorPageDTO<VideoSummaryDTO> page = videoService.listVideos(cursor.encode(), null, null, 2010);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    /**
+     * Tests whether requested page sizes are capped.
+     */
+    @Test
+    void shouldCapPageSize() {
+        when(videoRepository.findActivePage(null, null, null, null, VideoService.MAX_PAGE_SIZE + 1)).thenReturn(List.of());
+        videoService.listVideos(null, 10_000, null, null);
+        verify(videoRepository).findActivePage(null, null, null, null, VideoService.MAX_PAGE_SIZE + 1);
+    }
+
+    /**
+     * Tests whether a malformed cursor is rejected with 400.
+     */
+    @Test
+    void shouldRejectMalformedCursor() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> videoService.listVideos("not-a-cursor", null, null, null));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    private static List<VideoSummaryDTO> summaries(int count) {
+        List<VideoSummaryDTO> summaries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            summaries.add(summary(UUID.randomUUID(), "Video " + i, 1000L + i));
+        }
+        return summaries;
+    }
+
+    private static VideoSummaryDTO summary(UUID id, String title, long createdAt) {
+        return new VideoSummaryDTO(id, title, "Christopher Nolan", "Drama", 2010, 148, 0, createdAt);
+    }
+
+    /**
+     * Tests whether director search resolves candidates through the index once it is ready,
+     * preserving the order returned by the index.
+     */
+    @Test
+    void shouldSearchDirectorThroughIndex() {
+        VideoSummaryDTO inception = summary(videoId, "Inception", 1);
+        VideoSummaryDTO tenet = summary(UUID.randomUUID(), "Tenet", 2);
+        when(creditsSearchIndex.isReady()).thenReturn(true);
+        when(creditsSearchIndex.search(CreditsSearchIndex.Field.DIRECTOR, "nolan")).thenReturn(List.of(tenet.getId(), videoId));
+        when(videoRepository.findSummariesByIdIn(List.of(tenet.getId(), videoId))).thenReturn(List.of(inception, tenet));
+
+        List<VideoSummaryDTO> result = videoService.searchByDirector("nolan");
+
+        assertEquals(List.of(tenet, inception), result);
+        verify(videoRepository, never()).findSummariesByDirector(any());
+    }
+
+    /**
+     * Tests whether director search falls back to the database until the index is built.
+     */
+    @Test
+    void shouldFallBackToDatabaseSearchWhileIndexBuilds() {
+        List<VideoSummaryDTO> matches = List.of(summary(videoId, "Inception", 1));
+        when(videoRepository.findSummariesByDirector("nolan")).thenReturn(matches);
+        assertEquals(matches, videoService.searchByDirector("nolan"));
+    }
+
+    /**
+     * Tests whether repeated lookups of a video, and of an unknown ID, are served from the cache.
+     */
+    @Test
+    void shouldCacheFoundAndMissingVideos() {
+        UUID missingId = UUID.randomUUID();
+        when(videoRepository.findById(videoId)).thenReturn(Optional.of(video));
+        when(videoRepository.findById(missingId)).thenReturn(Optional.empty());
+        when(mediaStorage.locate("inception.mp4")).thenReturn(Optional.of(Path.of("/media/inception.mp4")));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("Inception", videoService.getVideo(videoId).orElseThrow().getTitle());
+            videoService.playVideo(videoId);
+            assertTrue(videoService.getVideo(missingId).isEmpty());
+        }
+
+        verify(videoRepository, times(1)).findById(videoId);
+        verify(videoRepository, times(1)).findById(missingId);
+        assertEquals(2, videoService.getCacheStats().getMisses());
+        assertEquals(7, videoService.getCacheStats().getHits());
+    }
+
+    /**
+     * Tests whether a delisted video stops being playable immediately, even after it was cached.
+     */
+    @Test
+    void shouldStopPlayingDelistedVideoImmediately() {
+        Video delisted = video.toBuilder().isActive(false).build();
+        when(videoRepository.findById(videoId)).thenReturn(Optional.of(video), Optional.of(video), Optional.of(delisted));
+        when(videoRepository.save(video)).thenReturn(video);
+        when(mediaStorage.locate("inception.mp4")).thenReturn(Optional.of(Path.of("/media/inception.mp4")));
+
+        assertEquals(Path.of("/media/inception.mp4"), videoService.playVideo(videoId));
+        videoService.delistVideo(videoId);
+
+        assertThrows(ResponseStatusException.class, () -> videoService.playVideo(videoId));
+        verify(videoCache).invalidate(videoId);
+    }
+
+    /**
+     * Tests whether updating a video replaces the cached copy.
+     */
+    @Test
+    void shouldInvalidateCachedVideoOnUpdate() {
+        Video renamed = video.toBuilder().title("Tenet").build();
+        when(videoRepository.findById(videoId)).thenReturn(Optional.of(video), Optional.of(video), Optional.of(renamed));
+        when(videoRepository.save(video)).thenReturn(video);
+
+        assertEquals("Inception", videoService.getVideo(videoId).orElseThrow().getTitle());
+        videoService.updateVideo(videoId, renamed);
+
+        assertEquals("Tenet", videoService.getVideo(videoId).orElseThrow().getTitle());
+    }
+
+    /**
+     * Tests whether publishing a video clears a previously cached "not found" entry for its ID.
+     */
+    @Test
+    void shouldInvalidateNegativeEntryOnPublish() {
+        when(videoRepository.findById(videoId)).thenReturn(Optional.empty(), Optional.of(video));
+        when(videoRepository.save(video)).thenReturn(video);
+
+        assertTrue(videoService.getVideo(videoId).isEmpty());
+        videoService.publishVideo(video);
+
+        assertTrue(videoService.getVideo(videoId).isPresent());
+    }
+
+    /**
+     * Tests whether single-video metadata is resolved with the fused title-and-views query.
+     */
+    @Test
+    void shouldReturnMetadataFromJoinedQuery() {
+        when(videoRepository.findMetadataByIdIn(List.of(videoId))).thenReturn(List.of(metadataRow(videoId, "Inception", 148, 7)));
+
+        VideoMetadataResponse metadata = videoService.getVideoMetadata(videoId);
+
+        assertEquals("Inception", metadata.getTitle());
+        assertEquals(148, metadata.getRunningTime());
+        assertEquals(7, metadata.getViews());
+    }
+
+    /**
+     * Tests whether metadata of an unknown video is rejected with 404.
+     */
+    @Test
+    void shouldReturnNotFoundForUnknownVideoMetadata() {
+        when(videoRepository.findMetadataByIdIn(List.of(videoId))).thenReturn(List.of());
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> videoService.getVideoMetadata(videoId));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    /**
+     * Tests whether the replicated engagement counters are only looked up when enabled, and then
+     * added to the view counts of summaries and metadata with one lookup per call.
+     */
+    @Test
+    void shouldAddReplicatedCountersOnlyWhenEnabled() {
+        UUID otherId = UUID.randomUUID();
+        List<VideoSummaryDTO> matches = List.of(summary(videoId, "Inception", 1), summary(otherId, "Tenet", 2));
+        when(videoRepository.findSummariesByDirector("nolan")).thenReturn(matches);
+        when(videoRepository.findMetadataByIdIn(List.of(videoId))).thenReturn(List.of(metadataRow(videoId, "Inception", 148, 7)));
+
+        assertEquals(matches, videoService.searchByDirector("nolan"));
+        assertEquals(7, videoService.getVideoMetadata(videoId).getViews());
+        verify(replicatedEngagementCounters, never()).totalsFor(anyCollection());
+
+        when(replicatedEngagementCounters.isEnabled()).thenReturn(true);
+        when(replicatedEngagementCounters.totalsFor(List.of(videoId, otherId)))
+                .thenReturn(Map.of(videoId, new long[]{50, 40}));
+        when(replicatedEngagementCounters.totalsFor(List.of(videoId)))
+                .thenReturn(Map.of(videoId, new long[]{50, Integer.MAX_VALUE}));
+
+        List<VideoSummaryDTO> merged = videoService.searchByDirector("nolan");
+        assertEquals(List.of(videoId, otherId), merged.stream().map(VideoSummaryDTO::getId).toList());
+        assertEquals(40, merged.get(0).getViews());
+        assertSame(matches.get(1), merged.get(1));
+        assertEquals(Integer.MAX_VALUE, videoService.getVideoMetadata(videoId).getViews());
+    }
+
+    /**
+     * Tests whether a batch lookup answers in request order, repeats duplicates
+     * and reports missing IDs individually, with one repository call.
+     */
+    @Test
+    void shouldReturnBatchMetadataInRequestOrder() {
+        UUID otherId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        List<UUID> requested = List.of(otherId, missingId, videoId, otherId);
+        when(videoRepository.findMetadataByIdIn(new LinkedHashSet<>(requested))).thenReturn(List.of(
+                metadataRow(videoId, "Inception", 148, 7), metadataRow(otherId, "Tenet", 150, 2)));
+
+        List<VideoMetadataResultDTO> results = videoService.getVideoMetadata(requested);
+
+        assertEquals(requested, results.stream().map(VideoMetadataResultDTO::getId).toList());
+        assertEquals("Tenet", results.get(0).getMetadata().getTitle());
+        assertNull(results.get(1).getMetadata());
+        assertEquals("Video not found", results.get(1).getError());
+        assertEquals(7, results.get(2).getMetadata().getViews());
+        assertEquals("Tenet", results.get(3).getMetadata().getTitle());
+        verify(videoRepository, times(1)).findMetadataByIdIn(any());
+    }
+
+    /**
+     * Tests whether empty and oversized batches are rejected with 400.
+     */
+    @Test
+    void shouldRejectEmptyOrOversizedMetadataBatch() {
+        List<UUID> tooMany = Collections.nCopies(VideoService.MAX_METADATA_BATCH + 1, videoId);
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+                () -> videoService.getVideoMetadata(List.<UUID>of())).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+                () -> videoService.getVideoMetadata(tooMany)).getStatusCode());
+        verifyNoInteractions(videoRepository);
+    }
+
+    /**
+     * Tests whether attaching an uploaded media file links it to the video and refreshes the cached copy.
+     */
+    @Test
+    void shouldAttachMediaAndInvalidateCache() {
+        when(videoRepository.findById(videoId)).thenReturn(Optional.of(video));
+        when(videoRepository.save(video)).thenReturn(video);
+        videoService.getVideo(videoId);
+
+        videoService.attachMedia(videoId, videoId + ".mp4", 1024L, "abc123");
+
+        assertEquals(videoId + ".mp4", video.getMediaPath());
+        assertEquals(1024L, video.getMediaSize());
+        assertEquals("abc123", video.getMediaChecksum());
+        verify(videoCache).invalidate(videoId);
+    }
+
+    private static VideoMetadataRow metadataRow(UUID id, String title, int runningTime, int views) {
+        return new VideoMetadataRow() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public int getRunningTime() {
+                return runningTime;
+            }
+
+            @Override
+            public int getViews() {
+                return views;
+            }
+        };
+    }
+}
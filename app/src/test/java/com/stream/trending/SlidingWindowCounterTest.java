@@ -0,0 +1,85 @@
+package com.stream.trending;
+
+import com.stream.dto.TrendingVideoDTO;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link SlidingWindowCounter}.
+ */
+class SlidingWindowCounterTest {
+    private static final long MINUTE = 60_000;
+
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+    private final UUID third = UUID.randomUUID();
+
+    /**
+     * Tests whether videos are ranked by their total views over the window.
+     */
+    @Test
+    void shouldRankByViews() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(MINUTE, 60, 1);
+        counter.add(first, 0, 5, 0);
+        counter.add(second, MINUTE, 3, 0);
+        counter.add(second, 2 * MINUTE, 4, 0);
+        counter.add(third, 2 * MINUTE, 1, 0);
+
+        List<TrendingVideoDTO> top = counter.top(2 * MINUTE, TrendingRanking.VIEWS, 2);
+
+        assertEquals(List.of(second, first), top.stream().map(TrendingVideoDTO::getVideoId).toList());
+        assertEquals(7, top.get(0).getViews());
+    }
+
+    /**
+     * Tests whether counts leave the rankings once their bucket slides out of the window.
+     */
+    @Test
+    void shouldExpireBucketsOutsideWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(MINUTE, 60, 1);
+        counter.add(first, 0, 10, 0);
+        counter.add(second, 30 * MINUTE, 2, 0);
+        counter.add(second, 59 * MINUTE, 2, 0);
+
+        assertEquals(first, counter.top(59 * MINUTE, TrendingRanking.VIEWS, 1).get(0).getVideoId());
+
+        List<TrendingVideoDTO> top = counter.top(60 * MINUTE, TrendingRanking.VIEWS, 10);
+        assertEquals(1, top.size());
+        assertEquals(second, top.get(0).getVideoId());
+        assertEquals(4, top.get(0).getViews());
+
+        assertTrue(counter.top(200 * MINUTE, TrendingRanking.VIEWS, 10).isEmpty());
+        assertEquals(0, counter.size());
+    }
+
+    /**
+     * Tests whether counts for a time that already left the window are ignored.
+     */
+    @Test
+    void shouldIgnoreLateCounts() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(MINUTE, 60, 1);
+        counter.add(first, 100 * MINUTE, 1, 0);
+        counter.add(second, 10 * MINUTE, 50, 0);
+
+        assertEquals(1, counter.size());
+    }
+
+    /**
+     * Tests whether the view-rate ranking orders by views per impression and skips videos
+     * without enough impressions.
+     */
+    @Test
+    void shouldRankByRatioAboveImpressionThreshold() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(MINUTE, 60, 10);
+        counter.add(first, 0, 5, 20);
+        counter.add(second, 0, 6, 10);
+        counter.add(third, 0, 5, 5);
+
+        List<TrendingVideoDTO> top = counter.top(0, TrendingRanking.RATIO, 10);
+
+        assertEquals(List.of(second, first), top.stream().map(TrendingVideoDTO::getVideoId).toList());
+        assertEquals(0.6, top.get(0).getViewRate(), 1e-9);
+    }
+}
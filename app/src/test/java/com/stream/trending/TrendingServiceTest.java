@@ -0,0 +1,153 @@
+package com.stream.trending;
+
+import com.stream.dto.TrendingVideoDTO;
+import com.stream.model.EngagementRollup;
+import com.stream.repository.EngagementRollupRepository;
+import com.stream.repository.EngagementRollupRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test class for {@link TrendingService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrendingServiceTest {
+    private static final Instant NOW = Instant.parse("2026-03-01T12:30:15Z");
+
+    @Mock
+    private EngagementRollupRepository engagementRollupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TrendingService trendingService;
+    private UUID videoId;
+
+    @BeforeEach
+    void setUp() {
+        trendingService = new TrendingService(engagementRollupRepository, new TransactionTemplate(transactionManager),
+                Clock.fixed(NOW, ZoneOffset.UTC), 1, 60_000);
+        videoId = UUID.randomUUID();
+    }
+
+    /**
+     * Tests whether recorded events show up in every window without touching the database.
+     */
+    @Test
+    void shouldServeRecordedEventsFromMemory() {
+        trendingService.record(videoId, 1, 0);
+        trendingService.record(videoId, 0, 4);
+
+        for (TrendingWindow window : TrendingWindow.values()) {
+            List<TrendingVideoDTO> top = trendingService.top(window, TrendingRanking.VIEWS, 10);
+            assertEquals(1, top.size());
+            assertEquals(0.25, top.get(0).getViewRate(), 1e-9);
+        }
+        verifyNoInteractions(engagementRollupRepository);
+    }
+
+    /**
+     * Tests whether a flush writes one minute and one hourly rollup per video and prunes old rollups.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFlushMinuteAndHourRollups() {
+        trendingService.record(videoId, 2, 3);
+        trendingService.record(videoId, 1, 0);
+
+        trendingService.flush();
+
+        ArgumentCaptor<Map<EngagementRollup.Key, long[]>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(engagementRollupRepository).addAll(deltas.capture());
+        long minute = Instant.parse("2026-03-01T12:30:00Z").toEpochMilli();
+        long hour = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+        assertArrayEquals(new long[]{3, 3}, deltas.getValue().get(new EngagementRollup.Key(videoId, 1, minute)));
+        assertArrayEquals(new long[]{3, 3}, deltas.getValue().get(new EngagementRollup.Key(videoId, 60, hour)));
+        verify(engagementRollupRepository).deleteOlderThan(1, NOW.toEpochMilli() - 3_600_000);
+        verify(engagementRollupRepository).deleteOlderThan(60, NOW.toEpochMilli() - 7 * 86_400_000L);
+    }
+
+    /**
+     * Tests whether rollups that failed to be written are retried on the next flush.
+     */
+    @Test
+    void shouldRetryRollupsAfterFailedFlush() {
+        trendingService.record(videoId, 1, 0);
+        doThrow(new IllegalStateException("down")).doNothing().when(engagementRollupRepository).addAll(anyMap());
+
+        assertThrows(IllegalStateException.class, trendingService::flush);
+        trendingService.flush();
+
+        verify(engagementRollupRepository, times(2)).addAll(argThat(deltas -> deltas.size() == 2));
+    }
+
+    /**
+     * Tests whether minute rollups rebuild the hour window and hourly rollups the longer windows.
+     */
+    @Test
+    void shouldRebuildWindowsFromRollups() {
+        long minute = Instant.parse("2026-03-01T12:10:00Z").toEpochMilli();
+        long twoDaysAgo = Instant.parse("2026-02-27T13:00:00Z").toEpochMilli();
+        UUID older = UUID.randomUUID();
+        when(engagementRollupRepository.streamSince(anyLong())).thenReturn(Stream.of(
+                row(videoId, 1, minute, 4),
+                row(videoId, 60, Instant.parse("2026-03-01T12:00:00Z").toEpochMilli(), 4),
+                row(older, 60, twoDaysAgo, 9)));
+
+        trendingService.rebuild();
+
+        assertEquals(List.of(videoId), ids(TrendingWindow.HOUR));
+        assertEquals(List.of(videoId), ids(TrendingWindow.DAY));
+        assertEquals(List.of(older, videoId), ids(TrendingWindow.WEEK));
+    }
+
+    private List<UUID> ids(TrendingWindow window) {
+        return trendingService.top(window, TrendingRanking.VIEWS, 10).stream().map(TrendingVideoDTO::getVideoId).toList();
+    }
+
+    private static EngagementRollupRow row(UUID videoId, int bucketMinutes, long bucketStart, long views) {
+        return new EngagementRollupRow() {
+            @Override
+            public UUID getVideoId() {
+                return videoId;
+            }
+
+            @Override
+            public int getBucketMinutes() {
+                return bucketMinutes;
+            }
+
+            @Override
+            public long getBucketStart() {
+                return bucketStart;
+            }
+
+            @Override
+            public long getViews() {
+                return views;
+            }
+
+            @Override
+            public long getImpressions() {
+                return 0;
+            }
+        };
+    }
+}
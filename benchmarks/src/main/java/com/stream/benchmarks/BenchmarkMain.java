@@ -0,0 +1,35 @@
+package com.stream.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}.
+ * <p>
+ * Accepts the usual JMH command line, but writes machine-readable JSON results to
+ * {@code jmh-result.json} unless another result format or file is given, so that runs of
+ * different releases can be compared:
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar                       # everything
+ * java -jar benchmarks/target/benchmarks.jar Serialization -rff serialization.json
+ * </pre>
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.addAll(List.of("-rf", "json"));
+        }
+        if (!options.contains("-rff")) {
+            options.addAll(List.of("-rff", "jmh-result.json"));
+        }
+        Main.main(options.toArray(String[]::new));
+    }
+}
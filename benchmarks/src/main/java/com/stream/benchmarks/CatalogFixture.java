@@ -0,0 +1,88 @@
+package com.stream.benchmarks;
+
+import com.stream.StreamApplication;
+import com.stream.search.CreditsSearchIndex;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs the application without its web server against an embedded H2 database holding a
+ * synthetic catalog.
+ * <p>
+ * Every fixture uses its own in-memory database, so benchmarks with different catalog sizes
+ * never see each other's rows.
+ */
+final class CatalogFixture implements AutoCloseable {
+    static final String[] GENRES = {"Drama", "Comedy", "Action", "Documentary", "Horror"};
+
+    private final ConfigurableApplicationContext context;
+    private final List<UUID> videoIds;
+
+    private CatalogFixture(ConfigurableApplicationContext context, List<UUID> videoIds) {
+        this.context = context;
+        this.videoIds = videoIds;
+    }
+
+    /**
+     * Starts the application and inserts active videos, each with engagement statistics.
+     *
+     * @param catalogSize The number of videos to insert.
+     * @return The running fixture; close it at the end of the trial.
+     */
+    static CatalogFixture start(int catalogSize) {
+        // Command-line arguments take precedence over the packaged application.properties.
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(StreamApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark_" + UUID.randomUUID()
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<UUID> videoIds = new ArrayList<>(catalogSize);
+        List<Object[]> videos = new ArrayList<>();
+        List<Object[]> stats = new ArrayList<>();
+        for (int i = 0; i < catalogSize; i++) {
+            UUID id = UUID.randomUUID();
+            videoIds.add(id);
+            videos.add(new Object[]{id, "Title " + i, "A synopsis for title " + i, "Director " + (i % 500),
+                    "Actor A, Actor B", 1950 + i % 70, GENRES[i % GENRES.length], 90 + i % 60, (long) i});
+            stats.add(new Object[]{UUID.randomUUID(), id, i * 7, i * 3});
+            if (videos.size() == 10_000 || i == catalogSize - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO video (id, title, synopsis, director, video_cast, year_of_release, "
+                        + "genre, running_time, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, TRUE, ?, 0)", videos);
+                jdbcTemplate.batchUpdate("INSERT INTO engagement_stats (id, video_id, impressions, views) VALUES (?, ?, ?, ?)", stats);
+                videos.clear();
+                stats.clear();
+            }
+        }
+        context.getBean(CreditsSearchIndex.class).rebuild();
+        return new CatalogFixture(context, videoIds);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * @return The IDs of the inserted videos, in creation order.
+     */
+    List<UUID> videoIds() {
+        return videoIds;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
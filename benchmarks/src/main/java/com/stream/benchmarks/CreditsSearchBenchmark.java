@@ -0,0 +1,75 @@
+package com.stream.benchmarks;
+
+import com.stream.dto.VideoSummaryDTO;
+import com.stream.repository.VideoRepository;
+import com.stream.search.CreditsSearchIndex;
+import com.stream.service.VideoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a director substring search through the {@code LIKE '%x%'} query, the trigram
+ * lookup of {@link CreditsSearchIndex} alone, and the lookup followed by loading the summaries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditsSearchBenchmark {
+
+    @Param({"50000"})
+    public int catalogSize;
+
+    @Param({"director 417", "ector 99", "xyz"})
+    public String query;
+
+    private CatalogFixture fixture;
+    private VideoRepository videoRepository;
+    private CreditsSearchIndex creditsSearchIndex;
+    private VideoService videoService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CatalogFixture.start(catalogSize);
+        videoRepository = fixture.bean(VideoRepository.class);
+        creditsSearchIndex = fixture.bean(CreditsSearchIndex.class);
+        videoService = fixture.bean(VideoService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<VideoSummaryDTO> likeQuery() {
+        return videoRepository.findSummariesByDirector(query);
+    }
+
+    @Benchmark
+    public List<UUID> trigramLookup() {
+        return creditsSearchIndex.search(CreditsSearchIndex.Field.DIRECTOR, query);
+    }
+
+    @Benchmark
+    public List<VideoSummaryDTO> trigramLookupAndLoad() {
+        return videoService.searchByDirector(query);
+    }
+}
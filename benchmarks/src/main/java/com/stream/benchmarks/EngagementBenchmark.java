@@ -0,0 +1,95 @@
+package com.stream.benchmarks;
+
+import com.stream.model.EngagementStats;
+import com.stream.repository.EngagementStatsRepository;
+import com.stream.service.EngagementService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of recording engagement events with the atomic database increment, against an
+ * embedded H2 database, from several threads spread over the whole catalog or all on one hot video.
+ * <p>
+ * {@link #recordImpressionReadModifyWrite()} runs the legacy load, increment and save in one
+ * transaction that the atomic increment replaced, as the baseline to compare with. It may lose
+ * updates under contention; only its throughput is of interest here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EngagementBenchmark {
+    private static final int CATALOG_SIZE = 10_000;
+
+    @Param({"catalog", "hot"})
+    public String target;
+
+    private CatalogFixture fixture;
+    private EngagementService engagementService;
+    private EngagementStatsRepository engagementStatsRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<UUID> videoIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CatalogFixture.start(CATALOG_SIZE);
+        engagementService = fixture.bean(EngagementService.class);
+        engagementStatsRepository = fixture.bean(EngagementStatsRepository.class);
+        transactionTemplate = new TransactionTemplate(fixture.bean(PlatformTransactionManager.class));
+        videoIds = fixture.videoIds();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void recordView() {
+        engagementService.recordView(randomVideo());
+    }
+
+    @Benchmark
+    public void recordImpression() {
+        engagementService.recordImpression(randomVideo());
+    }
+
+    @Benchmark
+    public void recordImpressionReadModifyWrite() {
+        UUID videoId = randomVideo();
+        transactionTemplate.executeWithoutResult(status -> {
+            EngagementStats stats = engagementStatsRepository.findByVideoId(videoId).orElseThrow();
+            stats.incrementImpressions();
+            engagementStatsRepository.save(stats);
+        });
+    }
+
+    private UUID randomVideo() {
+        if ("hot".equals(target)) {
+            return videoIds.get(0);
+        }
+        return videoIds.get(ThreadLocalRandom.current().nextInt(videoIds.size()));
+    }
+}
@@ -0,0 +1,90 @@
+package com.stream.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stream.dto.VideoSummaryDTO;
+import com.stream.model.Video;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of serializing the full {@link Video} entity compared with the slim {@link VideoSummaryDTO}
+ * served by the listing endpoints, for a single video and for a page of videos.
+ * <p>
+ * Uses an {@link ObjectMapper} configured the way Spring MVC configures its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper objectMapper;
+    private List<Video> videos;
+    private List<VideoSummaryDTO> summaries;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        videos = new ArrayList<>(PAGE_SIZE);
+        summaries = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Video video = Video.builder()
+                    .id(UUID.randomUUID())
+                    .title("Title " + i)
+                    .synopsis("A synopsis long enough to resemble a real one, describing the plot of title " + i + ".")
+                    .director("Director " + i)
+                    .videoCast("Actor A, Actor B, Actor C, Actor D")
+                    .yearOfRelease(1990 + i)
+                    .genre("Drama")
+                    .runningTime(90 + i)
+                    .mediaPath(UUID.randomUUID() + ".mp4")
+                    .mediaSize(1_500_000_000L)
+                    .mediaChecksum("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+                    .isActive(true)
+                    .createdAt(1_700_000_000_000L + i)
+                    .updatedAt(1_700_000_000_000L + i)
+                    .build();
+            videos.add(video);
+            summaries.add(new VideoSummaryDTO(video.getId(), video.getTitle(), video.getDirector(), video.getGenre(),
+                    video.getYearOfRelease(), video.getRunningTime(), i * 11, video.getCreatedAt()));
+        }
+    }
+
+    @Benchmark
+    public byte[] video() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(videos.get(0));
+    }
+
+    @Benchmark
+    public byte[] summary() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaries.get(0));
+    }
+
+    @Benchmark
+    public byte[] videoPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(videos);
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
@@ -0,0 +1,85 @@
+package com.stream.benchmarks;
+
+import com.stream.dto.CursorPageDTO;
+import com.stream.dto.VideoSummaryDTO;
+import com.stream.model.VideoMetadataResponse;
+import com.stream.service.VideoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the catalog read paths of {@link VideoService} for growing catalogs.
+ * <p>
+ * Keyset paging and the joined metadata query should cost the same regardless of the catalog
+ * size; a score that grows with {@code catalogSize} points at a missing index or a scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VideoServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int catalogSize;
+
+    private CatalogFixture fixture;
+    private VideoService videoService;
+    private List<UUID> videoIds;
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CatalogFixture.start(catalogSize);
+        videoService = fixture.bean(VideoService.class);
+        videoIds = fixture.videoIds();
+        // Walk into the middle of the catalog to benchmark a page far from the start.
+        CursorPageDTO<VideoSummaryDTO> page = videoService.listVideos(null, 100, null, null);
+        for (int i = 1; i < catalogSize / 200 && page.getNextCursor() != null; i++) {
+            page = videoService.listVideos(page.getNextCursor(), 100, null, null);
+        }
+        deepCursor = page.getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public VideoMetadataResponse getVideoMetadata() {
+        return videoService.getVideoMetadata(videoIds.get(ThreadLocalRandom.current().nextInt(videoIds.size())));
+    }
+
+    @Benchmark
+    public CursorPageDTO<VideoSummaryDTO> listVideosFirstPage() {
+        return videoService.listVideos(null, 20, null, null);
+    }
+
+    @Benchmark
+    public CursorPageDTO<VideoSummaryDTO> listVideosDeepPage() {
+        return videoService.listVideos(deepCursor, 20, null, null);
+    }
+
+    @Benchmark
+    public CursorPageDTO<VideoSummaryDTO> listVideosByGenre() {
+        return videoService.listVideos(null, 20, "Comedy", null);
+    }
+}
@@ -0,0 +1,98 @@
+package com.stream.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.stream.config.SerializationConfig;
+import com.stream.dto.CursorPageDTO;
+import com.stream.dto.VideoSummaryDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cost and size of a page of the listing endpoint in each response format the API negotiates:
+ * JSON, CBOR or Smile, with or without gzip, with all fields or a sparse fieldset.
+ * <p>
+ * The bytes on the wire for each combination are printed when its trial ends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"none", "gzip"})
+    private String compression;
+
+    @Param({"all", "sparse"})
+    private String fields;
+
+    private ObjectWriter writer;
+    private CursorPageDTO<VideoSummaryDTO> page;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        SerializationConfig.sparseFieldsets(builder);
+        switch (format) {
+            case "smile" -> builder.factory(new SmileFactory());
+            case "cbor" -> builder.factory(new CBORFactory());
+            default -> {
+            }
+        }
+        writer = "sparse".equals(fields)
+                ? builder.build().writer(SerializationConfig.onlyFields(Set.of("id", "title", "runningTime")))
+                : builder.build().writer();
+
+        List<VideoSummaryDTO> summaries = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            summaries.add(new VideoSummaryDTO(UUID.randomUUID(), "Title " + i, "Director " + (i % 40), "Drama",
+                    1990 + i % 30, 90 + i % 60, i * 11, 1_700_000_000_000L + i));
+        }
+        page = new CursorPageDTO<>(summaries, "eyJjcmVhdGVkQXQiOjE3MDAwMDAwMDAwOTl9");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.out.printf("%n%s/%s/%s: %d bytes per page of %d%n", format, compression, fields, page().length, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public byte[] page() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        if ("gzip".equals(compression)) {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+                writer.writeValue(gzip, page);
+            }
+        } else {
+            writer.writeValue(bytes, page);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,72 @@
+package com.stream.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps a fixed number of clients busy, each sending its next request as soon as the previous
+ * response arrives.
+ * <p>
+ * This models a fixed population of concurrent users rather than an arrival rate: throughput is
+ * whatever the server sustains, and latency is measured from the actual send time. It is the
+ * setting in which the execution modes differ, since every client holds a server thread while its
+ * request is served. Because clients wait for slow responses, stalls reduce throughput instead of
+ * showing up fully in the percentiles; use {@link OpenLoopDriver} to measure latency at a given rate.
+ */
+final class ClosedLoopDriver {
+    private final HttpClient client;
+    private final URI baseUri;
+    private final RequestMix mix;
+    private final Duration timeout;
+
+    ClosedLoopDriver(HttpClient client, URI baseUri, List<UUID> videoIds, Map<Operation, Integer> mix, Duration timeout) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.mix = new RequestMix(videoIds, mix);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Runs the request mix from the given number of clients and waits for every response.
+     *
+     * @param clients  The number of concurrent clients, each on its own virtual thread.
+     * @param duration How long clients keep sending requests.
+     * @return The recorded latencies and failures.
+     */
+    Recording run(int clients, Duration duration) {
+        Recording recording = new Recording();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                pool.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = mix.nextOperation();
+                        HttpRequest request = operation.build(baseUri, mix.nextVideo(), timeout);
+                        long sent = System.nanoTime();
+                        boolean failed;
+                        try {
+                            failed = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 != 2;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            failed = true;
+                        }
+                        recording.record(operation, System.nanoTime() - sent, failed);
+                    }
+                });
+            }
+        }
+        recording.setElapsedNanos(System.nanoTime() - start);
+        return recording;
+    }
+}
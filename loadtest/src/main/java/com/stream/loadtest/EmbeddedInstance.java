@@ -0,0 +1,123 @@
+package com.stream.loadtest;
+
+import com.stream.StreamApplication;
+import com.stream.search.CreditsSearchIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * The application under test, started on a random port against an in-memory H2 database that
+ * holds a synthetic catalog.
+ * <p>
+ * Every video has engagement statistics and points at the same media file, so that every
+ * operation of the request mix can address any video.
+ */
+final class EmbeddedInstance implements AutoCloseable {
+    static final String[] GENRES = {"Drama", "Comedy", "Action", "Documentary", "Horror"};
+    static final int DIRECTORS = 500;
+
+    private static final String MEDIA_FILE = "sample.mp4";
+    private static final int MEDIA_SIZE = 4 * 1024 * 1024;
+
+    private final ConfigurableApplicationContext context;
+    private final Path storage;
+    private final URI baseUri;
+    private final List<UUID> videoIds;
+
+    private EmbeddedInstance(ConfigurableApplicationContext context, Path storage, URI baseUri, List<UUID> videoIds) {
+        this.context = context;
+        this.storage = storage;
+        this.baseUri = baseUri;
+        this.videoIds = videoIds;
+    }
+
+    /**
+     * Starts the application and seeds its catalog.
+     *
+     * @param catalogSize    The number of active videos to insert.
+     * @param virtualThreads Whether to run in the virtual-thread execution mode.
+     * @return The running instance; close it when the run is over.
+     */
+    static EmbeddedInstance start(int catalogSize, boolean virtualThreads) throws IOException {
+        Path storage = Files.createTempDirectory("stream-loadtest");
+        byte[] media = new byte[MEDIA_SIZE];
+        new Random(42).nextBytes(media);
+        Files.write(storage.resolve(MEDIA_FILE), media);
+
+        SpringApplicationBuilder application = new SpringApplicationBuilder(StreamApplication.class).logStartupInfo(false);
+        if (virtualThreads) {
+            application.profiles("virtual-threads");
+        }
+        // Command-line arguments take precedence over the packaged application.properties.
+        ConfigurableApplicationContext context = application.run("--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest_" + UUID.randomUUID()
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--media.storage-dir=" + storage,
+                "--server.tomcat.max-connections=10000",
+                "--logging.level.root=WARN");
+        List<UUID> videoIds = seed(context.getBean(JdbcTemplate.class), catalogSize);
+        context.getBean(CreditsSearchIndex.class).rebuild();
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        return new EmbeddedInstance(context, storage, URI.create("http://localhost:" + port), videoIds);
+    }
+
+    private static List<UUID> seed(JdbcTemplate jdbcTemplate, int catalogSize) {
+        List<UUID> videoIds = new ArrayList<>(catalogSize);
+        List<Object[]> videos = new ArrayList<>();
+        List<Object[]> stats = new ArrayList<>();
+        for (int i = 0; i < catalogSize; i++) {
+            UUID id = UUID.randomUUID();
+            videoIds.add(id);
+            videos.add(new Object[]{id, "Title " + i, "A synopsis for title " + i, "Director " + (i % DIRECTORS),
+                    "Actor A, Actor B", 1950 + i % 70, GENRES[i % GENRES.length], 90 + i % 60, MEDIA_FILE,
+                    (long) MEDIA_SIZE, (long) i});
+            stats.add(new Object[]{UUID.randomUUID(), id, i % 1000, i % 100});
+            if (videos.size() == 10_000 || i == catalogSize - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO video (id, title, synopsis, director, video_cast, year_of_release, "
+                        + "genre, running_time, media_path, media_size, is_active, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, ?, 0)", videos);
+                jdbcTemplate.batchUpdate("INSERT INTO engagement_stats (id, video_id, impressions, views) "
+                        + "VALUES (?, ?, ?, ?)", stats);
+                videos.clear();
+                stats.clear();
+            }
+        }
+        return videoIds;
+    }
+
+    /**
+     * @return The base URI of the running instance.
+     */
+    URI baseUri() {
+        return baseUri;
+    }
+
+    /**
+     * @return The IDs of the seeded videos.
+     */
+    List<UUID> videoIds() {
+        return videoIds;
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(storage);
+    }
+}
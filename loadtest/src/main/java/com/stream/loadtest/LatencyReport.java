@@ -0,0 +1,142 @@
+package com.stream.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Summary of a load test run that can be stored and compared with the run of another commit.
+ * <p>
+ * Besides the usual percentiles, every operation carries its full latency histogram in the
+ * compressed, Base64-encoded HdrHistogram format, so that other percentiles can be computed or
+ * runs merged later.
+ *
+ * @param label      The label given on the command line, e.g. a commit hash.
+ * @param startedAt  When the measured run started.
+ * @param settings   The settings of the run.
+ * @param operations Statistics per operation, plus {@value #ALL} for the whole mix.
+ */
+record LatencyReport(String label, String startedAt, Settings settings, Map<String, OperationStats> operations) {
+    static final String ALL = "all";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * @param rate            Requests started per second, unless closed-loop clients were used.
+     * @param clients         The number of closed-loop clients, or 0 for a fixed arrival rate.
+     * @param warmupSeconds   Seconds run before recording.
+     * @param durationSeconds Seconds recorded.
+     * @param catalogSize     The number of videos in the catalog.
+     * @param mix             The relative weight of every operation.
+     * @param virtualThreads  Whether the instance ran in the virtual-thread execution mode.
+     */
+    record Settings(double rate, int clients, long warmupSeconds, long durationSeconds, int catalogSize,
+                    Map<String, Integer> mix, boolean virtualThreads) {
+    }
+
+    /**
+     * Latency statistics of one operation, in milliseconds, measured from the intended send time
+     * (the actual send time with closed-loop clients).
+     *
+     * @param count      The number of completed requests.
+     * @param failures   The number of requests that failed or got a non-2xx status.
+     * @param throughput Completed requests per second.
+     * @param histogram  The compressed latency histogram, in microseconds.
+     */
+    record OperationStats(long count, long failures, double throughput, double meanMs, double p50Ms,
+                          double p90Ms, double p99Ms, double p999Ms, double maxMs, String histogram) {
+
+        static OperationStats of(Histogram latencies, long failures, double seconds) {
+            ByteBuffer buffer = ByteBuffer.allocate(latencies.getNeededByteBufferCapacity());
+            int length = latencies.encodeIntoCompressedByteBuffer(buffer);
+            return new OperationStats(latencies.getTotalCount(), failures, latencies.getTotalCount() / seconds,
+                    millis(latencies.getMean()), millis(latencies.getValueAtPercentile(50)),
+                    millis(latencies.getValueAtPercentile(90)), millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)), millis(latencies.getMaxValue()),
+                    Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        }
+
+        private static double millis(double micros) {
+            return Math.round(micros) / 1000.0;
+        }
+    }
+
+    static LatencyReport of(LoadTestOptions options, Recording recording, Instant startedAt) {
+        double seconds = recording.elapsedNanos() / 1e9;
+        Map<String, OperationStats> operations = new LinkedHashMap<>();
+        Histogram all = null;
+        for (Operation operation : options.mix().keySet()) {
+            Histogram latencies = recording.latencies(operation);
+            long failures = recording.failures(operation);
+            operations.put(operation.key(), OperationStats.of(latencies, failures, seconds));
+            if (all == null) {
+                all = latencies.copy();
+            } else {
+                all.add(latencies);
+            }
+        }
+        long failures = options.mix().keySet().stream().mapToLong(recording::failures).sum();
+        operations.put(ALL, OperationStats.of(all, failures, seconds));
+
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+        Settings settings = new Settings(options.rate(), options.clients(), options.warmup().toSeconds(),
+                options.duration().toSeconds(), options.catalogSize(), mix, options.virtualThreads());
+        return new LatencyReport(options.label(), startedAt.toString(), settings, operations);
+    }
+
+    static LatencyReport read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), LatencyReport.class);
+    }
+
+    void write(Path path) throws IOException {
+        MAPPER.writeValue(path.toFile(), this);
+    }
+
+    /**
+     * @return The statistics as a table.
+     */
+    String format() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%-11s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        operations.forEach((name, stats) -> table.append(String.format(Locale.ROOT,
+                "%-11s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, stats.count(), stats.failures(),
+                stats.throughput(), stats.p50Ms(), stats.p90Ms(), stats.p99Ms(), stats.p999Ms(), stats.maxMs())));
+        return table.toString();
+    }
+
+    /**
+     * Compares the percentiles of this run with those of an earlier one.
+     *
+     * @param baseline The earlier report.
+     * @return A table of relative changes per operation; positive means slower.
+     */
+    String compare(LatencyReport baseline) {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%-11s %10s %10s %10s %10s%n",
+                "vs " + (baseline.label().isEmpty() ? "baseline" : baseline.label()), "p50", "p99", "p99.9", "errors"));
+        operations.forEach((name, stats) -> {
+            OperationStats before = baseline.operations().get(name);
+            if (before == null) {
+                return;
+            }
+            table.append(String.format(Locale.ROOT, "%-11s %10s %10s %10s %+10d%n", name,
+                    change(before.p50Ms(), stats.p50Ms()), change(before.p99Ms(), stats.p99Ms()),
+                    change(before.p999Ms(), stats.p999Ms()), stats.failures() - before.failures()));
+        });
+        return table.toString();
+    }
+
+    private static String change(double before, double after) {
+        return before == 0 ? "n/a" : String.format(Locale.ROOT, "%+.1f%%", (after - before) / before * 100);
+    }
+}
@@ -0,0 +1,85 @@
+package com.stream.loadtest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Entry point of {@code loadtest.jar}: boots the API on H2 with a seeded catalog, drives the
+ * request mix at a fixed arrival rate or from a fixed number of clients, and writes a latency report.
+ * <pre>
+ * java -jar loadtest/target/loadtest.jar --rate=500 --duration=60s --label=$(git rev-parse --short HEAD)
+ * java -jar loadtest/target/loadtest.jar --rate=500 --baseline=previous-report.json
+ * java -jar loadtest/target/loadtest.jar --clients=5000 --mix=search:1 --compare-modes
+ * </pre>
+ * Options: {@code --rate}, {@code --clients}, {@code --warmup}, {@code --duration}, {@code --timeout},
+ * {@code --catalog}, {@code --mix} (e.g. {@value LoadTestOptions#DEFAULT_MIX}), {@code --virtual-threads},
+ * {@code --compare-modes}, {@code --report}, {@code --baseline} and {@code --label}.
+ * <p>
+ * With {@code --compare-modes} the run is repeated in the platform-thread and the virtual-thread
+ * execution mode, each on a fresh instance, and the virtual-thread run is compared with the other.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (options.compareModes()) {
+            LatencyReport platform = run(options.forMode(false));
+            LatencyReport virtual = run(options.forMode(true));
+            System.out.print(virtual.compare(platform));
+            return;
+        }
+        LatencyReport report = run(options);
+        if (options.baseline() != null && Files.exists(options.baseline())) {
+            System.out.print(report.compare(LatencyReport.read(options.baseline())));
+        }
+    }
+
+    private static LatencyReport run(LoadTestOptions options) throws Exception {
+        try (EmbeddedInstance instance = EmbeddedInstance.start(options.catalogSize(), options.virtualThreads());
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(executor)
+                    .build();
+            String mode = options.virtualThreads() ? "virtual-thread" : "platform-thread";
+            Recording recording;
+            Instant startedAt;
+            if (options.clients() > 0) {
+                ClosedLoopDriver driver = new ClosedLoopDriver(client, instance.baseUri(), instance.videoIds(),
+                        options.mix(), options.timeout());
+                System.out.printf("Warming up %s mode for %ds with %d clients%n", mode, options.warmup().toSeconds(),
+                        options.clients());
+                driver.run(options.clients(), options.warmup());
+
+                System.out.printf("Measuring %s mode for %ds with %d clients%n", mode, options.duration().toSeconds(),
+                        options.clients());
+                startedAt = Instant.now();
+                recording = driver.run(options.clients(), options.duration());
+            } else {
+                OpenLoopDriver driver = new OpenLoopDriver(client, instance.baseUri(), instance.videoIds(),
+                        options.mix(), options.timeout());
+                System.out.printf("Warming up %s mode for %ds at %.0f req/s%n", mode, options.warmup().toSeconds(),
+                        options.rate());
+                driver.run(options.rate(), options.warmup());
+
+                System.out.printf("Measuring %s mode for %ds at %.0f req/s%n", mode, options.duration().toSeconds(),
+                        options.rate());
+                startedAt = Instant.now();
+                recording = driver.run(options.rate(), options.duration());
+            }
+            LatencyReport report = LatencyReport.of(options, recording, startedAt);
+            report.write(options.report());
+            System.out.print(report.format());
+            System.out.println("Report written to " + options.report().toAbsolutePath());
+            return report;
+        }
+    }
+}
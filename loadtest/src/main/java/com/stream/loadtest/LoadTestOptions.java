@@ -0,0 +1,127 @@
+package com.stream.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of a load test run, parsed from {@code --name=value} arguments.
+ *
+ * @param rate           Requests started per second, regardless of how fast responses come back.
+ * @param clients        If positive, the number of closed-loop clients sending back to back instead of a fixed rate.
+ * @param warmup         How long to run before recording latencies.
+ * @param duration       How long to record latencies.
+ * @param timeout        How long to wait for a response before counting the request as failed.
+ * @param catalogSize    The number of videos seeded into the embedded instance.
+ * @param mix            The relative weight of every operation in the request mix.
+ * @param virtualThreads Whether the instance runs in the virtual-thread execution mode.
+ * @param compareModes   Whether to run once in each execution mode and compare the two.
+ * @param report         Where the JSON report is written.
+ * @param baseline       A previous report to compare with, or {@code null}.
+ * @param label          A free-form label stored in the report, e.g. a commit hash.
+ */
+record LoadTestOptions(double rate, int clients, Duration warmup, Duration duration, Duration timeout, int catalogSize,
+                       Map<Operation, Integer> mix, boolean virtualThreads, boolean compareModes, Path report,
+                       Path baseline, String label) {
+
+    static final String DEFAULT_MIX = "play:10,metadata:25,list:20,search:15,impression:20,view:10";
+
+    private static final Set<String> NAMES = Set.of(
+            "rate", "clients", "warmup", "duration", "timeout", "catalog", "mix", "virtual-threads", "compare-modes",
+            "report", "baseline", "label");
+
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            String name = eq < 0 ? arg.substring(2) : arg.substring(2, eq);
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: --" + name + ", expected one of " + NAMES);
+            }
+            values.put(name, eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        double rate = Double.parseDouble(values.getOrDefault("rate", "200"));
+        if (rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        int clients = Integer.parseInt(values.getOrDefault("clients", "0"));
+        if (clients < 0) {
+            throw new IllegalArgumentException("--clients must not be negative");
+        }
+        String baseline = values.get("baseline");
+        return new LoadTestOptions(
+                rate,
+                clients,
+                duration(values.getOrDefault("warmup", "10s")),
+                duration(values.getOrDefault("duration", "60s")),
+                duration(values.getOrDefault("timeout", "30s")),
+                Integer.parseInt(values.getOrDefault("catalog", "10000")),
+                mix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false")),
+                Boolean.parseBoolean(values.getOrDefault("compare-modes", "false")),
+                Path.of(values.getOrDefault("report", "loadtest-report.json")),
+                baseline == null ? null : Path.of(baseline),
+                values.getOrDefault("label", ""));
+    }
+
+    /**
+     * Derives the options of one run of a mode comparison, whose report and label name the mode.
+     *
+     * @param virtualThreads Whether the run uses the virtual-thread execution mode.
+     * @return The options of that run.
+     */
+    LoadTestOptions forMode(boolean virtualThreads) {
+        String mode = virtualThreads ? "virtual" : "platform";
+        String name = report.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        Path modeReport = report.resolveSibling(dot < 0 ? name + "-" + mode : name.substring(0, dot) + "-" + mode
+                + name.substring(dot));
+        return new LoadTestOptions(rate, clients, warmup, duration, timeout, catalogSize, mix, virtualThreads, false,
+                modeReport, baseline, label.isEmpty() ? mode : label + "-" + mode);
+    }
+
+    /**
+     * Parses a duration such as {@code 500ms}, {@code 30s} or {@code 2m}; a plain number is in seconds.
+     */
+    static Duration duration(String value) {
+        String text = value.trim().toLowerCase();
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        if (text.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        if (text.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(text));
+    }
+
+    /**
+     * Parses a request mix such as {@code play:10,metadata:25}; operations left out are not sent.
+     */
+    static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in mix: " + entry);
+            }
+            if (weight > 0) {
+                mix.put(Operation.of(parts[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The request mix is empty");
+        }
+        return Collections.unmodifiableMap(mix);
+    }
+}
@@ -0,0 +1,76 @@
+package com.stream.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a fixed arrival rate, independently of how fast responses come back.
+ * <p>
+ * A closed-loop client that waits for each response before sending the next one slows down
+ * together with the server and so under-reports latency: the requests it would have sent while
+ * the server stalled are never measured (coordinated omission). This driver instead schedules
+ * request {@code i} at {@code start + i / rate} and measures latency from that intended send
+ * time, so time spent queued behind a stall, in the client or in the server, is counted.
+ */
+final class OpenLoopDriver {
+    private final HttpClient client;
+    private final URI baseUri;
+    private final RequestMix mix;
+    private final Duration timeout;
+
+    OpenLoopDriver(HttpClient client, URI baseUri, List<UUID> videoIds, Map<Operation, Integer> mix, Duration timeout) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.mix = new RequestMix(videoIds, mix);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Runs the request mix at the given rate and waits for every response.
+     *
+     * @param rate     Requests started per second.
+     * @param duration How long to keep starting requests.
+     * @return The recorded latencies and failures.
+     */
+    Recording run(double rate, Duration duration) throws InterruptedException {
+        Recording recording = new Recording();
+        AtomicLong inFlight = new AtomicLong();
+        double intervalNanos = 1e9 / rate;
+        long durationNanos = duration.toNanos();
+        long start = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long offset = (long) (i * intervalNanos);
+            if (offset >= durationNanos) {
+                break;
+            }
+            long intended = start + offset;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // If the dispatcher fell behind, overdue requests go out at once and still count from their due time.
+            Operation operation = mix.nextOperation();
+            HttpRequest request = operation.build(baseUri, mix.nextVideo(), timeout);
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                boolean failed = error != null || response.statusCode() / 100 != 2;
+                recording.record(operation, System.nanoTime() - intended, failed);
+                inFlight.decrementAndGet();
+            });
+        }
+        long deadline = System.nanoTime() + timeout.toNanos() * 2;
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        recording.setElapsedNanos(System.nanoTime() - start);
+        return recording;
+    }
+}
@@ -0,0 +1,88 @@
+package com.stream.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The kinds of request the load generator sends, each against a random video of the seeded catalog.
+ */
+enum Operation {
+    /**
+     * The first 256 KiB of the media file, as a player requests it on start.
+     */
+    PLAY {
+        @Override
+        HttpRequest.Builder request(URI base, UUID videoId) {
+            return HttpRequest.newBuilder(base.resolve("/videos/" + videoId + "/play"))
+                    .header("Range", "bytes=0-262143");
+        }
+    },
+    METADATA {
+        @Override
+        HttpRequest.Builder request(URI base, UUID videoId) {
+            return HttpRequest.newBuilder(base.resolve("/videos/" + videoId + "/metadata"));
+        }
+    },
+    /**
+     * The first page of the catalog, filtered by genre one time in three.
+     */
+    LIST {
+        @Override
+        HttpRequest.Builder request(URI base, UUID videoId) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String query = random.nextInt(3) == 0
+                    ? "?limit=20&genre=" + EmbeddedInstance.GENRES[random.nextInt(EmbeddedInstance.GENRES.length)]
+                    : "?limit=20";
+            return HttpRequest.newBuilder(base.resolve("/videos" + query));
+        }
+    },
+    SEARCH {
+        @Override
+        HttpRequest.Builder request(URI base, UUID videoId) {
+            int director = ThreadLocalRandom.current().nextInt(EmbeddedInstance.DIRECTORS);
+            return HttpRequest.newBuilder(base.resolve("/videos/search?director=Director%20" + director));
+        }
+    },
+    IMPRESSION {
+        @Override
+        HttpRequest.Builder request(URI base, UUID videoId) {
+            return HttpRequest.newBuilder(base.resolve("/engagement/" + videoId + "/impression"))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+        }
+    },
+    VIEW {
+        @Override
+        HttpRequest.Builder request(URI base, UUID videoId) {
+            return HttpRequest.newBuilder(base.resolve("/engagement/" + videoId + "/view"))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+        }
+    };
+
+    /**
+     * Builds a request of this kind.
+     *
+     * @param base    The base URI of the instance under test.
+     * @param videoId A random video of the catalog, for operations that address one.
+     * @param timeout How long to wait for the response before counting the request as failed.
+     * @return The request.
+     */
+    HttpRequest build(URI base, UUID videoId, Duration timeout) {
+        return request(base, videoId).timeout(timeout).build();
+    }
+
+    abstract HttpRequest.Builder request(URI base, UUID videoId);
+
+    /**
+     * @return The name of the operation as used in options and reports.
+     */
+    String key() {
+        return name().toLowerCase();
+    }
+
+    static Operation of(String key) {
+        return valueOf(key.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,61 @@
+package com.stream.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and failures recorded per operation during one measured run.
+ * <p>
+ * Latencies are kept in HDR histograms, in microseconds with three significant digits, which
+ * bounds the memory used no matter how many requests are recorded.
+ */
+final class Recording {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> failures = new EnumMap<>(Operation.class);
+    private volatile long elapsedNanos;
+
+    Recording() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            failures.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Records the outcome of one request.
+     *
+     * @param operation    The kind of request.
+     * @param latencyNanos The time from when the request was due to be sent until its response arrived.
+     * @param failed       Whether the request failed or got an unexpected status.
+     */
+    void record(Operation operation, long latencyNanos, boolean failed) {
+        long micros = Math.min(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)), HIGHEST_TRACKABLE_MICROS);
+        latencies.get(operation).recordValue(micros);
+        if (failed) {
+            failures.get(operation).increment();
+        }
+    }
+
+    Histogram latencies(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    long failures(Operation operation) {
+        return failures.get(operation).sum();
+    }
+
+    long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+}
@@ -0,0 +1,40 @@
+package com.stream.loadtest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the operation and video of the next request, weighted by the request mix.
+ */
+final class RequestMix {
+    private final List<UUID> videoIds;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    RequestMix(List<UUID> videoIds, Map<Operation, Integer> mix) {
+        this.videoIds = videoIds;
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    UUID nextVideo() {
+        return videoIds.get(ThreadLocalRandom.current().nextInt(videoIds.size()));
+    }
+}
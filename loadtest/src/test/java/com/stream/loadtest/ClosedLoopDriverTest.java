@@ -0,0 +1,91 @@
+package com.stream.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link ClosedLoopDriver}, against a local HTTP server that handles one request at a time.
+ */
+class ClosedLoopDriverTest {
+
+    private static final long SERVICE_TIME_MILLIS = 50;
+
+    private HttpServer server;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private URI baseUri;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(SERVICE_TIME_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().startsWith("/engagement") ? 503 : 200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor());
+        server.start();
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientExecutor).build();
+        baseUri = URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        clientExecutor.shutdownNow();
+    }
+
+    /**
+     * Tests whether clients only send their next request once the previous response arrived, so that
+     * throughput is bounded by the server, and whether every response is recorded.
+     */
+    @Test
+    void testThroughputFollowsServer() {
+        ClosedLoopDriver driver = new ClosedLoopDriver(client, baseUri, List.of(UUID.randomUUID()),
+                Map.of(Operation.METADATA, 1), Duration.ofSeconds(30));
+
+        // 4 clients for 1s against a server that completes 20 per second.
+        Recording recording = driver.run(4, Duration.ofSeconds(1));
+
+        Histogram latencies = recording.latencies(Operation.METADATA);
+        assertTrue(latencies.getTotalCount() >= 15, "completed " + latencies.getTotalCount());
+        // At most 20 served within the second, plus the requests in flight when it ended.
+        assertTrue(latencies.getTotalCount() <= 24, "completed " + latencies.getTotalCount());
+        assertEquals(0, recording.failures(Operation.METADATA));
+        assertTrue(latencies.getMinValue() >= SERVICE_TIME_MILLIS * 1000 * 9 / 10);
+        assertTrue(recording.elapsedNanos() >= Duration.ofSeconds(1).toNanos());
+    }
+
+    /**
+     * Tests whether shed requests count as failures.
+     */
+    @Test
+    void testShedRequestsAreFailures() {
+        ClosedLoopDriver driver = new ClosedLoopDriver(client, baseUri, List.of(UUID.randomUUID()),
+                Map.of(Operation.VIEW, 1), Duration.ofSeconds(30));
+
+        Recording recording = driver.run(2, Duration.ofMillis(300));
+
+        long views = recording.latencies(Operation.VIEW).getTotalCount();
+        assertTrue(views > 0);
+        assertEquals(views, recording.failures(Operation.VIEW));
+    }
+}
@@ -0,0 +1,66 @@
+package com.stream.loadtest;
+
+import org.junit.jupiter.api.Test;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link LoadTestOptions}.
+ */
+class LoadTestOptionsTest {
+
+    /**
+     * Tests whether every option is parsed and omitted ones fall back to their defaults.
+     */
+    @Test
+    void testParse() {
+        LoadTestOptions options = LoadTestOptions.parse("--rate=750", "--duration=2m", "--warmup=500ms",
+                "--mix=play:3, search:1,view:0", "--virtual-threads", "--label=abc123");
+
+        assertEquals(750, options.rate());
+        assertEquals(Duration.ofMinutes(2), options.duration());
+        assertEquals(Duration.ofMillis(500), options.warmup());
+        assertEquals(Duration.ofSeconds(30), options.timeout());
+        assertEquals(Map.of(Operation.PLAY, 3, Operation.SEARCH, 1), options.mix());
+        assertTrue(options.virtualThreads());
+        assertEquals(Path.of("loadtest-report.json"), options.report());
+        assertNull(options.baseline());
+        assertEquals("abc123", options.label());
+        assertEquals(6, LoadTestOptions.parse().mix().size());
+        assertEquals(0, options.clients());
+        assertFalse(options.compareModes());
+    }
+
+    /**
+     * Tests whether a mode comparison derives one run per mode, each with its own report and label.
+     */
+    @Test
+    void testForMode() {
+        LoadTestOptions options = LoadTestOptions.parse("--clients=5000", "--compare-modes", "--report=out/run.json");
+
+        LoadTestOptions platform = options.forMode(false);
+        LoadTestOptions virtual = options.forMode(true);
+
+        assertEquals(5000, platform.clients());
+        assertFalse(platform.virtualThreads());
+        assertTrue(virtual.virtualThreads());
+        assertFalse(virtual.compareModes());
+        assertEquals(Path.of("out/run-platform.json"), platform.report());
+        assertEquals(Path.of("out/run-virtual.json"), virtual.report());
+        assertEquals("virtual", virtual.label());
+    }
+
+    /**
+     * Tests whether unknown options, an empty mix, a non-positive rate and negative clients are rejected.
+     */
+    @Test
+    void testRejectsInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--rps=10"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--mix=play:0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--mix=stream:1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--rate=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--clients=-1"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.stream.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link OpenLoopDriver}, against a local HTTP server that handles one request at a time.
+ */
+class OpenLoopDriverTest {
+
+    private static final long SERVICE_TIME_MILLIS = 50;
+
+    private HttpServer server;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private URI baseUri;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(SERVICE_TIME_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().startsWith("/engagement") ? 404 : 200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor());
+        server.start();
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientExecutor).build();
+        baseUri = URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        clientExecutor.shutdownNow();
+    }
+
+    /**
+     * Tests whether requests keep being sent at the configured rate while the server falls behind,
+     * and whether the time they spend queued counts towards their latency.
+     */
+    @Test
+    void testLatencyIncludesQueueingBehindSlowServer() throws Exception {
+        OpenLoopDriver driver = new OpenLoopDriver(client, baseUri, List.of(UUID.randomUUID()),
+                Map.of(Operation.METADATA, 1), Duration.ofSeconds(30));
+
+        // 40 requests in 1s against a server that completes 20 per second.
+        Recording recording = driver.run(40, Duration.ofSeconds(1));
+
+        Histogram latencies = recording.latencies(Operation.METADATA);
+        assertEquals(40, latencies.getTotalCount());
+        assertEquals(0, recording.failures(Operation.METADATA));
+        // The last request is due after 975ms but only served after 40 x 50ms = 2s.
+        assertTrue(latencies.getMaxValue() >= 800_000, "max latency " + latencies.getMaxValue() + "us");
+        assertTrue(latencies.getValueAtPercentile(50) > SERVICE_TIME_MILLIS * 1000 * 2);
+    }
+
+    /**
+     * Tests whether only operations of the mix are sent and non-2xx responses count as failures.
+     */
+    @Test
+    void testMixAndFailures() throws Exception {
+        OpenLoopDriver driver = new OpenLoopDriver(client, baseUri, List.of(UUID.randomUUID()),
+                Map.of(Operation.LIST, 1, Operation.VIEW, 1), Duration.ofSeconds(30));
+
+        Recording recording = driver.run(20, Duration.ofMillis(500));
+
+        long list = recording.latencies(Operation.LIST).getTotalCount();
+        long view = recording.latencies(Operation.VIEW).getTotalCount();
+        assertEquals(10, list + view);
+        assertEquals(0, recording.failures(Operation.LIST));
+        assertEquals(view, recording.failures(Operation.VIEW));
+        assertEquals(0, recording.latencies(Operation.PLAY).getTotalCount());
+    }
+}